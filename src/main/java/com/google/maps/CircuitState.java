@@ -0,0 +1,39 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps;
+
+import com.google.maps.errors.CircuitOpenException;
+
+/**
+ * The state of the circuit breaker that guards requests to one API endpoint.
+ *
+ * @see GeoApiContext.Builder#circuitBreaker(double, int, long, java.util.concurrent.TimeUnit)
+ */
+public enum CircuitState {
+  /** Requests are sent as usual, and their outcomes are tracked. */
+  CLOSED,
+
+  /**
+   * Too many recent requests failed, so new requests fail fast with a {@link
+   * CircuitOpenException} and are not retried.
+   */
+  OPEN,
+
+  /**
+   * The endpoint is being probed with a few requests; the rest fail fast as when {@link #OPEN}.
+   */
+  HALF_OPEN
+}
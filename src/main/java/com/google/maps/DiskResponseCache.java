@@ -0,0 +1,634 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link ResponseBodyCache} that keeps response bodies in a directory, so that they survive
+ * restarts and can be shared by the processes of one host.
+ *
+ * <p>Bodies are appended to memory-mapped segment files of a fixed size, and found through a hash
+ * index held off the Java heap, which is rebuilt by scanning the segments when the cache is opened.
+ * Every record carries a checksum, so a record torn by a crash is simply not found. Replaced and
+ * expired records are dropped by compaction: once the directory holds more segments than its size
+ * budget allows, segments that are mostly dead have their live records copied forward and are
+ * deleted, and if that is not enough, the oldest segments are evicted whole.
+ *
+ * <p>One process at a time may open a directory with {@link #open}; any number of others may open
+ * it with {@link #openReadOnly}, and call {@link #refresh()} to see what has been written since.
+ *
+ * <p>By default the responses of the Geocoding, Place Details and Time Zone APIs are cached; see
+ * {@link #cacheApi(String)}.
+ */
+public final class DiskResponseCache implements ResponseBodyCache, Closeable {
+
+  /** The APIs whose responses are cached unless others are added. */
+  public static final Set<String> DEFAULT_APIS =
+      Collections.unmodifiableSet(
+          new HashSet<>(
+              Arrays.asList(
+                  "/maps/api/geocode/json",
+                  "/maps/api/place/details/json",
+                  "/maps/api/timezone/json")));
+
+  private static final Logger LOG = LoggerFactory.getLogger(DiskResponseCache.class.getName());
+
+  private static final long MAX_SEGMENT_SIZE = 64L * 1024 * 1024;
+  private static final long MIN_SEGMENT_SIZE = 1024 * 1024;
+  private static final String SEGMENT_PREFIX = "segment-";
+  private static final String SEGMENT_SUFFIX = ".dat";
+  private static final String LOCK_FILE = "writer.lock";
+
+  // A record is: length, checksum, written-at millis, key length, body length, key, body. The
+  // length is written last, so a reader never sees a record that is still being written.
+  private static final int LENGTH = 0;
+  private static final int CHECKSUM = 4;
+  private static final int WRITTEN_AT = 8;
+  private static final int KEY_LENGTH = 16;
+  private static final int BODY_LENGTH = 20;
+  private static final int HEADER_SIZE = 24;
+
+  private final Path directory;
+  private final boolean readOnly;
+  private final int segmentSize;
+  private final int maxSegments;
+  private final long maxAgeMillis;
+  private final Set<String> apis = ConcurrentHashMap.newKeySet();
+  private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+  private final Index index = new Index();
+
+  private FileChannel lockChannel;
+  private FileLock lock;
+  private boolean closed;
+
+  private DiskResponseCache(
+      Path directory, boolean readOnly, int segmentSize, int maxSegments, long maxAgeMillis) {
+    this.directory = directory;
+    this.readOnly = readOnly;
+    this.segmentSize = segmentSize;
+    this.maxSegments = maxSegments;
+    this.maxAgeMillis = maxAgeMillis;
+    apis.addAll(DEFAULT_APIS);
+  }
+
+  /**
+   * Opens a cache directory for reading and writing, creating it if needed.
+   *
+   * @param directory The directory to keep the cache in.
+   * @param maxSize The number of bytes the cache may take on disk.
+   * @param maxAge How long a response may be reused for.
+   * @param unit The unit of {@code maxAge}.
+   * @return The cache.
+   * @throws IOException If the directory cannot be read, or another process has it open for
+   *     writing.
+   */
+  public static DiskResponseCache open(Path directory, long maxSize, long maxAge, TimeUnit unit)
+      throws IOException {
+    long segmentSize = Math.max(MIN_SEGMENT_SIZE, Math.min(MAX_SEGMENT_SIZE, maxSize / 8));
+    int maxSegments = (int) Math.max(2, maxSize / segmentSize);
+    return open(directory, (int) segmentSize, maxSegments, unit.toMillis(maxAge));
+  }
+
+  static DiskResponseCache open(
+      Path directory, int segmentSize, int maxSegments, long maxAgeMillis) throws IOException {
+    Files.createDirectories(directory);
+    DiskResponseCache cache =
+        new DiskResponseCache(directory, false, segmentSize, maxSegments, maxAgeMillis);
+    cache.lockChannel =
+        FileChannel.open(
+            directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    try {
+      cache.lock = cache.lockChannel.tryLock();
+    } catch (OverlappingFileLockException e) {
+      // This process already has it open.
+    }
+    if (cache.lock == null) {
+      cache.lockChannel.close();
+      throw new IOException(directory + " is already open for writing by another process");
+    }
+    cache.load();
+    return cache;
+  }
+
+  /**
+   * Opens a cache directory that another process writes to, for reading only.
+   *
+   * @param directory The directory the cache is kept in.
+   * @param maxAge How long a response may be reused for.
+   * @param unit The unit of {@code maxAge}.
+   * @return The cache. Offering it responses has no effect.
+   * @throws IOException If the directory cannot be read.
+   */
+  public static DiskResponseCache openReadOnly(Path directory, long maxAge, TimeUnit unit)
+      throws IOException {
+    DiskResponseCache cache = new DiskResponseCache(directory, true, 0, 0, unit.toMillis(maxAge));
+    cache.load();
+    return cache;
+  }
+
+  /**
+   * Caches the responses of another API, in addition to the {@link #DEFAULT_APIS}. Only APIs whose
+   * results do not depend on when they are requested should be added.
+   *
+   * @param api The URL path of the API, such as {@code "/maps/api/elevation/json"}.
+   * @return Returns this cache for call chaining.
+   */
+  public DiskResponseCache cacheApi(String api) {
+    apis.add(api);
+    return this;
+  }
+
+  @Override
+  public boolean caches(String api) {
+    return apis.contains(api);
+  }
+
+  @Override
+  public synchronized byte[] get(String api, String key) {
+    if (closed || !caches(api)) {
+      return null;
+    }
+    byte[] keyBytes = key.getBytes(UTF_8);
+    long location = index.find(hash(keyBytes), keyBytes);
+    if (location < 0) {
+      return null;
+    }
+    Segment segment = segments.get(segmentId(location));
+    int offset = offset(location);
+    if (System.currentTimeMillis() - segment.buffer.getLong(offset + WRITTEN_AT) > maxAgeMillis) {
+      return null;
+    }
+    byte[] body = new byte[segment.buffer.getInt(offset + BODY_LENGTH)];
+    ByteBuffer record = segment.buffer.duplicate();
+    record.position(offset + HEADER_SIZE + keyBytes.length);
+    record.get(body);
+    return body;
+  }
+
+  @Override
+  public synchronized void put(String api, String key, byte[] body) {
+    if (closed || readOnly || !caches(api)) {
+      return;
+    }
+    byte[] keyBytes = key.getBytes(UTF_8);
+    try {
+      append(keyBytes, body, System.currentTimeMillis());
+      compact();
+    } catch (IOException e) {
+      LOG.warn("Could not write to response cache in " + directory, e);
+    }
+  }
+
+  /**
+   * Picks up what the writing process has stored since this cache was opened or last refreshed.
+   * Only needed by caches opened with {@link #openReadOnly}.
+   *
+   * @throws IOException If the directory cannot be read.
+   */
+  public synchronized void refresh() throws IOException {
+    Set<Integer> onDisk = segmentIds();
+    if (!onDisk.containsAll(segments.keySet())) {
+      // Segments were compacted away; start over rather than work out what moved where.
+      for (Segment segment : segments.values()) {
+        segment.channel.close();
+      }
+      segments.clear();
+      index.clear();
+    }
+    for (Segment segment : segments.values()) {
+      if (segment.channel.size() > segment.buffer.capacity()) {
+        // The writer was still creating the segment when it was mapped.
+        segment.buffer =
+            segment.channel.map(FileChannel.MapMode.READ_ONLY, 0, segment.channel.size());
+      }
+      scan(segment);
+    }
+    for (int id : onDisk) {
+      if (!segments.containsKey(id)) {
+        scan(map(id));
+      }
+    }
+  }
+
+  /** Returns the number of responses stored, including expired ones not yet compacted away. */
+  public synchronized int size() {
+    return index.size;
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    for (Segment segment : segments.values()) {
+      if (!readOnly) {
+        segment.buffer.force();
+      }
+      segment.channel.close();
+    }
+    segments.clear();
+    index.clear();
+    if (lock != null) {
+      lock.release();
+      lockChannel.close();
+    }
+  }
+
+  private void load() throws IOException {
+    for (int id : segmentIds()) {
+      scan(map(id));
+    }
+    if (!readOnly && segments.isEmpty()) {
+      map(1);
+    }
+  }
+
+  /**
+   * Returns the ids of the segments on disk, oldest first, which is the order their records must
+   * be indexed in for a key's latest record to win.
+   */
+  private SortedSet<Integer> segmentIds() throws IOException {
+    SortedSet<Integer> ids = new TreeSet<>();
+    try (DirectoryStream<Path> files =
+        Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+      for (Path file : files) {
+        String name = file.getFileName().toString();
+        try {
+          ids.add(
+              Integer.parseInt(
+                  name.substring(
+                      SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+        } catch (NumberFormatException e) {
+          // Not one of ours.
+        }
+      }
+    }
+    return ids;
+  }
+
+  private Segment map(int id) throws IOException {
+    Path file = directory.resolve(SEGMENT_PREFIX + id + SEGMENT_SUFFIX);
+    FileChannel channel;
+    MappedByteBuffer buffer;
+    if (readOnly) {
+      channel = FileChannel.open(file, StandardOpenOption.READ);
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    } else {
+      channel =
+          FileChannel.open(
+              file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+      // Mapping past the end of the file grows it, so every segment has its full size up front.
+      buffer =
+          channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentSize, channel.size()));
+    }
+    Segment segment = new Segment(id, file, channel, buffer);
+    segments.put(id, segment);
+    return segment;
+  }
+
+  /** Indexes the records of a segment from where the last scan of it stopped. */
+  private void scan(Segment segment) {
+    ByteBuffer buffer = segment.buffer;
+    int offset = segment.end;
+    while (offset + HEADER_SIZE <= buffer.limit()) {
+      int length = buffer.getInt(offset + LENGTH);
+      if (length < HEADER_SIZE
+          || length > buffer.limit() - offset
+          || buffer.getInt(offset + CHECKSUM) != checksum(buffer, offset, length)) {
+        // The end of the segment, or a record torn by a crash, after which nothing is trusted.
+        break;
+      }
+      byte[] keyBytes = key(buffer, offset);
+      index(keyBytes, segment, offset, length);
+      offset += length;
+    }
+    segment.end = offset;
+  }
+
+  private void index(byte[] keyBytes, Segment segment, int offset, int length) {
+    long replaced = index.put(hash(keyBytes), keyBytes, location(segment.id, offset));
+    if (replaced >= 0) {
+      Segment old = segments.get(segmentId(replaced));
+      old.liveBytes -= old.buffer.getInt(offset(replaced) + LENGTH);
+    }
+    segment.liveBytes += length;
+  }
+
+  private void append(byte[] keyBytes, byte[] body, long writtenAt) throws IOException {
+    int length = HEADER_SIZE + keyBytes.length + body.length;
+    if (length > segmentSize) {
+      return;
+    }
+    Segment segment = segments.lastEntry().getValue();
+    if (segment.end + length > segmentSize) {
+      segment.buffer.force();
+      segment = map(segment.id + 1);
+    }
+    int offset = segment.end;
+    ByteBuffer buffer = segment.buffer;
+    buffer.putLong(offset + WRITTEN_AT, writtenAt);
+    buffer.putInt(offset + KEY_LENGTH, keyBytes.length);
+    buffer.putInt(offset + BODY_LENGTH, body.length);
+    ByteBuffer data = buffer.duplicate();
+    data.position(offset + HEADER_SIZE);
+    data.put(keyBytes);
+    data.put(body);
+    buffer.putInt(offset + CHECKSUM, checksum(buffer, offset, length));
+    if (offset + length + 4 <= segmentSize) {
+      // Clear whatever a crashed writer may have left, so that scans stop after this record.
+      buffer.putInt(offset + length + LENGTH, 0);
+    }
+    buffer.putInt(offset + LENGTH, length);
+    segment.end = offset + length;
+    index(keyBytes, segment, offset, length);
+  }
+
+  /**
+   * Brings the number of segments back within budget: segments less than half of which is still
+   * live have their live records copied forward, and then the oldest segments are evicted.
+   */
+  private void compact() throws IOException {
+    Iterator<Segment> candidates = segments.values().iterator();
+    while (segments.size() > maxSegments && candidates.hasNext()) {
+      Segment segment = candidates.next();
+      if (segment == segments.lastEntry().getValue() || segment.liveBytes * 2 >= segment.end) {
+        continue;
+      }
+      copyLiveRecords(segment);
+      candidates = segments.values().iterator();
+    }
+    while (segments.size() > maxSegments) {
+      Segment oldest = segments.firstEntry().getValue();
+      dropRecords(oldest);
+      delete(oldest);
+    }
+  }
+
+  private void copyLiveRecords(Segment segment) throws IOException {
+    long now = System.currentTimeMillis();
+    ByteBuffer buffer = segment.buffer;
+    for (int offset = 0; offset < segment.end; offset += buffer.getInt(offset + LENGTH)) {
+      byte[] keyBytes = key(buffer, offset);
+      if (index.find(hash(keyBytes), keyBytes) != location(segment.id, offset)) {
+        continue;
+      }
+      long writtenAt = buffer.getLong(offset + WRITTEN_AT);
+      if (now - writtenAt > maxAgeMillis) {
+        index.remove(hash(keyBytes), keyBytes);
+        continue;
+      }
+      byte[] body = new byte[buffer.getInt(offset + BODY_LENGTH)];
+      ByteBuffer data = buffer.duplicate();
+      data.position(offset + HEADER_SIZE + keyBytes.length);
+      data.get(body);
+      append(keyBytes, body, writtenAt);
+    }
+    delete(segment);
+  }
+
+  private void dropRecords(Segment segment) {
+    ByteBuffer buffer = segment.buffer;
+    for (int offset = 0; offset < segment.end; offset += buffer.getInt(offset + LENGTH)) {
+      byte[] keyBytes = key(buffer, offset);
+      if (index.find(hash(keyBytes), keyBytes) == location(segment.id, offset)) {
+        index.remove(hash(keyBytes), keyBytes);
+      }
+    }
+  }
+
+  private void delete(Segment segment) throws IOException {
+    segments.remove(segment.id);
+    segment.channel.close();
+    // Readers that still have the segment mapped keep their view of it until they refresh.
+    Files.deleteIfExists(segment.file);
+  }
+
+  private byte[] key(ByteBuffer buffer, int offset) {
+    byte[] keyBytes = new byte[buffer.getInt(offset + KEY_LENGTH)];
+    ByteBuffer data = buffer.duplicate();
+    data.position(offset + HEADER_SIZE);
+    data.get(keyBytes);
+    return keyBytes;
+  }
+
+  private boolean keyEquals(long location, byte[] keyBytes) {
+    ByteBuffer buffer = segments.get(segmentId(location)).buffer;
+    int offset = offset(location);
+    if (buffer.getInt(offset + KEY_LENGTH) != keyBytes.length) {
+      return false;
+    }
+    for (int i = 0; i < keyBytes.length; i++) {
+      if (buffer.get(offset + HEADER_SIZE + i) != keyBytes[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** The checksum of a record: everything after its length and checksum fields. */
+  private static int checksum(ByteBuffer buffer, int offset, int length) {
+    ByteBuffer data = buffer.duplicate();
+    data.position(offset + WRITTEN_AT);
+    data.limit(offset + length);
+    CRC32 crc = new CRC32();
+    if (data.hasArray()) {
+      crc.update(data.array(), data.arrayOffset() + data.position(), data.remaining());
+    } else {
+      byte[] chunk = new byte[Math.min(8192, data.remaining())];
+      while (data.hasRemaining()) {
+        int n = Math.min(chunk.length, data.remaining());
+        data.get(chunk, 0, n);
+        crc.update(chunk, 0, n);
+      }
+    }
+    return (int) crc.getValue();
+  }
+
+  /** FNV-1a. */
+  private static long hash(byte[] keyBytes) {
+    long hash = 0xcbf29ce484222325L;
+    for (byte b : keyBytes) {
+      hash ^= b & 0xff;
+      hash *= 0x100000001b3L;
+    }
+    return hash;
+  }
+
+  private static long location(int segmentId, int offset) {
+    return ((long) segmentId << 32) | (offset & 0xFFFFFFFFL);
+  }
+
+  private static int segmentId(long location) {
+    return (int) (location >>> 32);
+  }
+
+  private static int offset(long location) {
+    return (int) location;
+  }
+
+  private static final class Segment {
+    final int id;
+    final Path file;
+    final FileChannel channel;
+    MappedByteBuffer buffer;
+    /** Where the next record goes, or where the last scan stopped. */
+    int end;
+    /** The bytes of the records in this segment that the index still points to. */
+    long liveBytes;
+
+    Segment(int id, Path file, FileChannel channel, MappedByteBuffer buffer) {
+      this.id = id;
+      this.file = file;
+      this.channel = channel;
+      this.buffer = buffer;
+    }
+  }
+
+  /**
+   * An open-addressing hash table from key to record location, held in a direct buffer so that
+   * millions of entries cost the garbage collector nothing. Each slot holds the key's hash and the
+   * record's location; keys themselves are compared against the record.
+   */
+  private final class Index {
+    private static final int SLOT_SIZE = 16;
+    private static final long EMPTY = 0;
+    private static final long REMOVED = -1;
+
+    private ByteBuffer slots;
+    private int capacity;
+    private int size;
+    /** Slots that are not empty, including removed ones, which probes must step over. */
+    private int used;
+
+    Index() {
+      clear();
+    }
+
+    void clear() {
+      capacity = 1 << 14;
+      slots = ByteBuffer.allocateDirect(capacity * SLOT_SIZE);
+      size = 0;
+      used = 0;
+    }
+
+    /** Returns the location of the key's record, or -1 if it is not indexed. */
+    long find(long hash, byte[] keyBytes) {
+      int slot = findSlot(hash, keyBytes);
+      return slot < 0 ? -1 : slots.getLong(slot * SLOT_SIZE + 8);
+    }
+
+    /** Points the key at a new record, returning the location it pointed to before, or -1. */
+    long put(long hash, byte[] keyBytes, long location) {
+      int slot = findSlot(hash, keyBytes);
+      if (slot >= 0) {
+        long replaced = slots.getLong(slot * SLOT_SIZE + 8);
+        slots.putLong(slot * SLOT_SIZE + 8, location);
+        return replaced;
+      }
+      if ((used + 1) * 2 > capacity) {
+        resize(size * 2 + 2 > capacity ? capacity * 2 : capacity);
+      }
+      insert(hash, location);
+      size++;
+      return -1;
+    }
+
+    void remove(long hash, byte[] keyBytes) {
+      int slot = findSlot(hash, keyBytes);
+      if (slot >= 0) {
+        slots.putLong(slot * SLOT_SIZE + 8, REMOVED);
+        size--;
+      }
+    }
+
+    private int findSlot(long hash, byte[] keyBytes) {
+      int mask = capacity - 1;
+      for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+        long location = slots.getLong(slot * SLOT_SIZE + 8);
+        if (location == EMPTY) {
+          return -1;
+        }
+        if (location != REMOVED
+            && slots.getLong(slot * SLOT_SIZE) == hash
+            && keyEquals(location, keyBytes)) {
+          return slot;
+        }
+      }
+    }
+
+    private void insert(long hash, long location) {
+      int mask = capacity - 1;
+      int slot = spread(hash) & mask;
+      while (true) {
+        long existing = slots.getLong(slot * SLOT_SIZE + 8);
+        if (existing == EMPTY || existing == REMOVED) {
+          break;
+        }
+        slot = (slot + 1) & mask;
+      }
+      if (slots.getLong(slot * SLOT_SIZE + 8) == EMPTY) {
+        used++;
+      }
+      slots.putLong(slot * SLOT_SIZE, hash);
+      slots.putLong(slot * SLOT_SIZE + 8, location);
+    }
+
+    private void resize(int newCapacity) {
+      ByteBuffer old = slots;
+      int oldCapacity = capacity;
+      capacity = newCapacity;
+      slots = ByteBuffer.allocateDirect(capacity * SLOT_SIZE);
+      used = 0;
+      for (int slot = 0; slot < oldCapacity; slot++) {
+        long location = old.getLong(slot * SLOT_SIZE + 8);
+        if (location != EMPTY && location != REMOVED) {
+          insert(old.getLong(slot * SLOT_SIZE), location);
+        }
+      }
+    }
+
+    private int spread(long hash) {
+      return (int) (hash ^ (hash >>> 32));
+    }
+  }
+}
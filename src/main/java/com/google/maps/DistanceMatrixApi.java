@@ -20,6 +20,7 @@ import com.google.maps.internal.ApiConfig;
 import com.google.maps.internal.ApiResponse;
 import com.google.maps.model.DistanceMatrix;
 import com.google.maps.model.DistanceMatrixRow;
+import com.google.maps.model.LatLng;
 
 /**
  * The Google Distance Matrix API is a service that provides travel distance and time for a matrix
@@ -48,6 +49,31 @@ public class DistanceMatrixApi {
     return new DistanceMatrixApiRequest(context);
   }
 
+  /**
+   * Creates a request for a matrix of any size, which is sent as tiles within the API's per-request
+   * limits and stitched back together.
+   *
+   * @param context The {@link GeoApiContext} to make requests through.
+   * @return Returns the request, to be given its origins and destinations.
+   */
+  public static LargeDistanceMatrixRequest newLargeRequest(GeoApiContext context) {
+    return new LargeDistanceMatrixRequest(context);
+  }
+
+  /**
+   * Creates a request for the candidates nearest an origin by road. Only the candidates nearest as
+   * the crow flies are sent to the API.
+   *
+   * @param context The {@link GeoApiContext} to make requests through.
+   * @param origin The point to measure from.
+   * @param candidates The destinations to choose from.
+   * @return Returns the request, ranked by road distance when answered.
+   */
+  public static NearestDestinationsRequest newNearestRequest(
+      GeoApiContext context, LatLng origin, LatLng... candidates) {
+    return new NearestDestinationsRequest(context, origin, candidates);
+  }
+
   public static DistanceMatrixApiRequest getDistanceMatrix(
       GeoApiContext context, String[] origins, String[] destinations) {
     return newRequest(context).origins(origins).destinations(destinations);
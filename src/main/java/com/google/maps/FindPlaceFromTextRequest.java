@@ -117,6 +117,11 @@ public class FindPlaceFromTextRequest
       return "OK".equals(status) || "ZERO_RESULTS".equals(status);
     }
 
+    @Override
+    public boolean zeroResults() {
+      return "ZERO_RESULTS".equals(status);
+    }
+
     @Override
     public FindPlaceFromText getResult() {
       FindPlaceFromText result = new FindPlaceFromText();
@@ -149,6 +149,42 @@ public class GaeRequestHandler implements GeoApiContext.RequestHandler {
       throw new RuntimeException("queriesPerSecond not implemented for Google App Engine");
     }
 
+    @Override
+    public Builder queriesPerSecond(String pathOrHost, int maxQps) {
+      throw new RuntimeException("queriesPerSecond not implemented for Google App Engine");
+    }
+
+    @Override
+    public Builder adaptiveQueriesPerSecond() {
+      throw new RuntimeException("adaptiveQueriesPerSecond not implemented for Google App Engine");
+    }
+
+    @Override
+    public Builder queueCapacity(int capacity, QueueOverflowPolicy overflowPolicy) {
+      throw new RuntimeException("queueCapacity not implemented for Google App Engine");
+    }
+
+    @Override
+    public Builder maxQueueWait(long maxQueueWait, TimeUnit unit) {
+      throw new RuntimeException("maxQueueWait not implemented for Google App Engine");
+    }
+
+    @Override
+    public Builder priorityWeight(RequestPriority priority, int weight) {
+      throw new RuntimeException("priorityWeight not implemented for Google App Engine");
+    }
+
+    @Override
+    public Builder hedgeRequests(double percentile) {
+      throw new RuntimeException("hedgeRequests not implemented for Google App Engine");
+    }
+
+    @Override
+    public Builder circuitBreaker(
+        double failureRateThreshold, int windowSize, long openDuration, TimeUnit unit) {
+      throw new RuntimeException("circuitBreaker not implemented for Google App Engine");
+    }
+
     @Override
     public Builder proxy(Proxy proxy) {
       throw new RuntimeException("setProxy not implemented for Google App Engine");
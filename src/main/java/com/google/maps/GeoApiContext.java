@@ -15,13 +15,23 @@
 
 package com.google.maps;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 import com.google.gson.FieldNamingPolicy;
+import com.google.gson.JsonParseException;
 import com.google.maps.errors.ApiException;
 import com.google.maps.errors.OverQueryLimitException;
+import com.google.maps.errors.ZeroResultsException;
 import com.google.maps.internal.ApiConfig;
 import com.google.maps.internal.ApiResponse;
+import com.google.maps.internal.CachingPendingResult;
+import com.google.maps.internal.CompletedPendingResult;
 import com.google.maps.internal.ExceptionsAllowedToRetry;
+import com.google.maps.internal.Geohash;
+import com.google.maps.internal.GsonCodecs;
 import com.google.maps.internal.HttpHeaders;
+import com.google.maps.internal.RateLimitExecutorService;
+import com.google.maps.internal.SingleFlight;
 import com.google.maps.internal.UrlSigner;
 import com.google.maps.metrics.NoOpRequestMetricsReporter;
 import com.google.maps.metrics.RequestMetrics;
@@ -30,15 +40,21 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.Proxy;
+import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * The entry point for making requests against the Google Geo APIs.
@@ -60,6 +76,15 @@ public class GeoApiContext implements Closeable {
   private static final String USER_AGENT = "GoogleGeoApiClientJava/" + VERSION;
   private static final int DEFAULT_BACKOFF_TIMEOUT_MILLIS = 60 * 1000; // 60s
 
+  /** The parameter holding the location of the APIs whose cache keys can be snapped to a grid. */
+  private static final Map<String, String> LOCATION_PARAMETERS = new HashMap<>();
+
+  static {
+    LOCATION_PARAMETERS.put("/maps/api/geocode/json", "latlng");
+    LOCATION_PARAMETERS.put("/maps/api/timezone/json", "location");
+    LOCATION_PARAMETERS.put("/maps/api/elevation/json", "locations");
+  }
+
   private final RequestHandler requestHandler;
   private final String apiKey;
   private final String baseUrlOverride;
@@ -70,7 +95,12 @@ public class GeoApiContext implements Closeable {
   private final Integer maxRetries;
   private final UrlSigner urlSigner;
   private final RequestMetricsReporter requestMetricsReporter;
+  private final SingleFlight singleFlight;
+  private final ResponseCache responseCache;
+  private final ResponseBodyCache responseBodyCache;
+  private final Map<String, Integer> cacheCellPrecisions;
   private final Map<String, String> defaultHeaders = new HashMap<>();
+  private ScheduledExecutorService scheduler;
 
   /* package */
   GeoApiContext(
@@ -83,7 +113,11 @@ public class GeoApiContext implements Closeable {
       ExceptionsAllowedToRetry exceptionsAllowedToRetry,
       Integer maxRetries,
       UrlSigner urlSigner,
-      RequestMetricsReporter requestMetricsReporter) {
+      RequestMetricsReporter requestMetricsReporter,
+      SingleFlight singleFlight,
+      ResponseCache responseCache,
+      ResponseBodyCache responseBodyCache,
+      Map<String, Integer> cacheCellPrecisions) {
     this.requestHandler = requestHandler;
     this.apiKey = apiKey;
     this.baseUrlOverride = baseUrlOverride;
@@ -94,6 +128,10 @@ public class GeoApiContext implements Closeable {
     this.maxRetries = maxRetries;
     this.urlSigner = urlSigner;
     this.requestMetricsReporter = requestMetricsReporter;
+    this.singleFlight = singleFlight;
+    this.responseCache = responseCache;
+    this.responseBodyCache = responseBodyCache;
+    this.cacheCellPrecisions = cacheCellPrecisions;
     defaultHeaders.put(HttpHeaders.USER_AGENT, USER_AGENT);
   }
 
@@ -128,6 +166,35 @@ public class GeoApiContext implements Closeable {
         ExceptionsAllowedToRetry exceptionsAllowedToRetry,
         RequestMetrics metrics);
 
+    /**
+     * Handles a GET request with per-request options. Handlers that don't schedule requests
+     * themselves can ignore the options, which is what this default implementation does. A handler
+     * whose pending results implement {@link ResponseMetadata.Provider} lets the response caches
+     * weigh results by size, keep response bodies and tell empty results apart.
+     */
+    default <T, R extends ApiResponse<T>> PendingResult<T> handle(
+        String hostName,
+        String url,
+        Map<String, String> headers,
+        Class<R> clazz,
+        FieldNamingPolicy fieldNamingPolicy,
+        long errorTimeout,
+        Integer maxRetries,
+        ExceptionsAllowedToRetry exceptionsAllowedToRetry,
+        RequestMetrics metrics,
+        RequestOptions options) {
+      return handle(
+          hostName,
+          url,
+          headers,
+          clazz,
+          fieldNamingPolicy,
+          errorTimeout,
+          maxRetries,
+          exceptionsAllowedToRetry,
+          metrics);
+    }
+
     <T, R extends ApiResponse<T>> PendingResult<T> handlePost(
         String hostName,
         String url,
@@ -140,6 +207,35 @@ public class GeoApiContext implements Closeable {
         ExceptionsAllowedToRetry exceptionsAllowedToRetry,
         RequestMetrics metrics);
 
+    /**
+     * Handles a POST request with per-request options. Handlers that don't schedule requests
+     * themselves can ignore the options, which is what this default implementation does.
+     */
+    default <T, R extends ApiResponse<T>> PendingResult<T> handlePost(
+        String hostName,
+        String url,
+        String payload,
+        Map<String, String> headers,
+        Class<R> clazz,
+        FieldNamingPolicy fieldNamingPolicy,
+        long errorTimeout,
+        Integer maxRetries,
+        ExceptionsAllowedToRetry exceptionsAllowedToRetry,
+        RequestMetrics metrics,
+        RequestOptions options) {
+      return handlePost(
+          hostName,
+          url,
+          payload,
+          headers,
+          clazz,
+          fieldNamingPolicy,
+          errorTimeout,
+          maxRetries,
+          exceptionsAllowedToRetry,
+          metrics);
+    }
+
     void shutdown();
 
     /** Builder pattern for {@code GeoApiContext.RequestHandler}. */
@@ -153,6 +249,84 @@ public class GeoApiContext implements Closeable {
 
       Builder queriesPerSecond(int maxQps);
 
+      /**
+       * Sets a separate rate limit for the requests to one API.
+       *
+       * @param pathOrHost The URL path or host name of the API.
+       * @param maxQps The maximum queries per second for that API.
+       * @return Returns this builder for call chaining.
+       */
+      Builder queriesPerSecond(String pathOrHost, int maxQps);
+
+      /**
+       * Lets the rate limits adapt to the quota errors reported by the APIs, treating the
+       * configured rates as ceilings.
+       *
+       * @return Returns this builder for call chaining.
+       */
+      Builder adaptiveQueriesPerSecond();
+
+      /**
+       * Bounds the queue of requests waiting for their rate limit.
+       *
+       * @param capacity The maximum number of waiting requests per rate limit.
+       * @param overflowPolicy What to do with a request submitted to a full queue.
+       * @return Returns this builder for call chaining.
+       */
+      Builder queueCapacity(int capacity, QueueOverflowPolicy overflowPolicy);
+
+      /**
+       * Rejects requests that are expected to wait longer than {@code maxQueueWait} for their rate
+       * limit.
+       *
+       * @param maxQueueWait The longest expected wait to accept.
+       * @param unit The unit of {@code maxQueueWait}.
+       * @return Returns this builder for call chaining.
+       */
+      Builder maxQueueWait(long maxQueueWait, TimeUnit unit);
+
+      /**
+       * Sets how many waiting requests of one priority are sent relative to the others.
+       *
+       * @param priority The priority.
+       * @param weight The relative share of sends for requests of {@code priority}.
+       * @return Returns this builder for call chaining.
+       */
+      Builder priorityWeight(RequestPriority priority, int weight);
+
+      /**
+       * Hedges idempotent requests that have not been answered by the given percentile of their
+       * API's recent latencies.
+       *
+       * @param percentile The percentile of recent latencies after which to hedge.
+       * @return Returns this builder for call chaining.
+       */
+      Builder hedgeRequests(double percentile);
+
+      /**
+       * Guards each API endpoint with a circuit breaker that fails requests fast while too many of
+       * the endpoint's recent requests fail.
+       *
+       * @param failureRateThreshold The fraction of failed requests that opens a circuit.
+       * @param windowSize How many recent requests the failure rate is taken over.
+       * @param openDuration How long a circuit stays open before it is probed.
+       * @param unit The unit of {@code openDuration}.
+       * @return Returns this builder for call chaining.
+       */
+      Builder circuitBreaker(
+          double failureRateThreshold, int windowSize, long openDuration, TimeUnit unit);
+
+      /**
+       * Sets the reporter for metrics that belong to the handler rather than to a single request,
+       * such as the current rate limit. Handlers without such metrics ignore it.
+       *
+       * @param requestMetricsReporter The reporter.
+       * @return Returns this builder for call chaining.
+       */
+      default Builder requestMetricsReporter(RequestMetricsReporter requestMetricsReporter) {
+        return this;
+      }
+
       Builder proxy(Proxy proxy);
 
       Builder proxyAuthentication(String proxyUserName, String proxyUserPassword);
@@ -167,6 +341,27 @@ public class GeoApiContext implements Closeable {
    */
   public void shutdown() {
     requestHandler.shutdown();
+    synchronized (this) {
+      if (scheduler != null) {
+        scheduler.shutdown();
+      }
+    }
+  }
+
+  /**
+   * Returns the timer that requests built on this context, such as {@link
+   * LargeDistanceMatrixRequest}, wait on. It is the request handler's own retry timer where it has
+   * one, and is shut down with the context.
+   */
+  synchronized ScheduledExecutorService scheduler() {
+    if (scheduler == null) {
+      scheduler =
+          requestHandler instanceof OkHttpRequestHandler
+              ? ((OkHttpRequestHandler) requestHandler).retryScheduler()
+              : Executors.newSingleThreadScheduledExecutor(
+                  RateLimitExecutorService.internalThreadFactory("GeoApiContextTimer"));
+    }
+    return scheduler;
   }
 
   private Map<String, String> addDefaultHeaders(Map<String, String> headers) {
@@ -184,6 +379,15 @@ public class GeoApiContext implements Closeable {
       Class<? extends R> clazz,
       Map<String, String> headers,
       Map<String, List<String>> params) {
+    return get(config, clazz, headers, params, RequestOptions.DEFAULT);
+  }
+
+  <T, R extends ApiResponse<T>> PendingResult<T> get(
+      ApiConfig config,
+      Class<? extends R> clazz,
+      Map<String, String> headers,
+      Map<String, List<String>> params,
+      RequestOptions options) {
     if (channel != null && !channel.isEmpty() && !params.containsKey("channel")) {
       params.put("channel", Collections.singletonList(channel));
     }
@@ -211,7 +415,8 @@ public class GeoApiContext implements Closeable {
         config.supportsClientId,
         query.toString(),
         requestMetricsReporter.newRequest(config.path),
-        headers);
+        headers,
+        options);
   }
 
   <T, R extends ApiResponse<T>> PendingResult<T> get(
@@ -260,7 +465,8 @@ public class GeoApiContext implements Closeable {
         config.supportsClientId,
         query.toString(),
         requestMetricsReporter.newRequest(config.path),
-        allHeaders);
+        allHeaders,
+        RequestOptions.DEFAULT);
   }
 
   <T, R extends ApiResponse<T>> PendingResult<T> get(
@@ -273,6 +479,15 @@ public class GeoApiContext implements Closeable {
       Class<? extends R> clazz,
       Map<String, String> headers,
       Map<String, List<String>> params) {
+    return post(config, clazz, headers, params, RequestOptions.DEFAULT);
+  }
+
+  <T, R extends ApiResponse<T>> PendingResult<T> post(
+      ApiConfig config,
+      Class<? extends R> clazz,
+      Map<String, String> headers,
+      Map<String, List<String>> params,
+      RequestOptions options) {
     checkContext(config.supportsClientId);
 
     StringBuilder url = new StringBuilder(config.path);
@@ -304,7 +519,8 @@ public class GeoApiContext implements Closeable {
         errorTimeout,
         maxRetries,
         exceptionsAllowedToRetry,
-        requestMetricsReporter.newRequest(config.path));
+        requestMetricsReporter.newRequest(config.path),
+        options);
   }
 
   <T, R extends ApiResponse<T>> PendingResult<T> post(
@@ -320,7 +536,8 @@ public class GeoApiContext implements Closeable {
       boolean canUseClientId,
       String encodedPath,
       RequestMetrics metrics,
-      Map<String, String> headers) {
+      Map<String, String> headers,
+      RequestOptions options) {
     checkContext(canUseClientId);
     if (!encodedPath.startsWith("&")) {
       throw new IllegalArgumentException("encodedPath must start with &");
@@ -339,22 +556,194 @@ public class GeoApiContext implements Closeable {
       url.append("&signature=").append(signature);
     }
 
-    if (baseUrlOverride != null) {
-      hostName = baseUrlOverride;
+    final String host = baseUrlOverride != null ? baseUrlOverride : hostName;
+    final Map<String, String> allHeaders = addDefaultHeaders(headers);
+    final boolean cacheBody = responseBodyCache != null && responseBodyCache.caches(path);
+    // An image written to a sink as it arrives is not kept, so it can be neither cached nor shared.
+    boolean streamed = options.imageSink() != null;
+    final RequestOptions sent =
+        cacheBody && !streamed ? options.toBuilder().keepResponseBody(true).build() : options;
+    Supplier<PendingResult<T>> call =
+        () ->
+            requestHandler.handle(
+                host,
+                url.toString(),
+                allHeaders,
+                clazz,
+                fieldNamingPolicy,
+                errorTimeout,
+                maxRetries,
+                exceptionsAllowedToRetry,
+                metrics,
+                sent);
+
+    if ((responseCache != null || cacheBody) && !streamed) {
+      final String cacheKey = cacheKey(path, encodedPath, clazz);
+      final Supplier<PendingResult<T>> send = call;
+      call =
+          () ->
+              new CachingPendingResult<>(
+                  send.get(),
+                  (result, response) -> {
+                    if (result == null) {
+                      return;
+                    }
+                    if (response.zeroResults()) {
+                      // Kept only as long as the response cache keeps negative outcomes.
+                      if (responseCache != null) {
+                        responseCache.putNegative(path, cacheKey, result, response.size());
+                      }
+                      return;
+                    }
+                    if (responseCache != null) {
+                      responseCache.put(path, cacheKey, result, response.size());
+                    }
+                    if (response.body() != null) {
+                      responseBodyCache.put(path, cacheKey, response.body());
+                    }
+                  },
+                  e -> {
+                    if (responseCache != null && e instanceof ZeroResultsException) {
+                      responseCache.putNegative(path, cacheKey, e, -1);
+                    }
+                  });
+
+      Object cached = lookUp(path, cacheKey, clazz, fieldNamingPolicy, cacheBody);
+      requestMetricsReporter.cacheLookup(path, cached != null);
+      if (cached != null) {
+        if (responseCache != null && responseCache.revalidate(path, cacheKey)) {
+          refresh(call);
+        }
+        return fromCache(cached);
+      }
     }
 
-    final Map<String, String> allHeaders = addDefaultHeaders(headers);
+    // A request with a deadline of its own can't wait on a call made under another's, and a
+    // streamed image only reaches the sink of the request that sent it.
+    if (singleFlight == null || options.hasDeadline() || streamed) {
+      return call.get();
+    }
+    return singleFlight.join(
+        host + url + new TreeMap<>(allHeaders),
+        call,
+        () -> requestMetricsReporter.requestCoalesced(path));
+  }
 
-    return requestHandler.handle(
-        hostName,
-        url.toString(),
-        allHeaders,
-        clazz,
-        fieldNamingPolicy,
-        errorTimeout,
-        maxRetries,
-        exceptionsAllowedToRetry,
-        metrics);
+  /**
+   * Sends a request whose cached result is stale, for the caching wrapper around it to store what
+   * comes back. If the refresh fails, the stale result is served until it runs out.
+   */
+  private static <T> void refresh(Supplier<PendingResult<T>> call) {
+    call.get()
+        .setCallback(
+            new PendingResult.Callback<T>() {
+              @Override
+              public void onResult(T result) {}
+
+              @Override
+              public void onFailure(Throwable e) {}
+            });
+  }
+
+  /** Returns a PendingResult for an outcome found in the response cache. */
+  @SuppressWarnings("unchecked")
+  private static <T> PendingResult<T> fromCache(Object cached) {
+    if (cached instanceof ZeroResultsException) {
+      // A fresh exception, so that each caller gets a stack trace of its own.
+      return CompletedPendingResult.failed(
+          new ZeroResultsException(((ZeroResultsException) cached).getMessage()));
+    }
+    return new CompletedPendingResult<>((T) cached);
+  }
+
+  /**
+   * Returns the cached outcome of a request, from the response cache or else by parsing the body
+   * from the response body cache, or null if neither has it.
+   */
+  private <T, R extends ApiResponse<T>> Object lookUp(
+      String path,
+      String cacheKey,
+      Class<R> clazz,
+      FieldNamingPolicy fieldNamingPolicy,
+      boolean cacheBody) {
+    if (responseCache != null) {
+      Object cached = responseCache.get(path, cacheKey);
+      if (cached != null) {
+        return cached;
+      }
+    }
+    if (!cacheBody) {
+      return null;
+    }
+    byte[] body = responseBodyCache.get(path, cacheKey);
+    if (body == null) {
+      return null;
+    }
+    R response;
+    try {
+      response =
+          GsonCodecs.forPolicy(fieldNamingPolicy).fromJson(new String(body, UTF_8), clazz);
+    } catch (JsonParseException e) {
+      // Not something we stored; send the request instead.
+      return null;
+    }
+    if (response == null || !response.successful()) {
+      return null;
+    }
+    T result = response.getResult();
+    if (responseCache != null && result != null) {
+      responseCache.put(path, cacheKey, result, body.length);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the key a request is cached under: the API's path and the request's parameters in
+   * sorted order, so that the order they were set in does not matter. The API key, client ID and
+   * signature are not part of {@code encodedPath}, so results are shared between credentials. The
+   * response class is part of the key, since one API can be asked for a single result or an array.
+   *
+   * <p>For APIs set up with {@link Builder#cacheByCell}, a single location is replaced by the
+   * geohash of its cell, so that nearby locations share a key.
+   */
+  private String cacheKey(String path, String encodedPath, Class<?> clazz) {
+    String[] params = encodedPath.substring(1).split("&");
+    Integer precision = cacheCellPrecisions.get(path);
+    if (precision != null) {
+      String prefix = LOCATION_PARAMETERS.get(path) + "=";
+      for (int i = 0; i < params.length; i++) {
+        if (params[i].startsWith(prefix)) {
+          String cell = cell(params[i].substring(prefix.length()), precision);
+          if (cell != null) {
+            params[i] = prefix + "cell:" + cell;
+          }
+        }
+      }
+    }
+    Arrays.sort(params);
+    return path + "?" + String.join("&", params) + "#" + clazz.getName();
+  }
+
+  /**
+   * Returns the geohash of the cell an encoded {@code lat,lng} parameter falls in, or null if the
+   * parameter is not a single location, such as a path of several.
+   */
+  private static String cell(String encodedLocation, int precision) {
+    String[] latLng;
+    try {
+      latLng = URLDecoder.decode(encodedLocation, "UTF-8").split(",");
+    } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+      return null;
+    }
+    if (latLng.length != 2) {
+      return null;
+    }
+    try {
+      return Geohash.encode(
+          Double.parseDouble(latLng[0]), Double.parseDouble(latLng[1]), precision);
+    } catch (NumberFormatException e) {
+      return null;
+    }
   }
 
   private void checkContext(boolean canUseClientId) {
@@ -383,6 +772,10 @@ public class GeoApiContext implements Closeable {
     private Integer maxRetries;
     private UrlSigner urlSigner;
     private RequestMetricsReporter requestMetricsReporter = new NoOpRequestMetricsReporter();
+    private boolean coalesceRequests;
+    private ResponseCache responseCache;
+    private ResponseBodyCache responseBodyCache;
+    private final Map<String, Integer> cacheCellPrecisions = new HashMap<>();
 
     /** Builder pattern for the enclosing {@code GeoApiContext}. */
     public Builder() {
@@ -565,6 +958,132 @@ public class GeoApiContext implements Closeable {
       return this;
     }
 
+    /**
+     * Sets the maximum number of queries per second for a single API, so that one context can run
+     * APIs with different quotas at their own rates. Requests to any other API keep the limit set
+     * by {@link #queryRateLimit(int)}.
+     *
+     * <p>The API is identified by the path of its endpoint, for example {@code
+     * /maps/api/geocode/json}, or by its host name, for example {@code roads.googleapis.com}. If a
+     * request matches both a path and a host limit, the path limit applies.
+     *
+     * @param pathOrHost The URL path or host name of the API.
+     * @param maxQps The maximum queries per second for that API.
+     * @return Returns this builder for call chaining.
+     */
+    public Builder queryRateLimit(String pathOrHost, int maxQps) {
+      builder.queriesPerSecond(pathOrHost, maxQps);
+      return this;
+    }
+
+    /**
+     * Adapts the query rate to the quota actually available. The limits set by {@link
+     * #queryRateLimit(int)} and {@link #queryRateLimit(String, int)} become ceilings: when an API
+     * reports {@code OVER_QUERY_LIMIT}, {@code RESOURCE_EXHAUSTED} or HTTP 429, the rate for its
+     * requests is halved, and it then grows back by about one query per second, every second,
+     * while responses are clean. Rate changes are reported through {@link
+     * RequestMetricsReporter#rateLimitChanged}.
+     *
+     * @return Returns this builder for call chaining.
+     */
+    public Builder adaptiveQueryRateLimit() {
+      builder.adaptiveQueriesPerSecond();
+      return this;
+    }
+
+    /**
+     * Bounds the number of requests that may wait for a query rate limit. By default the queue is
+     * unbounded, so when an API slows down or throttles, requests pile up in memory for as long as
+     * it takes to send them. The capacity applies separately to each limit set by {@link
+     * #queryRateLimit(String, int)}, and to the default limit.
+     *
+     * <p>Rejected and dropped requests fail with a {@link
+     * com.google.maps.errors.RequestRejectedException}, and are reported through {@link
+     * RequestMetricsReporter#requestRejected}.
+     *
+     * @param capacity The maximum number of waiting requests per rate limit.
+     * @param overflowPolicy What to do with a request submitted to a full queue.
+     * @return Returns this builder for call chaining.
+     */
+    public Builder queueCapacity(int capacity, QueueOverflowPolicy overflowPolicy) {
+      builder.queueCapacity(capacity, overflowPolicy);
+      return this;
+    }
+
+    /**
+     * Sheds load by rejecting requests that are expected to wait longer than {@code maxQueueWait}
+     * for their query rate limit, estimated from the number of requests ahead of them and the
+     * current rate. Rejected requests fail with a {@link
+     * com.google.maps.errors.RequestRejectedException}.
+     *
+     * @param maxQueueWait The longest expected wait to accept.
+     * @param unit The unit of {@code maxQueueWait}.
+     * @return Returns this builder for call chaining.
+     */
+    public Builder maxQueueWait(long maxQueueWait, TimeUnit unit) {
+      builder.maxQueueWait(maxQueueWait, unit);
+      return this;
+    }
+
+    /**
+     * Sets the share of sends given to waiting requests of one {@link RequestPriority}. While
+     * requests of several priorities are waiting for the same query rate limit, they are sent in
+     * proportion to their weights; the rate limit itself is unchanged. The default weights are 16
+     * for {@code HIGH}, 4 for {@code NORMAL} and 1 for {@code LOW}.
+     *
+     * @param priority The priority.
+     * @param weight The relative share of sends for requests of {@code priority}.
+     * @return Returns this builder for call chaining.
+     */
+    public Builder priorityWeight(RequestPriority priority, int weight) {
+      builder.priorityWeight(priority, weight);
+      return this;
+    }
+
+    /**
+     * Hedges slow requests to cut tail latency. Once a GET request has gone unanswered for longer
+     * than {@code percentile} percent of its API's recent responses took, an identical request is
+     * sent, the first response to arrive is used and the other request is canceled. Hedges count
+     * against the query rate limit like any other request, and are reported in the request
+     * metrics. POST requests, which may not be idempotent, are never hedged.
+     *
+     * <p>With a percentile of 95, about one request in twenty is hedged.
+     *
+     * @param percentile The percentile, between 0 and 100 (both exclusive), of recent latencies
+     *     after which to hedge a request.
+     * @return Returns this builder for call chaining.
+     */
+    public Builder hedgeRequests(double percentile) {
+      builder.hedgeRequests(percentile);
+      return this;
+    }
+
+    /**
+     * Guards each API endpoint with a circuit breaker, so that a degraded endpoint fails requests
+     * fast instead of every request retrying with backoff until the retry timeout.
+     *
+     * <p>A request fails if it cannot reach the endpoint or gets a 5xx response. Once {@code
+     * windowSize} requests have been made to an endpoint and at least {@code failureRateThreshold}
+     * of the most recent {@code windowSize} failed, the endpoint's circuit opens: for {@code
+     * openDuration}, new requests fail with a {@link com.google.maps.errors.CircuitOpenException}
+     * and failed requests are not retried. After that a few probe requests are let through, and
+     * the circuit closes again if they succeed. State changes are reported to the {@link
+     * RequestMetricsReporter}.
+     *
+     * @param failureRateThreshold The fraction, greater than 0 and at most 1, of failed requests
+     *     that opens a circuit.
+     * @param windowSize How many of an endpoint's most recent requests the failure rate is taken
+     *     over.
+     * @param openDuration How long a circuit stays open before it is probed.
+     * @param unit The unit of {@code openDuration}.
+     * @return Returns this builder for call chaining.
+     */
+    public Builder circuitBreaker(
+        double failureRateThreshold, int windowSize, long openDuration, TimeUnit unit) {
+      builder.circuitBreaker(failureRateThreshold, windowSize, openDuration, unit);
+      return this;
+    }
+
     /**
      * Allows specific API exceptions to be retried or not retried.
      *
@@ -607,6 +1126,80 @@ public class GeoApiContext implements Closeable {
 
     public Builder requestMetricsReporter(RequestMetricsReporter requestMetricsReporter) {
       this.requestMetricsReporter = requestMetricsReporter;
+      builder.requestMetricsReporter(requestMetricsReporter);
+      return this;
+    }
+
+    /**
+     * Coalesces identical GET requests that are in flight at the same time into one network call.
+     * A request started while an identical one (same URL and headers) is waiting for its response
+     * does not send its own, but receives the same result object; each such request is reported
+     * to {@link RequestMetricsReporter#requestCoalesced}. Requests with a deadline are always sent
+     * on their own.
+     *
+     * <p>Since coalesced requests share one result object, callers must not modify it.
+     *
+     * @return Returns this builder for call chaining.
+     */
+    public Builder coalesceRequests() {
+      coalesceRequests = true;
+      return this;
+    }
+
+    /**
+     * Sets a cache for the parsed results of GET requests. Before a request is sent, the cache is
+     * asked for the result of an identical earlier request, and if it has one, the request
+     * completes with it without going to the network. The results of successful requests are
+     * offered to the cache. Lookups are reported to {@link RequestMetricsReporter#cacheLookup}.
+     *
+     * @param responseCache The cache, such as an {@link InMemoryResponseCache}.
+     * @return Returns this builder for call chaining.
+     */
+    public Builder responseCache(ResponseCache responseCache) {
+      this.responseCache = responseCache;
+      return this;
+    }
+
+    /**
+     * Sets a cache for the raw bodies of GET responses, such as a {@link DiskResponseCache} that
+     * outlives the process. It works like {@link #responseCache(ResponseCache)}, except that a
+     * body found in it is parsed again; if both caches are set, the response cache is asked first
+     * and is given the results parsed from stored bodies.
+     *
+     * @param responseBodyCache The cache.
+     * @return Returns this builder for call chaining.
+     */
+    public Builder responseBodyCache(ResponseBodyCache responseBodyCache) {
+      this.responseBodyCache = responseBodyCache;
+      return this;
+    }
+
+    /**
+     * Caches the results of an API by the grid cell its location falls in, rather than by the exact
+     * location, so that a request for a location near one already answered is answered from the
+     * cache. Cells are geohashes of the given precision; roughly, precision 4 cells are 39 km
+     * across, 5 are 4.9 km, 6 are 1.2 km, 7 are 153 m, 8 are 38 m and 9 are 4.8 m. Pick the
+     * coarsest precision at which any result within a cell is good enough: time zones change over
+     * tens of kilometers, while an address can change within meters.
+     *
+     * <p>Applies to reverse geocoding ({@code "/maps/api/geocode/json"}), time zones ({@code
+     * "/maps/api/timezone/json"}) and the elevation of a single point ({@code
+     * "/maps/api/elevation/json"}), when a {@link #responseCache} or {@link #responseBodyCache} is
+     * set.
+     *
+     * @param api The URL path of the API.
+     * @param precision The length of the geohash, from 1 to 12.
+     * @return Returns this builder for call chaining.
+     */
+    public Builder cacheByCell(String api, int precision) {
+      if (!LOCATION_PARAMETERS.containsKey(api)) {
+        throw new IllegalArgumentException("Results of " + api + " cannot be cached by cell");
+      }
+      if (precision < 1 || precision > Geohash.MAX_PRECISION) {
+        throw new IllegalArgumentException(
+            "precision must be between 1 and " + Geohash.MAX_PRECISION);
+      }
+      cacheCellPrecisions.put(api, precision);
       return this;
     }
 
@@ -626,7 +1219,11 @@ public class GeoApiContext implements Closeable {
           exceptionsAllowedToRetry,
           maxRetries,
           urlSigner,
-          requestMetricsReporter);
+          requestMetricsReporter,
+          coalesceRequests ? new SingleFlight() : null,
+          responseCache,
+          responseBodyCache,
+          new HashMap<>(cacheCellPrecisions));
     }
   }
 }
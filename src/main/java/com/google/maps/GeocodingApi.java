@@ -82,6 +82,11 @@ public class GeocodingApi {
       return "OK".equals(status) || "ZERO_RESULTS".equals(status);
     }
 
+    @Override
+    public boolean zeroResults() {
+      return "ZERO_RESULTS".equals(status);
+    }
+
     @Override
     public GeocodingResponse getResult() {
       GeocodingResponse response = new GeocodingResponse();
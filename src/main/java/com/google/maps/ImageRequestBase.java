@@ -0,0 +1,105 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps;
+
+import com.google.maps.errors.ApiException;
+import com.google.maps.internal.ApiConfig;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Base implementation for requests whose result is an image, which can be written out as it
+ * arrives instead of being held in memory as an {@link ImageResult}.
+ *
+ * <p>{@code A} is the actual class of the request.
+ */
+abstract class ImageRequestBase<A extends ImageRequestBase<A>>
+    extends PendingResultBase<ImageResult, A, ImageResult.Response> {
+
+  protected ImageRequestBase(GeoApiContext context, ApiConfig config) {
+    super(context, config, ImageResult.Response.class);
+  }
+
+  /**
+   * Performs the request synchronously, writing the image to {@code out} as it is received rather
+   * than holding it in memory. Nothing is written if the request fails before the image arrives;
+   * if the connection fails part way through, {@code out} holds part of the image. The stream is
+   * flushed but not closed.
+   *
+   * @param out Where to write the image.
+   * @return The content type of the image, such as {@code "image/png"}.
+   * @throws ApiException Thrown if the API Returned result is an error.
+   * @throws InterruptedException Thrown when a thread is waiting, sleeping, or otherwise occupied,
+   *     and the thread is interrupted.
+   * @throws IOException Thrown when an I/O exception of some sort has occurred.
+   */
+  public String awaitTo(OutputStream out)
+      throws ApiException, InterruptedException, IOException {
+    imageSink(out);
+    ImageResult image = await();
+    if (image.imageData != null) {
+      // The request handler does not stream, so the image was held in memory after all.
+      out.write(image.imageData);
+      out.flush();
+    }
+    return image.contentType;
+  }
+
+  /**
+   * Performs the request synchronously, writing the image to {@code channel} as it is received, as
+   * {@link #awaitTo(OutputStream)} does.
+   *
+   * @param channel Where to write the image. It is not closed.
+   * @return The content type of the image, such as {@code "image/png"}.
+   * @throws ApiException Thrown if the API Returned result is an error.
+   * @throws InterruptedException Thrown when a thread is waiting, sleeping, or otherwise occupied,
+   *     and the thread is interrupted.
+   * @throws IOException Thrown when an I/O exception of some sort has occurred.
+   */
+  public String awaitTo(WritableByteChannel channel)
+      throws ApiException, InterruptedException, IOException {
+    return awaitTo(Channels.newOutputStream(channel));
+  }
+
+  /**
+   * Performs the request synchronously, writing the image to a file as it is received, as {@link
+   * #awaitTo(OutputStream)} does. The file is replaced if it exists, and deleted if the request
+   * fails.
+   *
+   * @param file The file to write the image to.
+   * @return The content type of the image, such as {@code "image/png"}.
+   * @throws ApiException Thrown if the API Returned result is an error.
+   * @throws InterruptedException Thrown when a thread is waiting, sleeping, or otherwise occupied,
+   *     and the thread is interrupted.
+   * @throws IOException Thrown when an I/O exception of some sort has occurred.
+   */
+  public String awaitTo(Path file) throws ApiException, InterruptedException, IOException {
+    boolean written = false;
+    try (OutputStream out = Files.newOutputStream(file)) {
+      String contentType = awaitTo(out);
+      written = true;
+      return contentType;
+    } finally {
+      if (!written) {
+        Files.deleteIfExists(file);
+      }
+    }
+  }
+}
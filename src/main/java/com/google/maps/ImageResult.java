@@ -29,7 +29,10 @@ public class ImageResult implements Serializable {
 
   private static final long serialVersionUID = 1L;
 
-  /** The image data from the Photos API call. */
+  /**
+   * The image data from the Photos API call, or null if the image was written out as it arrived,
+   * by {@code awaitTo}.
+   */
   public final byte[] imageData;
 
   /** The Content-Type header of the returned result. */
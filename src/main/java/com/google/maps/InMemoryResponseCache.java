@@ -0,0 +1,248 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps;
+
+import com.google.maps.internal.ratelimiter.Ticker;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link ResponseCache} that keeps results in memory for a time set per API, evicting the least
+ * recently used results once their total size exceeds a budget.
+ *
+ * <p>Only the results of APIs that have a time to live are cached, since whether a result may be
+ * reused depends on the API: a geocode rarely changes, while directions with traffic go stale in
+ * minutes. For example:
+ *
+ * <pre>{@code
+ * new InMemoryResponseCache(16 * 1024 * 1024)
+ *     .timeToLive("/maps/api/geocode/json", 1, TimeUnit.DAYS)
+ *     .timeToLive("/maps/api/timezone/json", 1, TimeUnit.HOURS);
+ * }</pre>
+ *
+ * <p>Requests that found nothing can be cached for a shorter time with {@link
+ * #negativeTimeToLive}, so that bulk jobs do not pay again for addresses that are known not to
+ * geocode. With {@link #staleWhileRevalidate}, a result that has just expired is still served while
+ * a single request refreshes it in the background.
+ *
+ * <p>The size of a result is the size of the response it was parsed from. Results of unknown size
+ * are counted as {@link #DEFAULT_SIZE}.
+ */
+public class InMemoryResponseCache implements ResponseCache {
+
+  /** The size counted for a result whose response size is not known. */
+  public static final long DEFAULT_SIZE = 4 * 1024;
+
+  private final long maximumSize;
+  private final Ticker ticker;
+  private final Map<String, Long> timeToLiveNanos = new ConcurrentHashMap<>();
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+
+  /** Entries in access order, least recently used first. Guarded by {@code this}. */
+  private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+  private long size;
+  private volatile long defaultTimeToLiveNanos;
+  private volatile long negativeTimeToLiveNanos;
+  private volatile long staleNanos;
+
+  /**
+   * @param maximumSize The total size of the responses whose results are kept, in bytes.
+   */
+  public InMemoryResponseCache(long maximumSize) {
+    this(maximumSize, Ticker.systemTicker());
+  }
+
+  InMemoryResponseCache(long maximumSize, Ticker ticker) {
+    if (maximumSize <= 0) {
+      throw new IllegalArgumentException("maximumSize must be positive");
+    }
+    this.maximumSize = maximumSize;
+    this.ticker = ticker;
+  }
+
+  /**
+   * Caches the results of one API for the given time.
+   *
+   * @param api The URL path of the API, such as {@code "/maps/api/geocode/json"}.
+   * @param timeToLive How long a result may be reused for; zero stops caching the API's results.
+   * @param unit The unit of {@code timeToLive}.
+   * @return Returns this cache for call chaining.
+   */
+  public InMemoryResponseCache timeToLive(String api, long timeToLive, TimeUnit unit) {
+    timeToLiveNanos.put(api, unit.toNanos(timeToLive));
+    return this;
+  }
+
+  /**
+   * Caches the results of every API without a time to live of its own for the given time.
+   *
+   * @param timeToLive How long a result may be reused for; zero, the default, stops caching them.
+   * @param unit The unit of {@code timeToLive}.
+   * @return Returns this cache for call chaining.
+   */
+  public InMemoryResponseCache defaultTimeToLive(long timeToLive, TimeUnit unit) {
+    defaultTimeToLiveNanos = unit.toNanos(timeToLive);
+    return this;
+  }
+
+  /**
+   * Caches the outcome of requests that found nothing for the given time, for the APIs whose
+   * results are cached. It is usually shorter than their time to live, since places are added.
+   *
+   * @param timeToLive How long to remember that a request found nothing; zero, the default, stops
+   *     caching such outcomes.
+   * @param unit The unit of {@code timeToLive}.
+   * @return Returns this cache for call chaining.
+   */
+  public InMemoryResponseCache negativeTimeToLive(long timeToLive, TimeUnit unit) {
+    negativeTimeToLiveNanos = unit.toNanos(timeToLive);
+    return this;
+  }
+
+  /**
+   * Keeps serving results for the given time after they expire, while they are refreshed in the
+   * background, so that callers do not wait on the network each time a popular result expires.
+   * Requests that found nothing are not served stale.
+   *
+   * @param staleTime How long past its time to live a result may still be served; zero, the
+   *     default, serves no stale results.
+   * @param unit The unit of {@code staleTime}.
+   * @return Returns this cache for call chaining.
+   */
+  public InMemoryResponseCache staleWhileRevalidate(long staleTime, TimeUnit unit) {
+    staleNanos = unit.toNanos(staleTime);
+    return this;
+  }
+
+  @Override
+  public Object get(String api, String key) {
+    if (timeToLiveNanos(api) <= 0) {
+      return null;
+    }
+    Entry entry;
+    synchronized (this) {
+      entry = entries.get(key);
+      if (entry != null && entry.staleUntilNanos - ticker.read() <= 0) {
+        remove(key);
+        entry = null;
+      }
+    }
+    if (entry == null) {
+      missCount.increment();
+      return null;
+    }
+    hitCount.increment();
+    return entry.result;
+  }
+
+  @Override
+  public void put(String api, String key, Object result, long size) {
+    store(key, result, size, timeToLiveNanos(api), staleNanos);
+  }
+
+  @Override
+  public void putNegative(String api, String key, Object outcome, long size) {
+    if (timeToLiveNanos(api) > 0) {
+      store(key, outcome, size, negativeTimeToLiveNanos, 0);
+    }
+  }
+
+  @Override
+  public synchronized boolean revalidate(String api, String key) {
+    Entry entry = entries.get(key);
+    if (entry == null || entry.revalidating || entry.expiresAtNanos - ticker.read() > 0) {
+      return false;
+    }
+    // Until the refreshed result is put, or the stale one runs out, other callers just get it.
+    entry.revalidating = true;
+    return true;
+  }
+
+  private void store(String key, Object result, long size, long timeToLive, long staleTime) {
+    long entrySize = size < 0 ? DEFAULT_SIZE : size;
+    if (timeToLive <= 0 || entrySize > maximumSize) {
+      return;
+    }
+    long expiresAtNanos = ticker.read() + timeToLive;
+    Entry entry = new Entry(result, entrySize, expiresAtNanos, expiresAtNanos + staleTime);
+    synchronized (this) {
+      remove(key);
+      entries.put(key, entry);
+      this.size += entrySize;
+      evict();
+    }
+  }
+
+  private long timeToLiveNanos(String api) {
+    return timeToLiveNanos.getOrDefault(api, defaultTimeToLiveNanos);
+  }
+
+  /** Returns how many lookups found a result, including stale results and negative outcomes. */
+  public long getHitCount() {
+    return hitCount.sum();
+  }
+
+  /** Returns how many lookups of cached APIs found no result, or only an expired one. */
+  public long getMissCount() {
+    return missCount.sum();
+  }
+
+  /** Returns the total size of the results currently cached. */
+  public synchronized long getSize() {
+    return size;
+  }
+
+  private void remove(String key) {
+    Entry removed = entries.remove(key);
+    if (removed != null) {
+      size -= removed.size;
+    }
+  }
+
+  /**
+   * Drops the least recently used entries until the budget is met. Expired entries are dropped as
+   * they are looked up, or eventually by this, as they are no longer used.
+   */
+  private void evict() {
+    Iterator<Entry> leastRecentlyUsed = entries.values().iterator();
+    while (size > maximumSize && leastRecentlyUsed.hasNext()) {
+      size -= leastRecentlyUsed.next().size;
+      leastRecentlyUsed.remove();
+    }
+  }
+
+  private static final class Entry {
+    final Object result;
+    final long size;
+    final long expiresAtNanos;
+    final long staleUntilNanos;
+    /** Whether a caller has been told to refresh this stale entry. Guarded by the cache. */
+    boolean revalidating;
+
+    Entry(Object result, long size, long expiresAtNanos, long staleUntilNanos) {
+      this.result = result;
+      this.size = size;
+      this.expiresAtNanos = expiresAtNanos;
+      this.staleUntilNanos = staleUntilNanos;
+    }
+  }
+}
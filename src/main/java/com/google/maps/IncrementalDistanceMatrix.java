@@ -0,0 +1,292 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps;
+
+import com.google.maps.errors.ApiException;
+import com.google.maps.internal.ratelimiter.Ticker;
+import com.google.maps.model.DistanceMatrix;
+import com.google.maps.model.DistanceMatrixElement;
+import com.google.maps.model.DistanceMatrixRow;
+import com.google.maps.model.LatLng;
+import com.google.maps.model.TravelMode;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * A distance matrix that is kept up to date as its origins and destinations change, fetching only
+ * the elements it does not already have. Suited to recomputing a drivers by orders matrix every few
+ * seconds, when only a few drivers and orders come and go between rounds.
+ *
+ * <p>Elements are remembered for the origin and destination they were fetched for, within a time
+ * bucket: when the bucket ends, every element is fetched again, so that travel times follow the
+ * traffic. Elements of origins or destinations that are dropped from an update are forgotten. A
+ * matrix has one travel mode and one set of request options; use a matrix for each combination.
+ *
+ * <pre>{@code
+ * IncrementalDistanceMatrix matrix =
+ *     new IncrementalDistanceMatrix(context, TravelMode.DRIVING, 15, TimeUnit.MINUTES);
+ * // Every round:
+ * DistanceMatrix current = matrix.update(driverLocations, orderLocations);
+ * }</pre>
+ */
+public class IncrementalDistanceMatrix {
+
+  private final GeoApiContext context;
+  private final TravelMode mode;
+  private final long bucketNanos;
+  private final Ticker ticker;
+  private Consumer<DistanceMatrixApiRequest> options = request -> {};
+
+  // Guarded by this.
+  private long bucket = Long.MIN_VALUE;
+  /** Elements by origin, then destination. */
+  private final Map<String, Map<String, DistanceMatrixElement>> elements = new HashMap<>();
+  private final Map<String, String> originAddresses = new HashMap<>();
+  private final Map<String, String> destinationAddresses = new HashMap<>();
+  private long fetchedCount;
+  private long reusedCount;
+
+  /**
+   * @param context The {@link GeoApiContext} to make requests through.
+   * @param mode The travel mode of every element.
+   * @param bucket How long elements are reused for before they are all fetched again.
+   * @param unit The unit of {@code bucket}.
+   */
+  public IncrementalDistanceMatrix(
+      GeoApiContext context, TravelMode mode, long bucket, TimeUnit unit) {
+    this(context, mode, bucket, unit, Ticker.systemTicker());
+  }
+
+  IncrementalDistanceMatrix(
+      GeoApiContext context, TravelMode mode, long bucket, TimeUnit unit, Ticker ticker) {
+    if (bucket <= 0) {
+      throw new IllegalArgumentException("bucket must be positive");
+    }
+    this.context = context;
+    this.mode = mode;
+    this.bucketNanos = unit.toNanos(bucket);
+    this.ticker = ticker;
+  }
+
+  /**
+   * Sets the options of the requests sent, other than the origins, destinations and travel mode:
+   * units, restrictions, departure time and so on.
+   *
+   * @param options Sets the options of a request.
+   * @return Returns this matrix for call chaining.
+   */
+  public IncrementalDistanceMatrix options(Consumer<DistanceMatrixApiRequest> options) {
+    this.options = options;
+    return this;
+  }
+
+  /**
+   * Returns the matrix for the given origins and destinations, fetching the elements that are not
+   * known yet or whose bucket has ended.
+   *
+   * @param origins The current origins.
+   * @param destinations The current destinations.
+   * @return The matrix, with rows and elements in the order given.
+   * @throws ApiException Thrown if the API Returned result is an error.
+   * @throws InterruptedException Thrown when a thread is waiting, sleeping, or otherwise occupied,
+   *     and the thread is interrupted.
+   * @throws IOException Thrown when an I/O exception of some sort has occurred.
+   */
+  public synchronized DistanceMatrix update(String[] origins, String[] destinations)
+      throws ApiException, InterruptedException, IOException {
+    long fetchedBefore = fetchedCount;
+    Set<String> originSet = new LinkedHashSet<>(Arrays.asList(origins));
+    Set<String> destinationSet = new LinkedHashSet<>(Arrays.asList(destinations));
+    long now = ticker.read() / bucketNanos;
+    if (now != bucket) {
+      bucket = now;
+      elements.clear();
+    }
+    elements.keySet().retainAll(originSet);
+    originAddresses.keySet().retainAll(originSet);
+    destinationAddresses.keySet().retainAll(destinationSet);
+    Set<String> knownDestinations = new LinkedHashSet<>();
+    for (Map<String, DistanceMatrixElement> row : elements.values()) {
+      row.keySet().retainAll(destinationSet);
+      knownDestinations.addAll(row.keySet());
+    }
+
+    // New origins against every destination, and the other origins against new destinations.
+    List<String> newOrigins = new ArrayList<>();
+    List<String> oldOrigins = new ArrayList<>();
+    for (String origin : originSet) {
+      Map<String, DistanceMatrixElement> row = elements.get(origin);
+      if (row == null || row.isEmpty()) {
+        newOrigins.add(origin);
+      } else {
+        oldOrigins.add(origin);
+      }
+    }
+    List<String> newDestinations = new ArrayList<>(destinationSet);
+    newDestinations.removeAll(knownDestinations);
+    List<LargeDistanceMatrixRequest> requests = new ArrayList<>();
+    addRequest(requests, newOrigins, new ArrayList<>(destinationSet));
+    addRequest(requests, oldOrigins, newDestinations);
+    fetch(requests);
+
+    // Whatever is still missing, such as elements of a tile that failed in an earlier round.
+    Set<String> missingOrigins = new LinkedHashSet<>();
+    Set<String> missingDestinations = new LinkedHashSet<>();
+    for (String origin : originSet) {
+      Map<String, DistanceMatrixElement> row = elements.get(origin);
+      for (String destination : destinationSet) {
+        if (row == null || !row.containsKey(destination)) {
+          missingOrigins.add(origin);
+          missingDestinations.add(destination);
+        }
+      }
+    }
+    requests.clear();
+    addRequest(requests, new ArrayList<>(missingOrigins), new ArrayList<>(missingDestinations));
+    fetch(requests);
+
+    DistanceMatrixRow[] rows = new DistanceMatrixRow[origins.length];
+    String[] rowAddresses = new String[origins.length];
+    for (int o = 0; o < origins.length; o++) {
+      Map<String, DistanceMatrixElement> row = elements.get(origins[o]);
+      rows[o] = new DistanceMatrixRow();
+      rows[o].elements = new DistanceMatrixElement[destinations.length];
+      for (int d = 0; d < destinations.length; d++) {
+        rows[o].elements[d] = row.get(destinations[d]);
+      }
+      rowAddresses[o] = originAddresses.get(origins[o]);
+    }
+    String[] columnAddresses = new String[destinations.length];
+    for (int d = 0; d < destinations.length; d++) {
+      columnAddresses[d] = destinationAddresses.get(destinations[d]);
+    }
+    reusedCount += (long) origins.length * destinations.length - (fetchedCount - fetchedBefore);
+    return new DistanceMatrix(rowAddresses, columnAddresses, rows);
+  }
+
+  /**
+   * Returns the matrix for the given origins and destinations, as {@link #update(String[],
+   * String[])} does.
+   *
+   * @param origins The current origins.
+   * @param destinations The current destinations.
+   * @return The matrix, with rows and elements in the order given.
+   * @throws ApiException Thrown if the API Returned result is an error.
+   * @throws InterruptedException Thrown when a thread is waiting, sleeping, or otherwise occupied,
+   *     and the thread is interrupted.
+   * @throws IOException Thrown when an I/O exception of some sort has occurred.
+   */
+  public DistanceMatrix update(LatLng[] origins, LatLng[] destinations)
+      throws ApiException, InterruptedException, IOException {
+    return update(toUrlValues(origins), toUrlValues(destinations));
+  }
+
+  /** Returns how many elements have been fetched from the API. */
+  public synchronized long getFetchedCount() {
+    return fetchedCount;
+  }
+
+  /** Returns how many elements of the matrices returned were known from an earlier update. */
+  public synchronized long getReusedCount() {
+    return reusedCount;
+  }
+
+  private void addRequest(
+      List<LargeDistanceMatrixRequest> requests, List<String> origins, List<String> destinations) {
+    if (origins.isEmpty() || destinations.isEmpty()) {
+      return;
+    }
+    requests.add(
+        DistanceMatrixApi.newLargeRequest(context)
+            .origins(origins.toArray(new String[0]))
+            .destinations(destinations.toArray(new String[0]))
+            .options(
+                request -> {
+                  request.mode(mode);
+                  options.accept(request);
+                }));
+  }
+
+  /** Sends the requests at once, and remembers what they return. */
+  private void fetch(List<LargeDistanceMatrixRequest> requests)
+      throws ApiException, InterruptedException, IOException {
+    List<CompletableFuture<DistanceMatrix>> futures = new ArrayList<>();
+    for (LargeDistanceMatrixRequest request : requests) {
+      futures.add(request.toCompletableFuture());
+    }
+    for (int i = 0; i < requests.size(); i++) {
+      DistanceMatrix matrix;
+      try {
+        matrix = futures.get(i).get();
+      } catch (ExecutionException e) {
+        for (LargeDistanceMatrixRequest request : requests) {
+          request.cancel();
+        }
+        Throwable cause = e.getCause();
+        if (cause instanceof ApiException) {
+          throw (ApiException) cause;
+        } else if (cause instanceof IOException) {
+          throw (IOException) cause;
+        } else if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+          throw (Error) cause;
+        }
+        throw new IOException(cause);
+      }
+      remember(requests.get(i), matrix);
+    }
+  }
+
+  private void remember(LargeDistanceMatrixRequest request, DistanceMatrix matrix) {
+    String[] origins = request.origins();
+    String[] destinations = request.destinations();
+    for (int o = 0; o < origins.length; o++) {
+      Map<String, DistanceMatrixElement> row =
+          elements.computeIfAbsent(origins[o], k -> new HashMap<>());
+      for (int d = 0; d < destinations.length; d++) {
+        row.put(destinations[d], matrix.rows[o].elements[d]);
+      }
+      if (matrix.originAddresses[o] != null) {
+        originAddresses.put(origins[o], matrix.originAddresses[o]);
+      }
+    }
+    for (int d = 0; d < destinations.length; d++) {
+      if (matrix.destinationAddresses[d] != null) {
+        destinationAddresses.put(destinations[d], matrix.destinationAddresses[d]);
+      }
+    }
+    fetchedCount += (long) origins.length * destinations.length;
+  }
+
+  private static String[] toUrlValues(LatLng[] points) {
+    String[] values = new String[points.length];
+    for (int i = 0; i < points.length; i++) {
+      values[i] = points[i].toUrlValue();
+    }
+    return values;
+  }
+}
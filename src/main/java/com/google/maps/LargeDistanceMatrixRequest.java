@@ -0,0 +1,549 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps;
+
+import com.google.maps.errors.ApiException;
+import com.google.maps.errors.CircuitOpenException;
+import com.google.maps.errors.DeadlineExceededException;
+import com.google.maps.errors.MaxElementsExceededException;
+import com.google.maps.errors.OverQueryLimitException;
+import com.google.maps.errors.RequestRejectedException;
+import com.google.maps.errors.UnknownErrorException;
+import com.google.maps.model.DistanceMatrix;
+import com.google.maps.model.DistanceMatrixElement;
+import com.google.maps.model.DistanceMatrixRow;
+import com.google.maps.model.LatLng;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * A Distance Matrix request of any size, sent as tiles that are each within the API's limits on
+ * origins, destinations and elements per request, and answered with a single {@link
+ * DistanceMatrix} whose rows and elements are in the order of the origins and destinations given.
+ *
+ * <p>Tiles are sent a few at a time, each under the context's rate limit and retries. A tile that
+ * still fails for a reason that may pass, such as a timeout or an over query limit status, is sent
+ * again by itself once a backoff has elapsed, on the context's timer, and one rejected for having
+ * too many elements is split in two; any other failure fails the whole request.
+ *
+ * <pre>{@code
+ * DistanceMatrix matrix =
+ *     DistanceMatrixApi.newLargeRequest(context)
+ *         .origins(depots)
+ *         .destinations(stops)
+ *         .options(request -> request.mode(TravelMode.DRIVING).units(Unit.METRIC))
+ *         .await();
+ * }</pre>
+ */
+public class LargeDistanceMatrixRequest implements PendingResult<DistanceMatrix> {
+
+  /** The number of elements, origins times destinations, allowed per request by default. */
+  public static final int DEFAULT_MAX_ELEMENTS = 100;
+
+  /** The number of origins, and of destinations, allowed per request by default. */
+  public static final int DEFAULT_MAX_DIMENSION = 25;
+
+  /** The number of tiles sent at once by default. */
+  public static final int DEFAULT_MAX_CONCURRENT_TILES = 8;
+
+  /** The number of times a failed tile is sent again by default. */
+  public static final int DEFAULT_TILE_RETRIES = 2;
+
+  private final GeoApiContext context;
+  private String[] origins;
+  private String[] destinations;
+  private Consumer<DistanceMatrixApiRequest> options = request -> {};
+  private int maxElements = DEFAULT_MAX_ELEMENTS;
+  private int maxDimension = DEFAULT_MAX_DIMENSION;
+  private int maxConcurrentTiles = DEFAULT_MAX_CONCURRENT_TILES;
+  private int tileRetries = DEFAULT_TILE_RETRIES;
+
+  private final CompletableFuture<DistanceMatrix> result = new CompletableFuture<>();
+  private final Set<DistanceMatrixApiRequest> inFlight = ConcurrentHashMap.newKeySet();
+  private boolean started;
+
+  // The matrix being stitched together and the tiles still to send. Guarded by this.
+  private String[] originAddresses;
+  private String[] destinationAddresses;
+  private DistanceMatrixRow[] rows;
+  private final Deque<Tile> pending = new ArrayDeque<>();
+  private int running;
+  private int unfinished;
+
+  public LargeDistanceMatrixRequest(GeoApiContext context) {
+    this.context = context;
+  }
+
+  /**
+   * The starting points for calculating travel distance and time.
+   *
+   * @param origins Strings to geocode and use as origin points (e.g. "New York, NY")
+   * @return Returns this request for call chaining.
+   */
+  public LargeDistanceMatrixRequest origins(String... origins) {
+    this.origins = origins.clone();
+    return this;
+  }
+
+  /**
+   * The starting points for calculating travel distance and time.
+   *
+   * @param points The starting points.
+   * @return Returns this request for call chaining.
+   */
+  public LargeDistanceMatrixRequest origins(LatLng... points) {
+    return origins(toUrlValues(points));
+  }
+
+  /**
+   * One or more addresses to which to calculate distance and time.
+   *
+   * @param destinations Strings to geocode and use as destination points (e.g. "Jersey City, NJ")
+   * @return Returns this request for call chaining.
+   */
+  public LargeDistanceMatrixRequest destinations(String... destinations) {
+    this.destinations = destinations.clone();
+    return this;
+  }
+
+  /**
+   * One or more latitude/longitude values to which to calculate distance and time.
+   *
+   * @param points The destination points.
+   * @return Returns this request for call chaining.
+   */
+  public LargeDistanceMatrixRequest destinations(LatLng... points) {
+    return destinations(toUrlValues(points));
+  }
+
+  /**
+   * Sets how each tile is requested, apart from its origins and destinations: the travel mode,
+   * units, departure time, priority and so on. It is applied to every request sent.
+   *
+   * @param options Sets the options of a tile's request.
+   * @return Returns this request for call chaining.
+   */
+  public LargeDistanceMatrixRequest options(Consumer<DistanceMatrixApiRequest> options) {
+    this.options = options;
+    return this;
+  }
+
+  /**
+   * Sets the limits tiles are cut to, for API plans whose limits differ from the defaults.
+   *
+   * @param maxElements The number of elements, origins times destinations, allowed per request.
+   * @param maxDimension The number of origins, and of destinations, allowed per request.
+   * @return Returns this request for call chaining.
+   */
+  public LargeDistanceMatrixRequest tileLimits(int maxElements, int maxDimension) {
+    if (maxElements < 1 || maxDimension < 1) {
+      throw new IllegalArgumentException("limits must be positive");
+    }
+    this.maxElements = maxElements;
+    this.maxDimension = maxDimension;
+    return this;
+  }
+
+  /**
+   * Sets how many tiles are sent at once. The context's rate limit still applies to them.
+   *
+   * @param maxConcurrentTiles The number of tiles sent at once.
+   * @return Returns this request for call chaining.
+   */
+  public LargeDistanceMatrixRequest maxConcurrentTiles(int maxConcurrentTiles) {
+    if (maxConcurrentTiles < 1) {
+      throw new IllegalArgumentException("maxConcurrentTiles must be positive");
+    }
+    this.maxConcurrentTiles = maxConcurrentTiles;
+    return this;
+  }
+
+  /**
+   * Sets how many times a tile that failed, after the context's own retries, is sent again. Each
+   * time waits longer before it is sent, starting at half a second.
+   *
+   * @param tileRetries The number of times a tile is sent again.
+   * @return Returns this request for call chaining.
+   */
+  public LargeDistanceMatrixRequest tileRetries(int tileRetries) {
+    if (tileRetries < 0) {
+      throw new IllegalArgumentException("tileRetries must not be negative");
+    }
+    this.tileRetries = tileRetries;
+    return this;
+  }
+
+  String[] origins() {
+    return origins;
+  }
+
+  String[] destinations() {
+    return destinations;
+  }
+
+  @Override
+  public void setCallback(Callback<DistanceMatrix> callback) {
+    start();
+    result.whenComplete(
+        (value, error) -> {
+          if (error != null) {
+            callback.onFailure(error);
+            return;
+          }
+          try {
+            callback.onResult(value);
+          } catch (Exception e) {
+            callback.onFailure(e);
+          }
+        });
+  }
+
+  @Override
+  public DistanceMatrix await() throws ApiException, InterruptedException, IOException {
+    start();
+    try {
+      return result.get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof ApiException) {
+        throw (ApiException) cause;
+      } else if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IOException(cause);
+    }
+  }
+
+  @Override
+  public DistanceMatrix awaitIgnoreError() {
+    try {
+      return await();
+    } catch (Exception e) {
+      return null;
+    }
+  }
+
+  @Override
+  public void cancel() {
+    if (result.completeExceptionally(new IOException("Canceled"))) {
+      cancelTiles();
+    }
+  }
+
+  @Override
+  public CompletableFuture<DistanceMatrix> toCompletableFuture() {
+    start();
+    final CompletableFuture<DistanceMatrix> future = new CompletableFuture<>();
+    future.whenComplete(
+        (value, error) -> {
+          if (future.isCancelled()) {
+            cancel();
+          }
+        });
+    result.whenComplete(
+        (value, error) -> {
+          if (error != null) {
+            future.completeExceptionally(error);
+          } else {
+            future.complete(value);
+          }
+        });
+    return future;
+  }
+
+  private void start() {
+    synchronized (this) {
+      if (started) {
+        throw new IllegalStateException(
+            "'await', 'awaitIgnoreError', 'setCallback' or 'toCompletableFuture' was already "
+                + "called.");
+      }
+      if (origins == null || origins.length == 0) {
+        throw new IllegalArgumentException("Request must contain 'origins'");
+      }
+      if (destinations == null || destinations.length == 0) {
+        throw new IllegalArgumentException("Request must contain 'destinations'");
+      }
+      started = true;
+      originAddresses = new String[origins.length];
+      destinationAddresses = new String[destinations.length];
+      rows = new DistanceMatrixRow[origins.length];
+      for (int i = 0; i < rows.length; i++) {
+        rows[i] = new DistanceMatrixRow();
+        rows[i].elements = new DistanceMatrixElement[destinations.length];
+      }
+      tile();
+      unfinished = pending.size();
+    }
+    sendPending();
+  }
+
+  /**
+   * Cuts the matrix into the fewest tiles of one shape that are within the limits. Tiles at the
+   * right and bottom edges may be smaller.
+   */
+  private void tile() {
+    int bestOrigins = 1;
+    int bestDestinations = 1;
+    long bestTiles = Long.MAX_VALUE;
+    for (int o = 1; o <= Math.min(maxDimension, origins.length); o++) {
+      int d = Math.min(Math.min(maxDimension, destinations.length), maxElements / o);
+      if (d == 0) {
+        break;
+      }
+      long tiles = (long) ceilDiv(origins.length, o) * ceilDiv(destinations.length, d);
+      if (tiles < bestTiles) {
+        bestTiles = tiles;
+        bestOrigins = o;
+        bestDestinations = d;
+      }
+    }
+    for (int o = 0; o < origins.length; o += bestOrigins) {
+      for (int d = 0; d < destinations.length; d += bestDestinations) {
+        pending.add(
+            new Tile(
+                o,
+                Math.min(bestOrigins, origins.length - o),
+                d,
+                Math.min(bestDestinations, destinations.length - d)));
+      }
+    }
+  }
+
+  /** Sends pending tiles until as many are running as are allowed. */
+  private void sendPending() {
+    while (true) {
+      Tile tile;
+      synchronized (this) {
+        if (result.isDone() || running >= maxConcurrentTiles || pending.isEmpty()) {
+          return;
+        }
+        tile = pending.poll();
+        running++;
+      }
+      send(tile);
+    }
+  }
+
+  private void send(final Tile tile) {
+    final DistanceMatrixApiRequest request =
+        DistanceMatrixApi.newRequest(context)
+            .origins(Arrays.copyOfRange(origins, tile.origin, tile.origin + tile.origins))
+            .destinations(
+                Arrays.copyOfRange(
+                    destinations, tile.destination, tile.destination + tile.destinations));
+    CompletableFuture<DistanceMatrix> future;
+    try {
+      options.accept(request);
+      inFlight.add(request);
+      future = request.toCompletableFuture();
+    } catch (RuntimeException e) {
+      inFlight.remove(request);
+      onTileDone(tile, null, e);
+      return;
+    }
+    future.whenComplete(
+        (matrix, error) -> {
+          inFlight.remove(request);
+          onTileDone(tile, matrix, error);
+        });
+  }
+
+  private void onTileDone(Tile tile, DistanceMatrix matrix, Throwable error) {
+    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+    boolean complete = false;
+    boolean retry = false;
+    synchronized (this) {
+      running--;
+      if (result.isDone()) {
+        return;
+      }
+      if (cause == null && !fits(tile, matrix)) {
+        cause = new IOException("Distance Matrix response does not match the tile requested");
+      }
+      if (cause == null) {
+        stitch(tile, matrix);
+        complete = --unfinished == 0;
+      } else if (cause instanceof MaxElementsExceededException && tile.size() > 1) {
+        Tile[] halves = tile.split();
+        pending.addFirst(halves[1]);
+        pending.addFirst(halves[0]);
+        unfinished++;
+      } else if (retryable(cause) && tile.attempts < tileRetries) {
+        tile.attempts++;
+        // The tile keeps its place among those running while it waits, so that a request being
+        // throttled doesn't send the rest of its tiles into the same limit meanwhile.
+        running++;
+        retry = true;
+      } else {
+        result.completeExceptionally(cause);
+      }
+    }
+    if (complete) {
+      result.complete(new DistanceMatrix(originAddresses, destinationAddresses, rows));
+    } else if (retry) {
+      resendLater(tile);
+    } else if (result.isCompletedExceptionally()) {
+      cancelTiles();
+    } else {
+      sendPending();
+    }
+  }
+
+  /**
+   * Sends a failed tile again once its backoff has elapsed: half a second, growing 1.5 times with
+   * each attempt, with a jitter of half the delay either way as for the context's own retries.
+   */
+  private void resendLater(final Tile tile) {
+    double delaySecs = 0.5 * Math.pow(1.5, tile.attempts - 1);
+    long delayMillis = (long) (delaySecs * (Math.random() + 0.5) * 1000);
+    try {
+      context
+          .scheduler()
+          .schedule(
+              () -> {
+                synchronized (this) {
+                  if (result.isDone()) {
+                    running--;
+                    return;
+                  }
+                }
+                send(tile);
+              },
+              delayMillis,
+              TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      synchronized (this) {
+        running--;
+      }
+      if (result.completeExceptionally(
+          new IOException("Context was shut down before the tile was sent again", e))) {
+        cancelTiles();
+      }
+    }
+  }
+
+  private static boolean fits(Tile tile, DistanceMatrix matrix) {
+    if (matrix == null || matrix.rows == null || matrix.rows.length != tile.origins) {
+      return false;
+    }
+    for (DistanceMatrixRow row : matrix.rows) {
+      if (row.elements == null || row.elements.length != tile.destinations) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void stitch(Tile tile, DistanceMatrix matrix) {
+    for (int i = 0; i < tile.origins; i++) {
+      System.arraycopy(
+          matrix.rows[i].elements,
+          0,
+          rows[tile.origin + i].elements,
+          tile.destination,
+          tile.destinations);
+      if (matrix.originAddresses != null && i < matrix.originAddresses.length) {
+        originAddresses[tile.origin + i] = matrix.originAddresses[i];
+      }
+    }
+    if (matrix.destinationAddresses != null) {
+      for (int i = 0; i < tile.destinations && i < matrix.destinationAddresses.length; i++) {
+        destinationAddresses[tile.destination + i] = matrix.destinationAddresses[i];
+      }
+    }
+  }
+
+  /** Returns whether a tile that failed this way may succeed if sent again. */
+  private static boolean retryable(Throwable e) {
+    if (e instanceof CircuitOpenException || e instanceof DeadlineExceededException) {
+      // Sending again would fail the same way, or the request has run out of time.
+      return false;
+    }
+    return e instanceof IOException
+        || e instanceof RequestRejectedException
+        || e instanceof OverQueryLimitException
+        || e instanceof UnknownErrorException;
+  }
+
+  private void cancelTiles() {
+    for (DistanceMatrixApiRequest request : inFlight) {
+      request.cancel();
+    }
+  }
+
+  private static String[] toUrlValues(LatLng[] points) {
+    String[] values = new String[points.length];
+    for (int i = 0; i < points.length; i++) {
+      values[i] = points[i].toUrlValue();
+    }
+    return values;
+  }
+
+  private static int ceilDiv(int a, int b) {
+    return (a + b - 1) / b;
+  }
+
+  /** A block of the matrix, sent as one request. */
+  private static final class Tile {
+    final int origin;
+    final int origins;
+    final int destination;
+    final int destinations;
+    int attempts;
+
+    Tile(int origin, int origins, int destination, int destinations) {
+      this.origin = origin;
+      this.origins = origins;
+      this.destination = destination;
+      this.destinations = destinations;
+    }
+
+    int size() {
+      return origins * destinations;
+    }
+
+    /** Splits this tile in two across its longer side. */
+    Tile[] split() {
+      if (origins >= destinations) {
+        int half = origins / 2;
+        return new Tile[] {
+          new Tile(origin, half, destination, destinations),
+          new Tile(origin + half, origins - half, destination, destinations)
+        };
+      }
+      int half = destinations / 2;
+      return new Tile[] {
+        new Tile(origin, origins, destination, half),
+        new Tile(origin, origins, destination + half, destinations - half)
+      };
+    }
+  }
+}
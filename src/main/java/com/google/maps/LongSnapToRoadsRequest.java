@@ -0,0 +1,361 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps;
+
+import com.google.maps.errors.ApiException;
+import com.google.maps.model.LatLng;
+import com.google.maps.model.SnappedPoint;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * A Snap to Roads request for a path of any length, sent as overlapping windows that are each
+ * within the API's limit on points per request, and answered with the snapped points of the whole
+ * path in order.
+ *
+ * <p>The Roads API snaps each point using the points around it, so the points at either end of a
+ * window are snapped with less to go on. Neighbouring windows therefore share a few points, and
+ * each window's snapped points are only kept up to the middle of the overlap, where both windows
+ * have context on either side. The {@link SnappedPoint#originalIndex} of each point is an index
+ * into the whole path, and interpolated points are kept with the window that kept the point before
+ * them.
+ *
+ * <pre>{@code
+ * SnappedPoint[] snapped =
+ *     RoadsApi.snapToRoadsLong(context, true, trace)
+ *         .windowLimits(100, 10)
+ *         .await();
+ * }</pre>
+ */
+public class LongSnapToRoadsRequest implements PendingResult<SnappedPoint[]> {
+
+  /** The number of points allowed per request by default. */
+  public static final int DEFAULT_WINDOW_SIZE = 100;
+
+  /** The number of points neighbouring windows share by default. */
+  public static final int DEFAULT_OVERLAP = 10;
+
+  /** The number of windows sent at once by default. */
+  public static final int DEFAULT_MAX_CONCURRENT_WINDOWS = 4;
+
+  private final GeoApiContext context;
+  private LatLng[] path;
+  private boolean interpolate;
+  private int windowSize = DEFAULT_WINDOW_SIZE;
+  private int overlap = DEFAULT_OVERLAP;
+  private int maxConcurrentWindows = DEFAULT_MAX_CONCURRENT_WINDOWS;
+
+  private final CompletableFuture<SnappedPoint[]> result = new CompletableFuture<>();
+  private final Set<SnapToRoadsApiRequest> inFlight = ConcurrentHashMap.newKeySet();
+  private boolean started;
+
+  // The snapped points of each window and the next window to send. Guarded by this.
+  private SnappedPoint[][] snapped;
+  private int next;
+  private int running;
+  private int unfinished;
+
+  public LongSnapToRoadsRequest(GeoApiContext context) {
+    this.context = context;
+  }
+
+  /**
+   * The path to be snapped.
+   *
+   * @param path The collected GPS points, in the order they were collected.
+   * @return Returns this request for call chaining.
+   */
+  public LongSnapToRoadsRequest path(LatLng... path) {
+    this.path = path;
+    return this;
+  }
+
+  /**
+   * Whether to interpolate the path to include all points forming the full road geometry.
+   *
+   * @param interpolate Whether to return interpolated points.
+   * @return Returns this request for call chaining.
+   */
+  public LongSnapToRoadsRequest interpolate(boolean interpolate) {
+    this.interpolate = interpolate;
+    return this;
+  }
+
+  /**
+   * Sets the size of the windows the path is cut into.
+   *
+   * @param windowSize The most points sent in one request.
+   * @param overlap The number of points neighbouring windows share, less than {@code windowSize}.
+   * @return Returns this request for call chaining.
+   */
+  public LongSnapToRoadsRequest windowLimits(int windowSize, int overlap) {
+    if (windowSize < 2 || overlap < 0 || overlap >= windowSize) {
+      throw new IllegalArgumentException(
+          "windowSize must be at least 2 and overlap between 0 and windowSize - 1");
+    }
+    this.windowSize = windowSize;
+    this.overlap = overlap;
+    return this;
+  }
+
+  /**
+   * Sets how many windows are sent at once. Each is still subject to the context's rate limit.
+   *
+   * @param maxConcurrentWindows The most windows in flight at a time, at least 1.
+   * @return Returns this request for call chaining.
+   */
+  public LongSnapToRoadsRequest maxConcurrentWindows(int maxConcurrentWindows) {
+    if (maxConcurrentWindows < 1) {
+      throw new IllegalArgumentException("maxConcurrentWindows must be at least 1");
+    }
+    this.maxConcurrentWindows = maxConcurrentWindows;
+    return this;
+  }
+
+  @Override
+  public void setCallback(Callback<SnappedPoint[]> callback) {
+    start();
+    result.whenComplete(
+        (value, error) -> {
+          if (error != null) {
+            callback.onFailure(error);
+            return;
+          }
+          try {
+            callback.onResult(value);
+          } catch (Exception e) {
+            callback.onFailure(e);
+          }
+        });
+  }
+
+  @Override
+  public SnappedPoint[] await() throws ApiException, InterruptedException, IOException {
+    start();
+    try {
+      return result.get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof ApiException) {
+        throw (ApiException) cause;
+      } else if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IOException(cause);
+    }
+  }
+
+  @Override
+  public SnappedPoint[] awaitIgnoreError() {
+    try {
+      return await();
+    } catch (Exception e) {
+      return null;
+    }
+  }
+
+  @Override
+  public void cancel() {
+    if (result.completeExceptionally(new IOException("Canceled"))) {
+      cancelWindows();
+    }
+  }
+
+  @Override
+  public CompletableFuture<SnappedPoint[]> toCompletableFuture() {
+    start();
+    final CompletableFuture<SnappedPoint[]> future = new CompletableFuture<>();
+    future.whenComplete(
+        (value, error) -> {
+          if (future.isCancelled()) {
+            cancel();
+          }
+        });
+    result.whenComplete(
+        (value, error) -> {
+          if (error != null) {
+            future.completeExceptionally(error);
+          } else {
+            future.complete(value);
+          }
+        });
+    return future;
+  }
+
+  private void start() {
+    synchronized (this) {
+      if (started) {
+        throw new IllegalStateException(
+            "'await', 'awaitIgnoreError', 'setCallback' or 'toCompletableFuture' was already "
+                + "called.");
+      }
+      if (path == null || path.length == 0) {
+        throw new IllegalArgumentException("Request must contain 'path'");
+      }
+      started = true;
+      snapped = new SnappedPoint[windowCount()][];
+      unfinished = snapped.length;
+    }
+    sendPending();
+  }
+
+  private int windowCount() {
+    if (path.length <= windowSize) {
+      return 1;
+    }
+    int step = windowSize - overlap;
+    return 1 + (path.length - windowSize + step - 1) / step;
+  }
+
+  /** Returns the index into the path of the first point of window {@code w}. */
+  private int windowStart(int w) {
+    return w * (windowSize - overlap);
+  }
+
+  /** Returns the index into the path of the first point whose snap window {@code w} keeps. */
+  private int seam(int w) {
+    return w == 0 ? 0 : windowStart(w) + overlap / 2;
+  }
+
+  /** Sends windows until as many are running as are allowed. */
+  private void sendPending() {
+    while (true) {
+      int w;
+      synchronized (this) {
+        if (result.isDone() || running >= maxConcurrentWindows || next == snapped.length) {
+          return;
+        }
+        w = next++;
+        running++;
+      }
+      send(w);
+    }
+  }
+
+  private void send(final int w) {
+    int start = windowStart(w);
+    final SnapToRoadsApiRequest request =
+        RoadsApi.snapToRoads(
+            context,
+            interpolate,
+            Arrays.copyOfRange(path, start, Math.min(start + windowSize, path.length)));
+    CompletableFuture<SnappedPoint[]> future;
+    try {
+      inFlight.add(request);
+      future = request.toCompletableFuture();
+    } catch (RuntimeException e) {
+      inFlight.remove(request);
+      onWindowDone(w, null, e);
+      return;
+    }
+    future.whenComplete(
+        (points, error) -> {
+          inFlight.remove(request);
+          onWindowDone(w, points, error);
+        });
+  }
+
+  private void onWindowDone(int w, SnappedPoint[] points, Throwable error) {
+    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+    SnappedPoint[] stitched = null;
+    synchronized (this) {
+      running--;
+      if (result.isDone()) {
+        return;
+      }
+      if (cause == null) {
+        int end = w + 1 < snapped.length ? seam(w + 1) : path.length;
+        snapped[w] = keep(points, windowStart(w), w == 0 ? -1 : seam(w), end);
+        if (--unfinished == 0) {
+          stitched = stitch(snapped);
+        }
+      } else {
+        result.completeExceptionally(cause);
+      }
+    }
+    if (stitched != null) {
+      result.complete(stitched);
+    } else if (result.isCompletedExceptionally()) {
+      cancelWindows();
+    } else {
+      sendPending();
+    }
+  }
+
+  /**
+   * Returns the snapped points of one window that belong to the points of the path from {@code
+   * from} up to {@code to}, with their original indices rewritten to be indices into the path. An
+   * interpolated point belongs to the point before it, or to index {@code offset - 1} if it comes
+   * before every point of the window.
+   *
+   * @param points The snapped points of the window.
+   * @param offset The index into the path of the window's first point.
+   * @param from The index into the path of the first point to keep, or -1 to also keep interpolated
+   *     points ahead of it.
+   * @param to The index into the path of the first point not to keep.
+   */
+  static SnappedPoint[] keep(SnappedPoint[] points, int offset, int from, int to) {
+    if (points == null) {
+      return new SnappedPoint[0];
+    }
+    List<SnappedPoint> kept = new ArrayList<>(points.length);
+    int owner = offset - 1;
+    for (SnappedPoint point : points) {
+      if (point.originalIndex >= 0) {
+        owner = offset + point.originalIndex;
+      }
+      if (owner >= from && owner < to) {
+        SnappedPoint copy = new SnappedPoint();
+        copy.location = point.location;
+        copy.placeId = point.placeId;
+        copy.originalIndex = point.originalIndex >= 0 ? owner : -1;
+        kept.add(copy);
+      }
+    }
+    return kept.toArray(new SnappedPoint[0]);
+  }
+
+  private static SnappedPoint[] stitch(SnappedPoint[][] windows) {
+    int count = 0;
+    for (SnappedPoint[] window : windows) {
+      count += window.length;
+    }
+    SnappedPoint[] stitched = new SnappedPoint[count];
+    int at = 0;
+    for (SnappedPoint[] window : windows) {
+      System.arraycopy(window, 0, stitched, at, window.length);
+      at += window.length;
+    }
+    return stitched;
+  }
+
+  private void cancelWindows() {
+    for (SnapToRoadsApiRequest request : inFlight) {
+      request.cancel();
+    }
+  }
+}
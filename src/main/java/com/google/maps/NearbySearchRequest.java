@@ -210,6 +210,11 @@ public class NearbySearchRequest
       return "OK".equals(status) || "ZERO_RESULTS".equals(status);
     }
 
+    @Override
+    public boolean zeroResults() {
+      return "ZERO_RESULTS".equals(status);
+    }
+
     @Override
     public PlacesSearchResponse getResult() {
       PlacesSearchResponse result = new PlacesSearchResponse();
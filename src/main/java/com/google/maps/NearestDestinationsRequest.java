@@ -0,0 +1,286 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps;
+
+import com.google.maps.errors.ApiException;
+import com.google.maps.internal.GreatCircle;
+import com.google.maps.model.DistanceMatrix;
+import com.google.maps.model.DistanceMatrixElement;
+import com.google.maps.model.DistanceMatrixElementStatus;
+import com.google.maps.model.LatLng;
+import com.google.maps.model.RankedDestination;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Finds which of many candidate destinations are nearest an origin by road, without asking the
+ * Distance Matrix API about all of them. The candidates are first ranked by great-circle distance,
+ * which costs nothing to compute, and only the nearest of those are sent to the API. The answer is
+ * ranked by road distance.
+ *
+ * <p>Road distance is never shorter than great-circle distance, but it can be much longer, so the
+ * nearest by road need not be among the nearest as the crow flies. A safety margin controls how
+ * many more candidates than the limit are sent to allow for this: with a limit of 5 and the default
+ * margin of 2, the 10 nearest candidates are sent.
+ *
+ * <pre>{@code
+ * RankedDestination[] nearest =
+ *     DistanceMatrixApi.newNearestRequest(context, customer, stores)
+ *         .limit(3)
+ *         .options(request -> request.mode(TravelMode.DRIVING))
+ *         .await();
+ * }</pre>
+ */
+public class NearestDestinationsRequest implements PendingResult<RankedDestination[]> {
+
+  /** The number of destinations answered by default. */
+  public static final int DEFAULT_LIMIT = 10;
+
+  /** How many times the limit are sent to the Distance Matrix API by default. */
+  public static final double DEFAULT_SAFETY_MARGIN = 2.0;
+
+  private final GeoApiContext context;
+  private final LatLng origin;
+  private final LatLng[] candidates;
+  private Consumer<DistanceMatrixApiRequest> options = request -> {};
+  private int limit = DEFAULT_LIMIT;
+  private double safetyMargin = DEFAULT_SAFETY_MARGIN;
+
+  private final CompletableFuture<RankedDestination[]> result = new CompletableFuture<>();
+  private LargeDistanceMatrixRequest matrixRequest;
+  private boolean started;
+
+  /**
+   * @param context The {@link GeoApiContext} to make requests through.
+   * @param origin The point to measure from.
+   * @param candidates The destinations to choose from.
+   */
+  public NearestDestinationsRequest(GeoApiContext context, LatLng origin, LatLng... candidates) {
+    this.context = context;
+    this.origin = origin;
+    this.candidates = candidates;
+  }
+
+  /**
+   * Sets how many destinations to answer with.
+   *
+   * @param limit The most destinations to answer with; fewer if fewer can be reached.
+   * @return Returns this request for call chaining.
+   */
+  public NearestDestinationsRequest limit(int limit) {
+    if (limit < 1) {
+      throw new IllegalArgumentException("limit must be at least 1");
+    }
+    this.limit = limit;
+    return this;
+  }
+
+  /**
+   * Sets how many more candidates than the limit are sent to the Distance Matrix API, to allow for
+   * candidates that are near as the crow flies but far by road.
+   *
+   * @param safetyMargin The multiple of the limit to send, at least 1.
+   * @return Returns this request for call chaining.
+   */
+  public NearestDestinationsRequest safetyMargin(double safetyMargin) {
+    if (!(safetyMargin >= 1)) {
+      throw new IllegalArgumentException("safetyMargin must be at least 1");
+    }
+    this.safetyMargin = safetyMargin;
+    return this;
+  }
+
+  /**
+   * Sets the options, such as the travel mode and departure time, of the Distance Matrix request.
+   *
+   * @param options Applied to the request before it is sent. Its origins and destinations are set
+   *     by this request.
+   * @return Returns this request for call chaining.
+   */
+  public NearestDestinationsRequest options(Consumer<DistanceMatrixApiRequest> options) {
+    this.options = options;
+    return this;
+  }
+
+  @Override
+  public void setCallback(Callback<RankedDestination[]> callback) {
+    start();
+    result.whenComplete(
+        (value, error) -> {
+          if (error != null) {
+            callback.onFailure(error);
+            return;
+          }
+          try {
+            callback.onResult(value);
+          } catch (Exception e) {
+            callback.onFailure(e);
+          }
+        });
+  }
+
+  @Override
+  public RankedDestination[] await() throws ApiException, InterruptedException, IOException {
+    start();
+    try {
+      return result.get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof ApiException) {
+        throw (ApiException) cause;
+      } else if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IOException(cause);
+    }
+  }
+
+  @Override
+  public RankedDestination[] awaitIgnoreError() {
+    try {
+      return await();
+    } catch (Exception e) {
+      return null;
+    }
+  }
+
+  @Override
+  public void cancel() {
+    LargeDistanceMatrixRequest matrixRequest;
+    synchronized (this) {
+      matrixRequest = this.matrixRequest;
+    }
+    if (result.completeExceptionally(new IOException("Canceled")) && matrixRequest != null) {
+      matrixRequest.cancel();
+    }
+  }
+
+  @Override
+  public CompletableFuture<RankedDestination[]> toCompletableFuture() {
+    start();
+    final CompletableFuture<RankedDestination[]> future = new CompletableFuture<>();
+    future.whenComplete(
+        (value, error) -> {
+          if (future.isCancelled()) {
+            cancel();
+          }
+        });
+    result.whenComplete(
+        (value, error) -> {
+          if (error != null) {
+            future.completeExceptionally(error);
+          } else {
+            future.complete(value);
+          }
+        });
+    return future;
+  }
+
+  private void start() {
+    final int[] sent;
+    final LargeDistanceMatrixRequest matrixRequest;
+    synchronized (this) {
+      if (started) {
+        throw new IllegalStateException(
+            "'await', 'awaitIgnoreError', 'setCallback' or 'toCompletableFuture' was already "
+                + "called.");
+      }
+      if (origin == null) {
+        throw new IllegalArgumentException("Request must contain an origin");
+      }
+      if (candidates == null || candidates.length == 0) {
+        throw new IllegalArgumentException("Request must contain candidates");
+      }
+      started = true;
+      if (result.isDone()) {
+        return;
+      }
+      double[] greatCircleMeters = greatCircleMeters();
+      sent = GreatCircle.nearest(greatCircleMeters, (int) Math.ceil(limit * safetyMargin));
+      LatLng[] destinations = new LatLng[sent.length];
+      for (int i = 0; i < sent.length; i++) {
+        destinations[i] = candidates[sent[i]];
+      }
+      matrixRequest =
+          new LargeDistanceMatrixRequest(context)
+              .origins(origin)
+              .destinations(destinations)
+              .options(options);
+      this.matrixRequest = matrixRequest;
+      matrixRequest
+          .toCompletableFuture()
+          .whenComplete(
+              (matrix, error) -> {
+                if (error != null) {
+                  result.completeExceptionally(error);
+                  return;
+                }
+                try {
+                  result.complete(rank(matrix, sent, greatCircleMeters));
+                } catch (RuntimeException e) {
+                  result.completeExceptionally(e);
+                }
+              });
+    }
+  }
+
+  private double[] greatCircleMeters() {
+    double[] lats = new double[candidates.length];
+    double[] lngs = new double[candidates.length];
+    for (int i = 0; i < candidates.length; i++) {
+      lats[i] = candidates[i].lat;
+      lngs[i] = candidates[i].lng;
+    }
+    return GreatCircle.distances(origin.lat, origin.lng, lats, lngs);
+  }
+
+  /**
+   * Orders the reachable destinations of {@code matrix}, whose single row holds the candidates at
+   * the indices {@code sent}, by road distance and keeps the nearest up to the limit.
+   */
+  private RankedDestination[] rank(DistanceMatrix matrix, int[] sent, double[] greatCircleMeters) {
+    DistanceMatrixElement[] elements = matrix.rows[0].elements;
+    List<RankedDestination> reachable = new ArrayList<>();
+    for (int i = 0; i < sent.length; i++) {
+      DistanceMatrixElement element = elements[i];
+      if (element == null
+          || element.status != DistanceMatrixElementStatus.OK
+          || element.distance == null) {
+        continue;
+      }
+      RankedDestination destination = new RankedDestination();
+      destination.index = sent[i];
+      destination.location = candidates[sent[i]];
+      destination.greatCircleMeters = greatCircleMeters[sent[i]];
+      destination.element = element;
+      reachable.add(destination);
+    }
+    reachable.sort(
+        Comparator.<RankedDestination>comparingLong(d -> d.element.distance.inMeters)
+            .thenComparingDouble(d -> d.greatCircleMeters));
+    int count = Math.min(limit, reachable.size());
+    return reachable.subList(0, count).toArray(new RankedDestination[count]);
+  }
+}
@@ -21,17 +21,21 @@ import com.google.maps.android.AndroidAuthenticationConfig;
 import com.google.maps.android.AndroidAuthenticationConfigProvider;
 import com.google.maps.android.AndroidAuthenticationInterceptor;
 import com.google.maps.internal.ApiResponse;
+import com.google.maps.internal.CircuitBreaker;
+import com.google.maps.internal.CircuitBreakerRegistry;
 import com.google.maps.internal.ExceptionsAllowedToRetry;
+import com.google.maps.internal.HedgingPolicy;
 import com.google.maps.internal.OkHttpPendingResult;
 import com.google.maps.internal.RateLimitExecutorService;
 import com.google.maps.metrics.RequestMetrics;
+import com.google.maps.metrics.RequestMetricsReporter;
 import java.net.Proxy;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import okhttp3.Credentials;
-import okhttp3.Dispatcher;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -45,11 +49,22 @@ import okhttp3.RequestBody;
 public class OkHttpRequestHandler implements GeoApiContext.RequestHandler {
   private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
   private final OkHttpClient client;
-  private final ExecutorService executorService;
+  private final RateLimitExecutorService rateLimitExecutorService;
+  private final ScheduledExecutorService retryScheduler;
+  private final HedgingPolicy hedgingPolicy;
+  private final CircuitBreakerRegistry circuitBreakers;
 
-  /* package */ OkHttpRequestHandler(OkHttpClient client, ExecutorService executorService) {
+  /* package */ OkHttpRequestHandler(
+      OkHttpClient client,
+      RateLimitExecutorService rateLimitExecutorService,
+      ScheduledExecutorService retryScheduler,
+      HedgingPolicy hedgingPolicy,
+      CircuitBreakerRegistry circuitBreakers) {
     this.client = client;
-    this.executorService = executorService;
+    this.rateLimitExecutorService = rateLimitExecutorService;
+    this.retryScheduler = retryScheduler;
+    this.hedgingPolicy = hedgingPolicy;
+    this.circuitBreakers = circuitBreakers;
   }
 
   @Override
@@ -63,6 +78,31 @@ public class OkHttpRequestHandler implements GeoApiContext.RequestHandler {
       Integer maxRetries,
       ExceptionsAllowedToRetry exceptionsAllowedToRetry,
       RequestMetrics metrics) {
+    return handle(
+        hostName,
+        url,
+        headers,
+        clazz,
+        fieldNamingPolicy,
+        errorTimeout,
+        maxRetries,
+        exceptionsAllowedToRetry,
+        metrics,
+        RequestOptions.DEFAULT);
+  }
+
+  @Override
+  public <T, R extends ApiResponse<T>> PendingResult<T> handle(
+      String hostName,
+      String url,
+      Map<String, String> headers,
+      Class<R> clazz,
+      FieldNamingPolicy fieldNamingPolicy,
+      long errorTimeout,
+      Integer maxRetries,
+      ExceptionsAllowedToRetry exceptionsAllowedToRetry,
+      RequestMetrics metrics,
+      RequestOptions options) {
     Request.Builder builder = new Request.Builder().get();
     for (Entry<String, String> entry : headers.entrySet()) {
       builder = builder.header(entry.getKey(), entry.getValue());
@@ -77,7 +117,12 @@ public class OkHttpRequestHandler implements GeoApiContext.RequestHandler {
         errorTimeout,
         maxRetries,
         exceptionsAllowedToRetry,
-        metrics);
+        metrics,
+        retryScheduler,
+        rateLimitExecutorService,
+        options,
+        hedgingPolicy,
+        circuitBreaker(req));
   }
 
   @Override
@@ -92,6 +137,33 @@ public class OkHttpRequestHandler implements GeoApiContext.RequestHandler {
       Integer maxRetries,
       ExceptionsAllowedToRetry exceptionsAllowedToRetry,
       RequestMetrics metrics) {
+    return handlePost(
+        hostName,
+        url,
+        payload,
+        headers,
+        clazz,
+        fieldNamingPolicy,
+        errorTimeout,
+        maxRetries,
+        exceptionsAllowedToRetry,
+        metrics,
+        RequestOptions.DEFAULT);
+  }
+
+  @Override
+  public <T, R extends ApiResponse<T>> PendingResult<T> handlePost(
+      String hostName,
+      String url,
+      String payload,
+      Map<String, String> headers,
+      Class<R> clazz,
+      FieldNamingPolicy fieldNamingPolicy,
+      long errorTimeout,
+      Integer maxRetries,
+      ExceptionsAllowedToRetry exceptionsAllowedToRetry,
+      RequestMetrics metrics,
+      RequestOptions options) {
     RequestBody body = RequestBody.create(payload, JSON);
     Request.Builder builder = new Request.Builder().post(body);
     for (Entry<String, String> entry : headers.entrySet()) {
@@ -107,12 +179,28 @@ public class OkHttpRequestHandler implements GeoApiContext.RequestHandler {
         errorTimeout,
         maxRetries,
         exceptionsAllowedToRetry,
-        metrics);
+        metrics,
+        retryScheduler,
+        rateLimitExecutorService,
+        options,
+        // Only GET requests are idempotent, so POSTs are never hedged.
+        null,
+        circuitBreaker(req));
+  }
+
+  private CircuitBreaker circuitBreaker(Request req) {
+    return circuitBreakers == null ? null : circuitBreakers.forEndpoint(req.url().encodedPath());
+  }
+
+  /** Returns the timer that backoff between retries is waited out on. */
+  ScheduledExecutorService retryScheduler() {
+    return retryScheduler;
   }
 
   @Override
   public void shutdown() {
-    executorService.shutdown();
+    rateLimitExecutorService.shutdown();
+    retryScheduler.shutdown();
     client.connectionPool().evictAll();
   }
 
@@ -120,13 +208,18 @@ public class OkHttpRequestHandler implements GeoApiContext.RequestHandler {
   public static class Builder implements GeoApiContext.RequestHandler.Builder {
     private final OkHttpClient.Builder builder;
     private final RateLimitExecutorService rateLimitExecutorService;
-    private final Dispatcher dispatcher;
+    private final ScheduledExecutorService retryScheduler;
+    private HedgingPolicy hedgingPolicy;
+    private CircuitBreakerRegistry circuitBreakers;
+    private RequestMetricsReporter requestMetricsReporter;
 
     public Builder() {
       builder = new OkHttpClient.Builder();
       rateLimitExecutorService = new RateLimitExecutorService();
-      dispatcher = new Dispatcher(rateLimitExecutorService);
-      builder.dispatcher(dispatcher);
+      // Backoff between retries is waited out on this timer rather than on a dispatcher thread.
+      retryScheduler =
+          Executors.newSingleThreadScheduledExecutor(
+              RateLimitExecutorService.internalThreadFactory("RetryDelayThread"));
 
       final AndroidAuthenticationConfigProvider provider =
           new AndroidAuthenticationConfigProvider();
@@ -154,12 +247,100 @@ public class OkHttpRequestHandler implements GeoApiContext.RequestHandler {
 
     @Override
     public Builder queriesPerSecond(int maxQps) {
-      dispatcher.setMaxRequests(maxQps);
-      dispatcher.setMaxRequestsPerHost(maxQps);
       rateLimitExecutorService.setQueriesPerSecond(maxQps);
       return this;
     }
 
+    /**
+     * Bounds the number of requests that may be in flight at once. Requests are sent on the rate
+     * limiter's threads rather than through OkHttp's {@link okhttp3.Dispatcher}, so this, not the
+     * dispatcher's limits, is what caps concurrency. Unless set, the bound follows {@link
+     * #queriesPerSecond(int)}.
+     *
+     * @param maxInFlight The maximum number of requests in flight.
+     * @return Returns this builder for call chaining.
+     */
+    public Builder maxInFlight(int maxInFlight) {
+      rateLimitExecutorService.setMaxInFlight(maxInFlight);
+      return this;
+    }
+
+    /**
+     * Bounds the number of requests to one API that may be in flight at once. Unless set, the bound
+     * follows {@link #queriesPerSecond(String, int)}.
+     *
+     * @param pathOrHost A URL path or host name already given its own queries per second.
+     * @param maxInFlight The maximum number of requests in flight for {@code pathOrHost}.
+     * @return Returns this builder for call chaining.
+     */
+    public Builder maxInFlight(String pathOrHost, int maxInFlight) {
+      rateLimitExecutorService.setMaxInFlight(pathOrHost, maxInFlight);
+      return this;
+    }
+
+    /**
+     * Runs HTTP calls on virtual threads when the runtime supports them (JDK 21+), instead of on a
+     * pool that grows by one platform thread per in-flight request. On older runtimes this has no
+     * effect.
+     *
+     * @return Returns this builder for call chaining.
+     */
+    public Builder useVirtualThreads() {
+      rateLimitExecutorService.useVirtualThreads();
+      return this;
+    }
+
+    @Override
+    public Builder queriesPerSecond(String pathOrHost, int maxQps) {
+      rateLimitExecutorService.setQueriesPerSecond(pathOrHost, maxQps);
+      return this;
+    }
+
+    @Override
+    public Builder adaptiveQueriesPerSecond() {
+      rateLimitExecutorService.setAdaptive(true);
+      return this;
+    }
+
+    @Override
+    public Builder queueCapacity(int capacity, QueueOverflowPolicy overflowPolicy) {
+      rateLimitExecutorService.setQueueCapacity(capacity, overflowPolicy);
+      return this;
+    }
+
+    @Override
+    public Builder maxQueueWait(long maxQueueWait, TimeUnit unit) {
+      rateLimitExecutorService.setMaxQueueWait(maxQueueWait, unit);
+      return this;
+    }
+
+    @Override
+    public Builder priorityWeight(RequestPriority priority, int weight) {
+      rateLimitExecutorService.setPriorityWeight(priority, weight);
+      return this;
+    }
+
+    @Override
+    public Builder hedgeRequests(double percentile) {
+      hedgingPolicy = new HedgingPolicy(percentile);
+      return this;
+    }
+
+    @Override
+    public Builder circuitBreaker(
+        double failureRateThreshold, int windowSize, long openDuration, TimeUnit unit) {
+      circuitBreakers =
+          new CircuitBreakerRegistry(failureRateThreshold, windowSize, openDuration, unit);
+      return this;
+    }
+
+    @Override
+    public Builder requestMetricsReporter(RequestMetricsReporter requestMetricsReporter) {
+      this.requestMetricsReporter = requestMetricsReporter;
+      rateLimitExecutorService.setRequestMetricsReporter(requestMetricsReporter);
+      return this;
+    }
+
     @Override
     public Builder proxy(Proxy proxy) {
       builder.proxy(proxy);
@@ -197,7 +378,11 @@ public class OkHttpRequestHandler implements GeoApiContext.RequestHandler {
     @Override
     public RequestHandler build() {
       OkHttpClient client = builder.build();
-      return new OkHttpRequestHandler(client, rateLimitExecutorService);
+      if (circuitBreakers != null && requestMetricsReporter != null) {
+        circuitBreakers.setRequestMetricsReporter(requestMetricsReporter);
+      }
+      return new OkHttpRequestHandler(
+          client, rateLimitExecutorService, retryScheduler, hedgingPolicy, circuitBreakers);
     }
   }
 }
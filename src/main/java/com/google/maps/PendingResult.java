@@ -17,6 +17,7 @@ package com.google.maps;
 
 import com.google.maps.errors.ApiException;
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * A pending result from an API call.
@@ -57,6 +58,38 @@ public interface PendingResult<T> {
   /** Attempts to cancel the request. */
   void cancel();
 
+  /**
+   * Performs the request asynchronously, as {@link #setCallback(Callback)} does, and returns a
+   * {@link CompletableFuture} that completes with its result. This allows requests to be composed
+   * without blocking a thread on each of them.
+   *
+   * <p>Cancelling the returned future attempts to cancel the request.
+   *
+   * @return A future holding the result, or the exception describing the failure.
+   */
+  default CompletableFuture<T> toCompletableFuture() {
+    final CompletableFuture<T> future = new CompletableFuture<>();
+    future.whenComplete(
+        (result, e) -> {
+          if (future.isCancelled()) {
+            cancel();
+          }
+        });
+    setCallback(
+        new Callback<T>() {
+          @Override
+          public void onResult(T result) {
+            future.complete(result);
+          }
+
+          @Override
+          public void onFailure(Throwable e) {
+            future.completeExceptionally(e);
+          }
+        });
+    return future;
+  }
+
   /**
    * The callback interface the API client code needs to implement to handle API results.
    *
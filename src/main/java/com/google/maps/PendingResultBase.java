@@ -22,11 +22,15 @@ import com.google.maps.internal.HttpHeaders;
 import com.google.maps.internal.StringJoin;
 import com.google.maps.internal.StringJoin.UrlValue;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Base implementation for {@code PendingResult}.
@@ -41,6 +45,7 @@ abstract class PendingResultBase<T, A extends PendingResultBase<T, A, R>, R exte
   private final ApiConfig config;
   private HashMap<String, List<String>> params = new HashMap<>();
   private Map<String, String> headers = new HashMap<>();
+  private final RequestOptions.Builder options = new RequestOptions.Builder();
   private PendingResult<T> delegate;
   private Class<? extends R> responseClass;
 
@@ -66,6 +71,11 @@ abstract class PendingResultBase<T, A extends PendingResultBase<T, A, R>, R exte
     return makeRequest().awaitIgnoreError();
   }
 
+  @Override
+  public final CompletableFuture<T> toCompletableFuture() {
+    return makeRequest().toCompletableFuture();
+  }
+
   @Override
   public final void cancel() {
     if (delegate == null) {
@@ -77,14 +87,15 @@ abstract class PendingResultBase<T, A extends PendingResultBase<T, A, R>, R exte
   private PendingResult<T> makeRequest() {
     if (delegate != null) {
       throw new IllegalStateException(
-          "'await', 'awaitIgnoreError' or 'setCallback' was already called.");
+          "'await', 'awaitIgnoreError', 'setCallback' or 'toCompletableFuture' was already "
+              + "called.");
     }
     validateRequest();
     switch (config.requestVerb) {
       case "GET":
-        return delegate = context.get(config, responseClass, headers, params);
+        return delegate = context.get(config, responseClass, headers, params, options.build());
       case "POST":
-        return delegate = context.post(config, responseClass, headers, params);
+        return delegate = context.post(config, responseClass, headers, params, options.build());
       default:
         throw new IllegalStateException(
             String.format("Unexpected request method '%s'", config.requestVerb));
@@ -127,6 +138,51 @@ abstract class PendingResultBase<T, A extends PendingResultBase<T, A, R>, R exte
     return getInstance();
   }
 
+  /**
+   * Sets how urgently this request is sent when other requests are waiting for the same query rate
+   * limit. Requests are {@link RequestPriority#NORMAL} by default.
+   *
+   * @param priority The priority of this request.
+   * @return Returns the request for call chaining.
+   */
+  public A priority(RequestPriority priority) {
+    options.priority(priority);
+    return getInstance();
+  }
+
+  /**
+   * Sets how long this request may take in total, counted from now: time spent waiting for the
+   * query rate limit, on the wire, and backing off between retries all count against it. Once the
+   * deadline passes the request fails with a {@link
+   * com.google.maps.errors.DeadlineExceededException}, and no retry is started that could not
+   * finish in time. This is independent of, and may be much shorter than, the context's retry
+   * timeout. A timeout of decades or more sets no deadline.
+   *
+   * @param timeout The time allowed for this request.
+   * @return Returns the request for call chaining.
+   */
+  public A deadline(Duration timeout) {
+    options.deadline(timeout);
+    return getInstance();
+  }
+
+  /**
+   * Sets the time by which this request must complete, with the same meaning as {@link
+   * #deadline(Duration)}.
+   *
+   * @param deadline The time by which this request must complete.
+   * @return Returns the request for call chaining.
+   */
+  public A deadline(Instant deadline) {
+    options.deadline(deadline);
+    return getInstance();
+  }
+
+  /** Has the request handler write the body of an image response to {@code out} as it arrives. */
+  void imageSink(OutputStream out) {
+    options.imageSink(out);
+  }
+
   protected A param(String key, String val) {
     // Enforce singleton parameter semantics for most API surfaces
     params.put(key, new ArrayList<String>());
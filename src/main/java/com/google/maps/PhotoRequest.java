@@ -22,12 +22,12 @@ import com.google.maps.internal.ApiConfig;
  * Photo</a> request.
  */
 public class PhotoRequest
-    extends PendingResultBase<ImageResult, PhotoRequest, ImageResult.Response> {
+    extends ImageRequestBase<PhotoRequest> {
 
   static final ApiConfig API_CONFIG = new ApiConfig("/maps/api/place/photo");
 
   public PhotoRequest(GeoApiContext context) {
-    super(context, API_CONFIG, ImageResult.Response.class);
+    super(context, API_CONFIG);
   }
 
   @Override
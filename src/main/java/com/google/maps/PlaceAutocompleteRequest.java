@@ -221,6 +221,11 @@ public class PlaceAutocompleteRequest
       return "OK".equals(status) || "ZERO_RESULTS".equals(status);
     }
 
+    @Override
+    public boolean zeroResults() {
+      return "ZERO_RESULTS".equals(status);
+    }
+
     @Override
     public AutocompletePrediction[] getResult() {
       return predictions;
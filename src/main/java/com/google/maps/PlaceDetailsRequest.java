@@ -122,6 +122,11 @@ public class PlaceDetailsRequest
       return "OK".equals(status) || "ZERO_RESULTS".equals(status);
     }
 
+    @Override
+    public boolean zeroResults() {
+      return "ZERO_RESULTS".equals(status);
+    }
+
     @Override
     public PlaceDetails getResult() {
       if (result != null) {
@@ -101,6 +101,11 @@ public class QueryAutocompleteRequest
       return "OK".equals(status) || "ZERO_RESULTS".equals(status);
     }
 
+    @Override
+    public boolean zeroResults() {
+      return "ZERO_RESULTS".equals(status);
+    }
+
     @Override
     public AutocompletePrediction[] getResult() {
       return predictions;
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps;
+
+import com.google.maps.errors.RequestRejectedException;
+
+/**
+ * What happens to a request submitted while the rate-limited queue it waits in is at capacity.
+ *
+ * @see GeoApiContext.Builder#queueCapacity(int, QueueOverflowPolicy)
+ */
+public enum QueueOverflowPolicy {
+  /**
+   * The submitting thread blocks until the queue has room, or until the request's deadline passes,
+   * when it fails with a {@link com.google.maps.errors.DeadlineExceededException}. Retries, hedges
+   * and requests made from the library's own threads are queued over capacity instead, so that a
+   * full queue never stalls them.
+   */
+  BLOCK,
+
+  /** The new request fails with a {@link RequestRejectedException}. */
+  FAIL_FAST,
+
+  /**
+   * The request that has waited longest among the least urgent is dropped, failing with a {@link
+   * RequestRejectedException}, to make room for the new one. A request is only dropped for one of
+   * the same or higher priority; if every waiting request is more urgent, the new one fails
+   * instead.
+   */
+  DROP_OLDEST
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps;
+
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Per-request settings that affect how a request is scheduled and how its response is read, rather
+ * than what is sent. Options are immutable; a {@link GeoApiContext.RequestHandler} that does not
+ * schedule requests itself may ignore them.
+ */
+public final class RequestOptions {
+
+  /** The options of a request that sets none. */
+  public static final RequestOptions DEFAULT = new Builder().build();
+
+  private final RequestPriority priority;
+  private final Long deadlineNanos;
+  private final OutputStream imageSink;
+  private final boolean keepResponseBody;
+
+  private RequestOptions(Builder builder) {
+    this.priority = builder.priority;
+    this.deadlineNanos = builder.deadlineNanos;
+    this.imageSink = builder.imageSink;
+    this.keepResponseBody = builder.keepResponseBody;
+  }
+
+  /** Returns how urgently the request is sent when others wait for the same rate limit. */
+  public RequestPriority priority() {
+    return priority;
+  }
+
+  /** Returns whether the request has a deadline of its own. */
+  public boolean hasDeadline() {
+    return deadlineNanos != null;
+  }
+
+  /**
+   * Returns the time left until the deadline, which is negative once it has passed, or {@link
+   * Long#MAX_VALUE} if the request has no deadline.
+   */
+  public long remainingNanos() {
+    return deadlineNanos == null ? Long.MAX_VALUE : deadlineNanos - System.nanoTime();
+  }
+
+  /**
+   * Returns where the body of an image response should be written as it arrives, leaving {@link
+   * ImageResult#imageData} null, or null to keep the image in memory.
+   */
+  public OutputStream imageSink() {
+    return imageSink;
+  }
+
+  /**
+   * Returns whether the body of a successful JSON response should be handed back in the {@link
+   * ResponseMetadata} of the result, for a {@link ResponseBodyCache} to keep.
+   */
+  public boolean keepResponseBody() {
+    return keepResponseBody;
+  }
+
+  /** Returns a builder that starts from these options. */
+  public Builder toBuilder() {
+    Builder builder = new Builder();
+    builder.priority = priority;
+    builder.deadlineNanos = deadlineNanos;
+    builder.imageSink = imageSink;
+    builder.keepResponseBody = keepResponseBody;
+    return builder;
+  }
+
+  /** The builder for {@link RequestOptions}. */
+  public static final class Builder {
+    /**
+     * The longest timeout counted, about 73 years; a longer one is no deadline at all. Kept well
+     * short of {@link Long#MAX_VALUE} so that the time left can always be worked out.
+     */
+    private static final Duration MAX_TIMEOUT = Duration.ofNanos(Long.MAX_VALUE / 4);
+
+    private RequestPriority priority = RequestPriority.NORMAL;
+    private Long deadlineNanos;
+    private OutputStream imageSink;
+    private boolean keepResponseBody;
+
+    public Builder priority(RequestPriority priority) {
+      this.priority = priority;
+      return this;
+    }
+
+    /**
+     * Sets how long the request may take in total, counted from now. A timeout of decades or more,
+     * however long, sets no deadline.
+     *
+     * @param timeout The time allowed for the request.
+     * @return Returns this builder for call chaining.
+     */
+    public Builder deadline(Duration timeout) {
+      if (timeout.compareTo(MAX_TIMEOUT) >= 0) {
+        this.deadlineNanos = null;
+      } else {
+        long now = System.nanoTime();
+        this.deadlineNanos = timeout.isNegative() ? now : now + timeout.toNanos();
+      }
+      return this;
+    }
+
+    /**
+     * Sets the time by which the request must complete. A deadline decades away, up to {@link
+     * Instant#MAX}, sets no deadline.
+     *
+     * @param deadline The time by which the request must complete.
+     * @return Returns this builder for call chaining.
+     */
+    public Builder deadline(Instant deadline) {
+      Instant now = Instant.now();
+      if (deadline.isAfter(now.plus(MAX_TIMEOUT))) {
+        return deadline(MAX_TIMEOUT);
+      }
+      return deadline(deadline.isBefore(now) ? Duration.ZERO : Duration.between(now, deadline));
+    }
+
+    public Builder imageSink(OutputStream imageSink) {
+      this.imageSink = imageSink;
+      return this;
+    }
+
+    public Builder keepResponseBody(boolean keepResponseBody) {
+      this.keepResponseBody = keepResponseBody;
+      return this;
+    }
+
+    public RequestOptions build() {
+      return new RequestOptions(this);
+    }
+  }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps;
+
+/**
+ * How urgently a request should be sent when requests are waiting for the same query rate limit.
+ * Waiting requests are served in proportion to the weight of their priority, so that, for example,
+ * interactive lookups are not stuck behind a bulk job, while the bulk job still makes progress.
+ *
+ * @see PendingResultBase#priority(RequestPriority)
+ * @see GeoApiContext.Builder#priorityWeight(RequestPriority, int)
+ */
+public enum RequestPriority {
+  /** For requests a user is waiting on. */
+  HIGH,
+
+  /** The priority of requests that don't set one. */
+  NORMAL,
+
+  /** For bulk and background work. */
+  LOW
+}
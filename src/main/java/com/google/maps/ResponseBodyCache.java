@@ -0,0 +1,58 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps;
+
+/**
+ * Stores the raw bodies of successful API responses, so that repeated requests can be answered
+ * without going to the network, even by another process or after a restart.
+ *
+ * <p>Unlike a {@link ResponseCache}, which holds parsed results, a body cache holds bytes and the
+ * body is parsed again on every hit. Bodies are keyed the same way: by the API's URL path and the
+ * request's parameters in sorted order, without the API key, client ID or signature.
+ *
+ * <p>Implementations must be thread-safe.
+ *
+ * @see GeoApiContext.Builder#responseBodyCache(ResponseBodyCache)
+ * @see DiskResponseCache
+ */
+public interface ResponseBodyCache {
+
+  /**
+   * Returns whether the responses of an API are cached at all. The bodies of other APIs are
+   * neither looked up nor buffered to be offered to the cache.
+   *
+   * @param api The URL path of the API, such as {@code "/maps/api/geocode/json"}.
+   */
+  boolean caches(String api);
+
+  /**
+   * Returns the body stored for a request.
+   *
+   * @param api The URL path of the API.
+   * @param key The canonical key of the request.
+   * @return The stored body, or null if there is none.
+   */
+  byte[] get(String api, String key);
+
+  /**
+   * Offers the body of a successful response for storage.
+   *
+   * @param api The URL path of the API.
+   * @param key The canonical key of the request.
+   * @param body The body of the response, as UTF-8 JSON.
+   */
+  void put(String api, String key, byte[] body);
+}
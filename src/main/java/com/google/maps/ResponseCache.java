@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps;
+
+import com.google.maps.errors.ZeroResultsException;
+
+/**
+ * Stores parsed API results so that repeated requests can be answered without going to the network.
+ *
+ * <p>Results are keyed by a canonical form of the request: the API's URL path and its parameters
+ * in sorted order, without the API key, client ID or signature. A cache hit is returned to the
+ * caller as is, so results are shared between callers and must not be modified.
+ *
+ * <p>Implementations must be thread-safe.
+ *
+ * @see GeoApiContext.Builder#responseCache(ResponseCache)
+ * @see InMemoryResponseCache
+ */
+public interface ResponseCache {
+
+  /**
+   * Returns the result stored for a request.
+   *
+   * @param api The URL path of the API, such as {@code "/maps/api/geocode/json"}.
+   * @param key The canonical key of the request.
+   * @return The stored result, the {@link ZeroResultsException} stored by {@link #putNegative}, or
+   *     null if there is none.
+   */
+  Object get(String api, String key);
+
+  /**
+   * Offers the result of a successful request for storage. The cache may decline to store it.
+   *
+   * @param api The URL path of the API, such as {@code "/maps/api/geocode/json"}.
+   * @param key The canonical key of the request.
+   * @param result The parsed result.
+   * @param size The size of the response the result was parsed from, or -1 if it is not known.
+   */
+  void put(String api, String key, Object result, long size);
+
+  /**
+   * Offers the outcome of a request that found nothing, which a cache may keep for less time than
+   * other results, or not at all, as the default does. The outcome is either a result that is
+   * empty, such as a geocode with status {@code ZERO_RESULTS}, or the {@link ZeroResultsException}
+   * the request failed with, which {@link #get} then returns so that it is thrown again.
+   *
+   * @param api The URL path of the API, such as {@code "/maps/api/geocode/json"}.
+   * @param key The canonical key of the request.
+   * @param outcome The empty result or the exception.
+   * @param size The size of the response, or -1 if it is not known.
+   */
+  default void putNegative(String api, String key, Object outcome, long size) {}
+
+  /**
+   * Returns whether the result that {@link #get} just returned for a request is stale, and should
+   * be refreshed in the background while it is still served. A result that is refreshed is stored
+   * again with {@link #put}. Implementations should return true only once per stale result, so
+   * that each is refreshed by a single request.
+   *
+   * @param api The URL path of the API, such as {@code "/maps/api/geocode/json"}.
+   * @param key The canonical key of the request.
+   * @return Whether the caller should refresh the result. The default never does.
+   */
+  default boolean revalidate(String api, String key) {
+    return false;
+  }
+}
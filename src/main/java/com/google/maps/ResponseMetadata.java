@@ -0,0 +1,69 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps;
+
+/**
+ * What a request handler learned about the response a result was decoded from, which the response
+ * caches use to weigh and store the result. Handed back by pending results that implement {@link
+ * Provider}; results from handlers that don't are cached without it.
+ */
+public final class ResponseMetadata {
+
+  /** The metadata of a response nothing is known about. */
+  public static final ResponseMetadata UNKNOWN = new ResponseMetadata(-1, null, false);
+
+  private final long size;
+  private final byte[] body;
+  private final boolean zeroResults;
+
+  /**
+   * @param size The size of the response body in bytes, or -1 if it was not measured.
+   * @param body The body of the response, if the request's {@link RequestOptions#keepResponseBody}
+   *     asked for it, or null.
+   * @param zeroResults Whether the request succeeded without finding anything, as a status of
+   *     ZERO_RESULTS.
+   */
+  public ResponseMetadata(long size, byte[] body, boolean zeroResults) {
+    this.size = size;
+    this.body = body;
+    this.zeroResults = zeroResults;
+  }
+
+  /** Returns the size of the response body in bytes, or -1 if it was not measured. */
+  public long size() {
+    return size;
+  }
+
+  /** Returns the body of the response if it was kept, or null. The array must not be modified. */
+  public byte[] body() {
+    return body;
+  }
+
+  /** Returns whether the request succeeded without finding anything. */
+  public boolean zeroResults() {
+    return zeroResults;
+  }
+
+  /** Implemented by the pending results of request handlers that describe their responses. */
+  public interface Provider {
+
+    /**
+     * Returns the metadata of the response the result was decoded from. Only meaningful once the
+     * result has been delivered; null before then.
+     */
+    ResponseMetadata responseMetadata();
+  }
+}
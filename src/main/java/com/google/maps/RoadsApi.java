@@ -66,6 +66,34 @@ public class RoadsApi {
     return new SnapToRoadsApiRequest(context).path(path).interpolate(interpolate);
   }
 
+  /**
+   * Snaps a path of any length to roads. The path is sent as overlapping windows of up to 100
+   * points, a few at a time, and the snapped points of the windows are stitched back together.
+   *
+   * @param context The {@link GeoApiContext} to make requests through.
+   * @param interpolate Whether to interpolate a path to include all points forming the full
+   *     road-geometry.
+   * @param path The path to be snapped.
+   * @return Returns the {@code LongSnapToRoadsRequest} for call chaining.
+   */
+  public static LongSnapToRoadsRequest snapToRoadsLong(
+      GeoApiContext context, boolean interpolate, LatLng... path) {
+    return new LongSnapToRoadsRequest(context).path(path).interpolate(interpolate);
+  }
+
+  /**
+   * Creates a snapper for the positions of one vehicle, which snaps them to roads in windows as
+   * they arrive and hands the snapped points to {@code callback}.
+   *
+   * @param context The {@link GeoApiContext} to make requests through.
+   * @param callback Handed the snapped points of each window, or the failure of a window.
+   * @return Returns the {@code StreamingRoadSnapper}, to be given positions.
+   */
+  public static StreamingRoadSnapper newStreamingSnapper(
+      GeoApiContext context, PendingResult.Callback<SnappedPoint[]> callback) {
+    return new StreamingRoadSnapper(context, callback);
+  }
+
   /**
    * Returns the posted speed limit for given road segments. The provided LatLngs will first be
    * snapped to the most likely roads the vehicle was traveling along.
@@ -0,0 +1,344 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps;
+
+import com.google.maps.model.LatLng;
+import com.google.maps.model.SnappedPoint;
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Snaps the positions of one moving vehicle to roads as they arrive. Positions are buffered and
+ * sent to the Roads API in windows, either once enough have arrived to fill a window or once the
+ * oldest of them has waited long enough, and the snapped points are handed to a callback in the
+ * order the positions were added.
+ *
+ * <p>Each window starts with the last few positions of the window before it, so that the first new
+ * positions are snapped with the road the vehicle came along in view; only the snapped points of
+ * the new positions, and any points interpolated since the last of the old ones, are handed on.
+ * The {@link SnappedPoint#originalIndex} of a snapped point is the number of positions added before
+ * it.
+ *
+ * <p>A snapper holds at most a window's worth of old positions and a bounded number of new ones. If
+ * the API falls so far behind that the buffer fills up, the oldest unsent positions are dropped,
+ * and positions sent in a window that fails are dropped after the failure is reported; both are
+ * counted by {@link #getDroppedCount()}. Windows are sent one at a time.
+ *
+ * <pre>{@code
+ * StreamingRoadSnapper snapper =
+ *     RoadsApi.newStreamingSnapper(context, new PendingResult.Callback<SnappedPoint[]>() {...})
+ *         .maxAge(5, TimeUnit.SECONDS);
+ * // For every position reported by the vehicle:
+ * snapper.add(position);
+ * // When the trip ends:
+ * snapper.close();
+ * }</pre>
+ */
+public class StreamingRoadSnapper implements Closeable {
+
+  /** The number of positions sent per request by default. */
+  public static final int DEFAULT_WINDOW_SIZE = 100;
+
+  /** The number of already snapped positions each window starts with by default. */
+  public static final int DEFAULT_OVERLAP = 5;
+
+  /** How long, in seconds, a position waits to be sent at most by default. */
+  public static final long DEFAULT_MAX_AGE_SECONDS = 10;
+
+  /** The number of unsent positions buffered by default. */
+  public static final int DEFAULT_MAX_BUFFERED_POINTS = 1000;
+
+  private final GeoApiContext context;
+  private final PendingResult.Callback<SnappedPoint[]> callback;
+  private boolean interpolate;
+  private int windowSize = DEFAULT_WINDOW_SIZE;
+  private int overlap = DEFAULT_OVERLAP;
+  private long maxAgeNanos = TimeUnit.SECONDS.toNanos(DEFAULT_MAX_AGE_SECONDS);
+  private int maxBufferedPoints = DEFAULT_MAX_BUFFERED_POINTS;
+
+  // Guarded by this.
+  /** The last positions of the window most recently snapped. */
+  private final Deque<Fix> tail = new ArrayDeque<>();
+  /** Positions not yet sent, oldest first. */
+  private final Deque<Fix> fresh = new ArrayDeque<>();
+  private long added;
+  private long droppedCount;
+  private boolean sending;
+  private boolean flushRequested;
+  private boolean closed;
+  private ScheduledFuture<?> timer;
+
+  /**
+   * @param context The {@link GeoApiContext} to make requests through.
+   * @param callback Handed the snapped points of each window, or the failure of a window.
+   */
+  public StreamingRoadSnapper(
+      GeoApiContext context, PendingResult.Callback<SnappedPoint[]> callback) {
+    this.context = context;
+    this.callback = callback;
+  }
+
+  /**
+   * Whether to interpolate the path to include all points forming the full road geometry.
+   *
+   * @param interpolate Whether to hand on interpolated points.
+   * @return Returns this snapper for call chaining.
+   */
+  public synchronized StreamingRoadSnapper interpolate(boolean interpolate) {
+    this.interpolate = interpolate;
+    return this;
+  }
+
+  /**
+   * Sets the size of the windows sent.
+   *
+   * @param windowSize The most positions sent in one request.
+   * @param overlap The number of already snapped positions each window starts with, less than
+   *     {@code windowSize}.
+   * @return Returns this snapper for call chaining.
+   */
+  public synchronized StreamingRoadSnapper windowLimits(int windowSize, int overlap) {
+    if (windowSize < 2 || overlap < 0 || overlap >= windowSize) {
+      throw new IllegalArgumentException(
+          "windowSize must be at least 2 and overlap between 0 and windowSize - 1");
+    }
+    this.windowSize = windowSize;
+    this.overlap = overlap;
+    return this;
+  }
+
+  /**
+   * Sets how long a position may wait for enough others to fill a window before it is sent anyway.
+   *
+   * @param maxAge The longest wait.
+   * @param unit The unit of {@code maxAge}.
+   * @return Returns this snapper for call chaining.
+   */
+  public synchronized StreamingRoadSnapper maxAge(long maxAge, TimeUnit unit) {
+    if (maxAge <= 0) {
+      throw new IllegalArgumentException("maxAge must be positive");
+    }
+    this.maxAgeNanos = unit.toNanos(maxAge);
+    return this;
+  }
+
+  /**
+   * Sets how many unsent positions are buffered before the oldest are dropped.
+   *
+   * @param maxBufferedPoints The most unsent positions, at least 1.
+   * @return Returns this snapper for call chaining.
+   */
+  public synchronized StreamingRoadSnapper maxBufferedPoints(int maxBufferedPoints) {
+    if (maxBufferedPoints < 1) {
+      throw new IllegalArgumentException("maxBufferedPoints must be at least 1");
+    }
+    this.maxBufferedPoints = maxBufferedPoints;
+    return this;
+  }
+
+  /**
+   * Adds the vehicle's latest position.
+   *
+   * @param position Where the vehicle is now.
+   * @throws IllegalStateException If the snapper has been closed.
+   */
+  public void add(LatLng position) {
+    synchronized (this) {
+      if (closed) {
+        throw new IllegalStateException("The snapper has been closed");
+      }
+      if (fresh.size() == maxBufferedPoints) {
+        fresh.poll();
+        droppedCount++;
+      }
+      fresh.add(new Fix(position, added++, System.nanoTime()));
+    }
+    sendIfDue();
+  }
+
+  /** Sends the buffered positions now, without waiting to fill a window. */
+  public void flush() {
+    synchronized (this) {
+      flushRequested = !fresh.isEmpty();
+    }
+    sendIfDue();
+  }
+
+  /**
+   * Sends the buffered positions and stops accepting new ones. The snapped points of the last
+   * windows are still handed to the callback once they arrive.
+   */
+  @Override
+  public void close() {
+    synchronized (this) {
+      closed = true;
+    }
+    flush();
+  }
+
+  /** Returns the number of positions added so far. */
+  public synchronized long getAddedCount() {
+    return added;
+  }
+
+  /** Returns the number of positions that were dropped without being snapped. */
+  public synchronized long getDroppedCount() {
+    return droppedCount;
+  }
+
+  /**
+   * Sends a window of the buffered positions if none is in flight and there are enough of them,
+   * they are old enough or a flush was asked for; otherwise sets a timer for when the oldest will
+   * be old enough.
+   */
+  private void sendIfDue() {
+    final Fix[] window;
+    final int oldCount;
+    final SnapToRoadsApiRequest request;
+    synchronized (this) {
+      if (sending || fresh.isEmpty()) {
+        return;
+      }
+      int batch = windowSize - tail.size();
+      long waitNanos = fresh.peek().addedNanos + maxAgeNanos - System.nanoTime();
+      if (fresh.size() < batch && waitNanos > 0 && !flushRequested) {
+        if (timer != null) {
+          return;
+        }
+        try {
+          timer = context.scheduler().schedule(this::onTimer, waitNanos, TimeUnit.NANOSECONDS);
+          return;
+        } catch (RejectedExecutionException e) {
+          // The context is shut down; sending now hands its failure to the callback.
+        }
+      }
+      if (timer != null) {
+        timer.cancel(false);
+        timer = null;
+      }
+      oldCount = tail.size();
+      window = new Fix[oldCount + Math.min(batch, fresh.size())];
+      int i = 0;
+      for (Fix fix : tail) {
+        window[i++] = fix;
+      }
+      while (i < window.length) {
+        window[i++] = fresh.poll();
+      }
+      flushRequested &= !fresh.isEmpty();
+      LatLng[] path = new LatLng[window.length];
+      for (i = 0; i < window.length; i++) {
+        path[i] = window[i].position;
+      }
+      request = RoadsApi.snapToRoads(context, interpolate, path);
+      sending = true;
+    }
+    CompletableFuture<SnappedPoint[]> future;
+    try {
+      future = request.toCompletableFuture();
+    } catch (RuntimeException e) {
+      onWindowDone(window, oldCount, null, e);
+      return;
+    }
+    future.whenComplete((points, error) -> onWindowDone(window, oldCount, points, error));
+  }
+
+  private void onTimer() {
+    synchronized (this) {
+      timer = null;
+    }
+    sendIfDue();
+  }
+
+  private void onWindowDone(Fix[] window, int oldCount, SnappedPoint[] points, Throwable error) {
+    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+    SnappedPoint[] snapped = null;
+    synchronized (this) {
+      if (cause == null) {
+        snapped = snappedSinceTail(window, oldCount, points);
+        tail.clear();
+        for (int i = Math.max(0, window.length - overlap); i < window.length; i++) {
+          tail.add(window[i]);
+        }
+      } else {
+        droppedCount += window.length - oldCount;
+      }
+    }
+    // Handed on before the next window is sent, so the callback sees windows in order.
+    if (cause != null) {
+      callback.onFailure(cause);
+    } else if (snapped.length > 0) {
+      try {
+        callback.onResult(snapped);
+      } catch (Exception e) {
+        callback.onFailure(e);
+      }
+    }
+    synchronized (this) {
+      sending = false;
+    }
+    sendIfDue();
+  }
+
+  /**
+   * Returns the snapped points of the new positions of a window, and those interpolated after the
+   * last of its old positions, with original indices rewritten to count every position added.
+   */
+  private static SnappedPoint[] snappedSinceTail(
+      Fix[] window, int oldCount, SnappedPoint[] points) {
+    if (points == null) {
+      return new SnappedPoint[0];
+    }
+    List<SnappedPoint> kept = new ArrayList<>(points.length);
+    // An interpolated point belongs to the position before it.
+    int owner = -1;
+    for (SnappedPoint point : points) {
+      boolean original = point.originalIndex >= 0 && point.originalIndex < window.length;
+      if (original) {
+        owner = point.originalIndex;
+      }
+      if (original ? owner >= oldCount : owner >= oldCount - 1) {
+        SnappedPoint copy = new SnappedPoint();
+        copy.location = point.location;
+        copy.placeId = point.placeId;
+        copy.originalIndex = original ? (int) window[owner].index : -1;
+        kept.add(copy);
+      }
+    }
+    return kept.toArray(new SnappedPoint[0]);
+  }
+
+  /** A position and when it was added. */
+  private static final class Fix {
+    final LatLng position;
+    final long index;
+    final long addedNanos;
+
+    Fix(LatLng position, long index, long addedNanos) {
+      this.position = position;
+      this.index = index;
+      this.addedNanos = addedNanos;
+    }
+  }
+}
@@ -192,6 +192,11 @@ public class TextSearchRequest
       return "OK".equals(status) || "ZERO_RESULTS".equals(status);
     }
 
+    @Override
+    public boolean zeroResults() {
+      return "ZERO_RESULTS".equals(status);
+    }
+
     @Override
     public PlacesSearchResponse getResult() {
       PlacesSearchResponse result = new PlacesSearchResponse();
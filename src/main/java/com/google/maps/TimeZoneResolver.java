@@ -0,0 +1,254 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.maps.internal.CachingPendingResult;
+import com.google.maps.internal.CompletedPendingResult;
+import com.google.maps.internal.Geohash;
+import com.google.maps.model.LatLng;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resolves time zones locally where earlier answers from the Time Zone API show that an area lies
+ * in a single zone, and asks the API only where it does not know, such as near zone boundaries.
+ *
+ * <p>Every answer from the API is recorded against the geohash cells containing the location, at
+ * each precision from the coarsest to the finest configured. A cell whose recorded answers all
+ * agree, and that has at least the configured number of them, answers lookups within it without a
+ * request. A cell with conflicting answers has a boundary inside it, so lookups fall through to its
+ * finer cells, and at the finest precision to the API.
+ *
+ * <p>The index is learned, not authoritative: a zone boundary that crosses a corner of a cell where
+ * no location has been looked up yet goes unnoticed. Requiring more answers per cell, or a finer
+ * coarsest precision, makes that less likely at the cost of more requests. The index can be saved
+ * and loaded, so that it does not have to be learned again on each start.
+ *
+ * <pre>{@code
+ * TimeZoneResolver resolver = new TimeZoneResolver(context);
+ * resolver.load(indexFile);
+ * TimeZone zone = resolver.getTimeZone(location).await();
+ * ...
+ * resolver.save(indexFile);
+ * }</pre>
+ */
+public class TimeZoneResolver {
+
+  /** The coarsest cells used by default, which are about 39 km across. */
+  public static final int DEFAULT_MIN_PRECISION = 4;
+
+  /** The finest cells used by default, which are about 153 m across. */
+  public static final int DEFAULT_MAX_PRECISION = 7;
+
+  /** The number of agreeing answers a cell needs by default before it answers by itself. */
+  public static final int DEFAULT_MIN_ANSWERS = 3;
+
+  /** Marks a cell that holds more than one zone. */
+  private static final String MIXED = "-";
+
+  private final GeoApiContext context;
+  private final int minPrecision;
+  private final int maxPrecision;
+  private final int minAnswers;
+  private final Map<String, Cell> cells = new ConcurrentHashMap<>();
+  private final LongAdder localCount = new LongAdder();
+  private final LongAdder requestCount = new LongAdder();
+
+  /**
+   * Creates a resolver with the default cell sizes and number of answers.
+   *
+   * @param context The {@link GeoApiContext} to make requests through.
+   */
+  public TimeZoneResolver(GeoApiContext context) {
+    this(context, DEFAULT_MIN_PRECISION, DEFAULT_MAX_PRECISION, DEFAULT_MIN_ANSWERS);
+  }
+
+  /**
+   * @param context The {@link GeoApiContext} to make requests through.
+   * @param minPrecision The geohash precision of the largest cells that may answer a lookup.
+   * @param maxPrecision The geohash precision of the smallest cells that may answer a lookup; in
+   *     cells this size that hold more than one zone, every lookup is sent to the API.
+   * @param minAnswers The number of agreeing answers from the API a cell needs before it answers
+   *     lookups by itself.
+   */
+  public TimeZoneResolver(
+      GeoApiContext context, int minPrecision, int maxPrecision, int minAnswers) {
+    if (minPrecision < 1 || maxPrecision > Geohash.MAX_PRECISION || minPrecision > maxPrecision) {
+      throw new IllegalArgumentException(
+          "precisions must satisfy 1 <= minPrecision <= maxPrecision <= " + Geohash.MAX_PRECISION);
+    }
+    if (minAnswers < 1) {
+      throw new IllegalArgumentException("minAnswers must be positive");
+    }
+    this.context = context;
+    this.minPrecision = minPrecision;
+    this.maxPrecision = maxPrecision;
+    this.minAnswers = minAnswers;
+  }
+
+  /**
+   * Retrieves the {@link TimeZone} for the given location, from the index if it knows the zone of
+   * the location's cell, or else from the Time Zone API, whose answer is then added to the index.
+   *
+   * @param location The location for which to retrieve a time zone.
+   * @return Returns the time zone as a {@link PendingResult}.
+   */
+  public PendingResult<TimeZone> getTimeZone(final LatLng location) {
+    String zoneId = lookUp(location);
+    if (zoneId != null) {
+      localCount.increment();
+      return new CompletedPendingResult<>(TimeZone.getTimeZone(zoneId));
+    }
+    requestCount.increment();
+    return new CachingPendingResult<>(
+        TimeZoneApi.getTimeZone(context, location),
+        zone -> {
+          if (zone != null) {
+            learn(location, zone.getID());
+          }
+        });
+  }
+
+  /**
+   * Returns the zone of the location's cell, or null if the index does not know it.
+   *
+   * @param location The location to look up.
+   * @return The zone ID, such as {@code "Australia/Sydney"}, or null.
+   */
+  public String lookUp(LatLng location) {
+    String hash = Geohash.encode(location.lat, location.lng, maxPrecision);
+    for (int precision = minPrecision; precision <= maxPrecision; precision++) {
+      Cell cell = cells.get(hash.substring(0, precision));
+      if (cell == null) {
+        return null;
+      }
+      String zoneId = cell.zoneId;
+      if (zoneId == null) {
+        return null;
+      }
+      if (!MIXED.equals(zoneId)) {
+        // Finer cells have no more answers than this one, so if it is short of them, so are they.
+        return cell.answers >= minAnswers ? zoneId : null;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Records the zone of a location, as answered by the API or known from elsewhere.
+   *
+   * @param location The location.
+   * @param zoneId The ID of its zone, such as {@code "Australia/Sydney"}.
+   */
+  public void learn(LatLng location, String zoneId) {
+    String hash = Geohash.encode(location.lat, location.lng, maxPrecision);
+    for (int precision = minPrecision; precision <= maxPrecision; precision++) {
+      record(hash.substring(0, precision), zoneId, 1);
+    }
+  }
+
+  private void record(String cell, String zoneId, int answers) {
+    cells.computeIfAbsent(cell, c -> new Cell()).record(zoneId, answers);
+  }
+
+  /**
+   * Writes the index to a file, replacing the file once it has been written in full.
+   *
+   * @param file The file to write.
+   * @throws IOException If the file cannot be written.
+   */
+  public void save(Path file) throws IOException {
+    Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+    try (BufferedWriter out = Files.newBufferedWriter(temp, UTF_8)) {
+      for (Map.Entry<String, Cell> entry : cells.entrySet()) {
+        Cell cell = entry.getValue();
+        String zoneId;
+        int answers;
+        synchronized (cell) {
+          zoneId = cell.zoneId;
+          answers = cell.answers;
+        }
+        out.write(entry.getKey() + "\t" + zoneId + "\t" + answers);
+        out.newLine();
+      }
+    }
+    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Adds the index saved in a file to this one. Cells outside the precisions this resolver uses
+   * are skipped.
+   *
+   * @param file The file written by {@link #save}.
+   * @throws IOException If the file cannot be read or is not an index.
+   */
+  public void load(Path file) throws IOException {
+    try (BufferedReader in = Files.newBufferedReader(file, UTF_8)) {
+      String line;
+      while ((line = in.readLine()) != null) {
+        String[] fields = line.split("\t");
+        if (fields.length != 3) {
+          throw new IOException("Not a time zone index: " + file);
+        }
+        int answers;
+        try {
+          answers = Integer.parseInt(fields[2]);
+        } catch (NumberFormatException e) {
+          throw new IOException("Not a time zone index: " + file, e);
+        }
+        if (fields[0].length() >= minPrecision && fields[0].length() <= maxPrecision) {
+          record(fields[0], fields[1], answers);
+        }
+      }
+    }
+  }
+
+  /** Returns how many lookups were answered from the index. */
+  public long getLocalCount() {
+    return localCount.sum();
+  }
+
+  /** Returns how many lookups were sent to the Time Zone API. */
+  public long getRequestCount() {
+    return requestCount.sum();
+  }
+
+  private static final class Cell {
+    /** The one zone answered within this cell, or {@link #MIXED}. */
+    volatile String zoneId;
+
+    volatile int answers;
+
+    synchronized void record(String zoneId, int answers) {
+      if (this.zoneId == null) {
+        this.zoneId = zoneId;
+      } else if (!this.zoneId.equals(zoneId)) {
+        this.zoneId = MIXED;
+      }
+      this.answers += answers;
+    }
+  }
+}
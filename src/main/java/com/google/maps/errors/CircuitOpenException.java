@@ -0,0 +1,31 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps.errors;
+
+import java.io.IOException;
+
+/**
+ * Indicates that a request was not sent because too many recent requests to the same API endpoint
+ * failed, and the circuit breaker guarding it is open.
+ */
+public class CircuitOpenException extends IOException {
+
+  private static final long serialVersionUID = -3402719184357510326L;
+
+  public CircuitOpenException(String message) {
+    super(message);
+  }
+}
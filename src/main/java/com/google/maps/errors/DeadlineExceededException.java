@@ -0,0 +1,34 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps.errors;
+
+import java.io.InterruptedIOException;
+
+/**
+ * Indicates that a request's deadline passed before it could complete, whether it was waiting for
+ * its rate limit, on the wire, or backing off between retries.
+ */
+public class DeadlineExceededException extends InterruptedIOException {
+
+  private static final long serialVersionUID = -2302785140524371512L;
+
+  public DeadlineExceededException(String message, Throwable cause) {
+    super(message);
+    if (cause != null) {
+      initCause(cause);
+    }
+  }
+}
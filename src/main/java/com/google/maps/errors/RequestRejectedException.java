@@ -0,0 +1,31 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps.errors;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Indicates that a request was not sent because the client's request queue was full, or because
+ * the request would have waited in it for longer than allowed.
+ */
+public class RequestRejectedException extends RejectedExecutionException {
+
+  private static final long serialVersionUID = 5118246870839165376L;
+
+  public RequestRejectedException(String message) {
+    super(message);
+  }
+}
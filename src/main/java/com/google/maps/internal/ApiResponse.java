@@ -24,4 +24,12 @@ public interface ApiResponse<T> {
   T getResult();
 
   ApiException getError();
+
+  /**
+   * Returns whether this is a successful response that found nothing, such as a geocode with
+   * status {@code ZERO_RESULTS}.
+   */
+  default boolean zeroResults() {
+    return false;
+  }
 }
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps.internal;
+
+import com.google.maps.PendingResult;
+import com.google.maps.ResponseMetadata;
+import com.google.maps.errors.ApiException;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A PendingResult that hands its result to a cache if the request succeeds, and optionally the
+ * API error it fails with. The cache is also given the {@link ResponseMetadata} of the response,
+ * if the delegate is a {@link ResponseMetadata.Provider}. A cache that throws is logged and
+ * otherwise ignored, so it never turns a request's outcome into another.
+ */
+public class CachingPendingResult<T> implements PendingResult<T>, ResponseMetadata.Provider {
+  private static final Logger LOG = LoggerFactory.getLogger(CachingPendingResult.class.getName());
+
+  private final PendingResult<T> delegate;
+  private final BiConsumer<T, ResponseMetadata> cache;
+  private final Consumer<ApiException> cacheError;
+
+  /**
+   * @param delegate The pending result of the request.
+   * @param cache Called with the result once the request succeeds.
+   */
+  public CachingPendingResult(PendingResult<T> delegate, Consumer<T> cache) {
+    this(delegate, (result, response) -> cache.accept(result), e -> {});
+  }
+
+  /**
+   * @param delegate The pending result of the request.
+   * @param cache Called with the result and the metadata of its response once the request
+   *     succeeds. The metadata is {@link ResponseMetadata#UNKNOWN} if the delegate gives none.
+   * @param cacheError Called with the error if the request fails with an {@link ApiException}.
+   */
+  public CachingPendingResult(
+      PendingResult<T> delegate,
+      BiConsumer<T, ResponseMetadata> cache,
+      Consumer<ApiException> cacheError) {
+    this.delegate = delegate;
+    this.cache = cache;
+    this.cacheError = cacheError;
+  }
+
+  @Override
+  public void setCallback(final Callback<T> callback) {
+    delegate.setCallback(
+        new Callback<T>() {
+          @Override
+          public void onResult(T result) {
+            store(result);
+            callback.onResult(result);
+          }
+
+          @Override
+          public void onFailure(Throwable e) {
+            if (e instanceof ApiException) {
+              storeError((ApiException) e);
+            }
+            callback.onFailure(e);
+          }
+        });
+  }
+
+  @Override
+  public T await() throws ApiException, InterruptedException, IOException {
+    T result;
+    try {
+      result = delegate.await();
+    } catch (ApiException e) {
+      storeError(e);
+      throw e;
+    }
+    store(result);
+    return result;
+  }
+
+  @Override
+  public T awaitIgnoreError() {
+    try {
+      return await();
+    } catch (Exception e) {
+      return null;
+    }
+  }
+
+  @Override
+  public ResponseMetadata responseMetadata() {
+    return delegate instanceof ResponseMetadata.Provider
+        ? ((ResponseMetadata.Provider) delegate).responseMetadata()
+        : null;
+  }
+
+  private void store(T result) {
+    ResponseMetadata response = responseMetadata();
+    try {
+      cache.accept(result, response != null ? response : ResponseMetadata.UNKNOWN);
+    } catch (RuntimeException e) {
+      LOG.warn("Could not cache the result of a request", e);
+    }
+  }
+
+  private void storeError(ApiException error) {
+    try {
+      cacheError.accept(error);
+    } catch (RuntimeException e) {
+      LOG.warn("Could not cache the error of a request", e);
+    }
+  }
+
+  @Override
+  public void cancel() {
+    delegate.cancel();
+  }
+
+  @Override
+  public CompletableFuture<T> toCompletableFuture() {
+    CompletableFuture<T> future = delegate.toCompletableFuture();
+    future.whenComplete(
+        (result, e) -> {
+          Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+          if (cause == null) {
+            store(result);
+          } else if (cause instanceof ApiException) {
+            storeError((ApiException) cause);
+          }
+        });
+    return future;
+  }
+}
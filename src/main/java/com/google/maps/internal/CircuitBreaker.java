@@ -0,0 +1,183 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps.internal;
+
+import com.google.maps.CircuitState;
+import com.google.maps.internal.ratelimiter.Ticker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fails requests to an API endpoint fast while the endpoint is degraded, rather than letting each
+ * of them retry with backoff until it times out.
+ *
+ * <p>While {@link CircuitState#CLOSED CLOSED}, the breaker tracks whether each of the endpoint's
+ * most recent requests failed. Once the window is full and the failure rate reaches the threshold,
+ * the circuit opens and every request is refused for the open duration. It then goes {@link
+ * CircuitState#HALF_OPEN HALF_OPEN} and lets a trickle of {@link #PROBES} requests through: if
+ * they all succeed the circuit closes again, and if any of them fails it reopens.
+ *
+ * <p>Every permit carries the generation of the circuit it was taken in, which changes on every
+ * state change, so the outcome of a request sent before the circuit last changed state is ignored.
+ */
+public final class CircuitBreaker {
+
+  /** How many requests are let through, and must succeed, while half-open. */
+  static final int PROBES = 3;
+
+  private static final Logger LOG = LoggerFactory.getLogger(CircuitBreaker.class.getName());
+
+  private final String endpoint;
+  private final double failureRateThreshold;
+  private final long openNanos;
+  private final Ticker ticker;
+  private final CircuitBreakerRegistry registry;
+
+  /** Whether each of the most recent requests failed, as a ring buffer. */
+  private final boolean[] failed;
+
+  private volatile CircuitState state = CircuitState.CLOSED;
+  private volatile long generation;
+  private int recorded;
+  private int next;
+  private int failures;
+  private long openedAtNanos;
+  private int probesSent;
+  private int probesSucceeded;
+
+  CircuitBreaker(
+      String endpoint,
+      double failureRateThreshold,
+      int windowSize,
+      long openNanos,
+      Ticker ticker,
+      CircuitBreakerRegistry registry) {
+    this.endpoint = endpoint;
+    this.failureRateThreshold = failureRateThreshold;
+    this.failed = new boolean[windowSize];
+    this.openNanos = openNanos;
+    this.ticker = ticker;
+    this.registry = registry;
+  }
+
+  /** Returns the current state of the circuit. */
+  public CircuitState state() {
+    return state;
+  }
+
+  /**
+   * Asks to send a request.
+   *
+   * @return The permit to report the request's outcome with, or -1 if the circuit refuses the
+   *     request.
+   */
+  public long tryAcquire() {
+    if (state == CircuitState.CLOSED) {
+      // The common case needs no lock; a stale read at worst lets one more request through.
+      return generation;
+    }
+    synchronized (this) {
+      if (state == CircuitState.OPEN) {
+        if (ticker.read() - openedAtNanos < openNanos) {
+          return -1;
+        }
+        transition(CircuitState.HALF_OPEN);
+      }
+      if (state == CircuitState.HALF_OPEN) {
+        if (probesSent >= PROBES) {
+          return -1;
+        }
+        probesSent++;
+      }
+      return generation;
+    }
+  }
+
+  /** Reports that the request sent with {@code permit} got a healthy response. */
+  public synchronized void onSuccess(long permit) {
+    if (permit != generation) {
+      return;
+    }
+    if (state == CircuitState.HALF_OPEN) {
+      if (++probesSucceeded >= PROBES) {
+        transition(CircuitState.CLOSED);
+      }
+    } else if (state == CircuitState.CLOSED) {
+      record(false);
+    }
+  }
+
+  /** Reports that the request sent with {@code permit} failed. */
+  public synchronized void onFailure(long permit) {
+    if (permit != generation) {
+      return;
+    }
+    if (state == CircuitState.HALF_OPEN) {
+      transition(CircuitState.OPEN);
+    } else if (state == CircuitState.CLOSED) {
+      record(true);
+    }
+  }
+
+  /**
+   * Reports that the request sent with {@code permit} ended without telling anything about the
+   * endpoint's health, for example because it was canceled, so that a probe can take its place.
+   */
+  public synchronized void onIgnored(long permit) {
+    if (permit == generation && state == CircuitState.HALF_OPEN && probesSent > 0) {
+      probesSent--;
+    }
+  }
+
+  private void record(boolean failure) {
+    if (recorded == failed.length) {
+      if (failed[next]) {
+        failures--;
+      }
+    } else {
+      recorded++;
+    }
+    failed[next] = failure;
+    if (failure) {
+      failures++;
+    }
+    next = (next + 1) % failed.length;
+    if (recorded == failed.length && failures >= failureRateThreshold * recorded) {
+      transition(CircuitState.OPEN);
+    }
+  }
+
+  private void transition(CircuitState newState) {
+    LOG.info(String.format("Circuit for %s is now %s", endpoint, newState));
+    generation++;
+    state = newState;
+    switch (newState) {
+      case OPEN:
+        openedAtNanos = ticker.read();
+        break;
+      case HALF_OPEN:
+        probesSent = 0;
+        probesSucceeded = 0;
+        break;
+      case CLOSED:
+        recorded = 0;
+        next = 0;
+        failures = 0;
+        break;
+    }
+    registry.stateChanged(endpoint, newState);
+  }
+}
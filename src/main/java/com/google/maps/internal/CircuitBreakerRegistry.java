@@ -0,0 +1,91 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps.internal;
+
+import com.google.maps.CircuitState;
+import com.google.maps.internal.ratelimiter.Ticker;
+import com.google.maps.metrics.NoOpRequestMetricsReporter;
+import com.google.maps.metrics.RequestMetricsReporter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/** The circuit breakers of one request handler, one per API endpoint, sharing their settings. */
+public final class CircuitBreakerRegistry {
+
+  private final double failureRateThreshold;
+  private final int windowSize;
+  private final long openNanos;
+  private final Ticker ticker;
+  private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+  private volatile RequestMetricsReporter requestMetricsReporter =
+      new NoOpRequestMetricsReporter();
+
+  /**
+   * @param failureRateThreshold The fraction, greater than 0 and at most 1, of failed requests in
+   *     the window that opens a circuit.
+   * @param windowSize How many of an endpoint's most recent requests the failure rate is taken
+   *     over.
+   * @param openDuration How long a circuit stays open before it is probed.
+   * @param unit The unit of {@code openDuration}.
+   */
+  public CircuitBreakerRegistry(
+      double failureRateThreshold, int windowSize, long openDuration, TimeUnit unit) {
+    this(failureRateThreshold, windowSize, openDuration, unit, Ticker.systemTicker());
+  }
+
+  CircuitBreakerRegistry(
+      double failureRateThreshold,
+      int windowSize,
+      long openDuration,
+      TimeUnit unit,
+      Ticker ticker) {
+    if (!(failureRateThreshold > 0 && failureRateThreshold <= 1)) {
+      throw new IllegalArgumentException("failureRateThreshold must be in (0, 1]");
+    }
+    if (windowSize < 1) {
+      throw new IllegalArgumentException("windowSize must be positive");
+    }
+    if (openDuration <= 0) {
+      throw new IllegalArgumentException("openDuration must be positive");
+    }
+    this.failureRateThreshold = failureRateThreshold;
+    this.windowSize = windowSize;
+    this.openNanos = unit.toNanos(openDuration);
+    this.ticker = ticker;
+  }
+
+  /** Sets where circuit state changes are reported. */
+  public void setRequestMetricsReporter(RequestMetricsReporter requestMetricsReporter) {
+    this.requestMetricsReporter = requestMetricsReporter;
+  }
+
+  /**
+   * Returns the circuit breaker for an API endpoint, creating it on first use.
+   *
+   * @param endpoint The URL path of the endpoint.
+   */
+  public CircuitBreaker forEndpoint(String endpoint) {
+    return breakers.computeIfAbsent(
+        endpoint,
+        e -> new CircuitBreaker(e, failureRateThreshold, windowSize, openNanos, ticker, this));
+  }
+
+  void stateChanged(String endpoint, CircuitState state) {
+    requestMetricsReporter.circuitStateChanged(endpoint, state);
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps.internal;
+
+import com.google.maps.PendingResult;
+import com.google.maps.errors.ApiException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A PendingResult for an outcome that is already at hand, such as one found in a cache: either a
+ * result or the API error the request failed with.
+ */
+public class CompletedPendingResult<T> implements PendingResult<T> {
+  private final T result;
+  private final ApiException error;
+
+  public CompletedPendingResult(T result) {
+    this(result, null);
+  }
+
+  private CompletedPendingResult(T result, ApiException error) {
+    this.result = result;
+    this.error = error;
+  }
+
+  /** Returns a PendingResult for a request that failed with {@code error}. */
+  public static <T> CompletedPendingResult<T> failed(ApiException error) {
+    return new CompletedPendingResult<>(null, error);
+  }
+
+  @Override
+  public void setCallback(Callback<T> callback) {
+    if (error != null) {
+      callback.onFailure(error);
+      return;
+    }
+    try {
+      callback.onResult(result);
+    } catch (Exception e) {
+      callback.onFailure(e);
+    }
+  }
+
+  @Override
+  public T await() throws ApiException {
+    if (error != null) {
+      throw error;
+    }
+    return result;
+  }
+
+  @Override
+  public T awaitIgnoreError() {
+    return result;
+  }
+
+  @Override
+  public void cancel() {}
+
+  @Override
+  public CompletableFuture<T> toCompletableFuture() {
+    if (error != null) {
+      CompletableFuture<T> future = new CompletableFuture<>();
+      future.completeExceptionally(error);
+      return future;
+    }
+    return CompletableFuture.completedFuture(result);
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps.internal;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts dispatched requests in one-second buckets over the last {@link #WINDOW_SECONDS} seconds.
+ *
+ * <p>Each bucket packs the second it belongs to and its count into a single {@code long}, so a
+ * bucket is reset and incremented with one compare-and-set and concurrent recorders never lose a
+ * count.
+ */
+final class DispatchCounter {
+
+  static final int WINDOW_SECONDS = 60;
+
+  private static final long COUNT_MASK = 0xFFFFFFFFL;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(WINDOW_SECONDS);
+  private final LongAdder total = new LongAdder();
+
+  void record(long epochSecond) {
+    total.increment();
+    int index = (int) Math.floorMod(epochSecond, (long) WINDOW_SECONDS);
+    long stamp = epochSecond << 32;
+    while (true) {
+      long bucket = buckets.get(index);
+      long updated = (bucket & ~COUNT_MASK) == stamp ? bucket + 1 : stamp | 1;
+      if (buckets.compareAndSet(index, bucket, updated)) {
+        return;
+      }
+    }
+  }
+
+  long total() {
+    return total.sum();
+  }
+
+  /**
+   * Returns the per-second counts, most recent first: index 0 is {@code epochSecond} itself, index
+   * 1 the second before it, and so on.
+   */
+  long[] perSecond(long epochSecond) {
+    long[] counts = new long[WINDOW_SECONDS];
+    for (int i = 0; i < WINDOW_SECONDS; i++) {
+      long second = epochSecond - i;
+      long bucket = buckets.get((int) Math.floorMod(second, (long) WINDOW_SECONDS));
+      if ((bucket & ~COUNT_MASK) == second << 32) {
+        counts[i] = bucket & COUNT_MASK;
+      }
+    }
+    return counts;
+  }
+}
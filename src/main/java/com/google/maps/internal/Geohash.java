@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps.internal;
+
+/**
+ * Encodes locations as geohashes: strings naming a cell of a grid over the globe, where each
+ * character added splits the cell 32 ways, so that nearby locations share a prefix.
+ */
+public final class Geohash {
+
+  /** The longest geohash encoded, whose cells are a few centimeters across. */
+  public static final int MAX_PRECISION = 12;
+
+  private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+
+  private Geohash() {}
+
+  /**
+   * Returns the geohash of the cell containing a location.
+   *
+   * @param lat The latitude, in degrees.
+   * @param lng The longitude, in degrees.
+   * @param precision The number of characters, from 1 to {@link #MAX_PRECISION}.
+   * @return The geohash.
+   */
+  public static String encode(double lat, double lng, int precision) {
+    if (precision < 1 || precision > MAX_PRECISION) {
+      throw new IllegalArgumentException("precision must be between 1 and " + MAX_PRECISION);
+    }
+    double minLat = -90;
+    double maxLat = 90;
+    double minLng = -180;
+    double maxLng = 180;
+    StringBuilder hash = new StringBuilder(precision);
+    boolean splitLng = true;
+    int bits = 0;
+    int value = 0;
+    while (hash.length() < precision) {
+      value <<= 1;
+      if (splitLng) {
+        double mid = (minLng + maxLng) / 2;
+        if (lng >= mid) {
+          value |= 1;
+          minLng = mid;
+        } else {
+          maxLng = mid;
+        }
+      } else {
+        double mid = (minLat + maxLat) / 2;
+        if (lat >= mid) {
+          value |= 1;
+          minLat = mid;
+        } else {
+          maxLat = mid;
+        }
+      }
+      splitLng = !splitLng;
+      if (++bits == 5) {
+        hash.append(BASE32[value]);
+        bits = 0;
+        value = 0;
+      }
+    }
+    return hash.toString();
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps.internal;
+
+/**
+ * Great-circle distances on a spherical Earth, computed over arrays of coordinates so that ranking
+ * thousands of candidates costs no allocation per candidate.
+ */
+public final class GreatCircle {
+
+  /** The mean radius of the Earth, in meters. */
+  public static final double EARTH_RADIUS_METERS = 6371008.8;
+
+  private GreatCircle() {}
+
+  /**
+   * Returns the haversine distance from one point to each of many.
+   *
+   * @param lat The latitude of the point to measure from, in degrees.
+   * @param lng The longitude of the point to measure from, in degrees.
+   * @param lats The latitudes of the points to measure to, in degrees.
+   * @param lngs The longitudes of the points to measure to, in degrees.
+   * @return The distances, in meters, in the order of {@code lats} and {@code lngs}.
+   */
+  public static double[] distances(double lat, double lng, double[] lats, double[] lngs) {
+    if (lats.length != lngs.length) {
+      throw new IllegalArgumentException("lats and lngs must have the same length");
+    }
+    double phi = Math.toRadians(lat);
+    double cosPhi = Math.cos(phi);
+    double lambda = Math.toRadians(lng);
+    double[] distances = new double[lats.length];
+    for (int i = 0; i < lats.length; i++) {
+      double phi2 = Math.toRadians(lats[i]);
+      double sinDeltaPhi = Math.sin((phi2 - phi) / 2);
+      double sinDeltaLambda = Math.sin((Math.toRadians(lngs[i]) - lambda) / 2);
+      double h =
+          sinDeltaPhi * sinDeltaPhi + cosPhi * Math.cos(phi2) * sinDeltaLambda * sinDeltaLambda;
+      distances[i] = 2 * EARTH_RADIUS_METERS * Math.asin(Math.sqrt(Math.min(1, h)));
+    }
+    return distances;
+  }
+
+  /**
+   * Returns the indices of the smallest distances, nearest first.
+   *
+   * @param distances The distances to choose from.
+   * @param count How many to choose; all of them if there are fewer.
+   * @return The indices into {@code distances}.
+   */
+  public static int[] nearest(double[] distances, int count) {
+    int size = Math.min(count, distances.length);
+    // A max-heap of the nearest seen so far, so the farthest of them is the one to replace.
+    int[] heap = new int[size];
+    for (int i = 0; i < distances.length; i++) {
+      if (i < size) {
+        heap[i] = i;
+        siftUp(heap, i, distances);
+      } else if (size > 0 && distances[i] < distances[heap[0]]) {
+        heap[0] = i;
+        siftDown(heap, size, distances);
+      }
+    }
+    // Taking the farthest off the top, one at a time, leaves the heap sorted nearest first.
+    for (int end = size - 1; end > 0; end--) {
+      int farthest = heap[0];
+      heap[0] = heap[end];
+      heap[end] = farthest;
+      siftDown(heap, end, distances);
+    }
+    return heap;
+  }
+
+  private static void siftUp(int[] heap, int i, double[] distances) {
+    while (i > 0) {
+      int parent = (i - 1) / 2;
+      if (distances[heap[parent]] >= distances[heap[i]]) {
+        return;
+      }
+      swap(heap, parent, i);
+      i = parent;
+    }
+  }
+
+  private static void siftDown(int[] heap, int size, double[] distances) {
+    int i = 0;
+    while (true) {
+      int largest = i;
+      int left = 2 * i + 1;
+      int right = left + 1;
+      if (left < size && distances[heap[left]] > distances[heap[largest]]) {
+        largest = left;
+      }
+      if (right < size && distances[heap[right]] > distances[heap[largest]]) {
+        largest = right;
+      }
+      if (largest == i) {
+        return;
+      }
+      swap(heap, i, largest);
+      i = largest;
+    }
+  }
+
+  private static void swap(int[] heap, int i, int j) {
+    int t = heap[i];
+    heap[i] = heap[j];
+    heap[j] = t;
+  }
+}
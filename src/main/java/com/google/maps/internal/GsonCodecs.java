@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps.internal;
+
+import com.google.gson.FieldNamingPolicy;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.maps.GeolocationApi;
+import com.google.maps.model.AddressComponentType;
+import com.google.maps.model.AddressType;
+import com.google.maps.model.Distance;
+import com.google.maps.model.Duration;
+import com.google.maps.model.EncodedPolyline;
+import com.google.maps.model.Fare;
+import com.google.maps.model.LatLng;
+import com.google.maps.model.LocationType;
+import com.google.maps.model.OpeningHours.Period.OpenClose.DayOfWeek;
+import com.google.maps.model.PlaceDetails.Review.AspectRating.RatingType;
+import com.google.maps.model.PriceLevel;
+import com.google.maps.model.TravelMode;
+import com.google.maps.model.VehicleType;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The {@link Gson} instances used to unmarshal API responses, one per {@link FieldNamingPolicy}.
+ *
+ * <p>{@code Gson} is immutable and thread-safe once created, and all of the registered type
+ * adapters are stateless, so the instances are built once and shared by every pending result.
+ */
+public final class GsonCodecs {
+
+  private static final Map<FieldNamingPolicy, Gson> CODECS = createCodecs();
+
+  private GsonCodecs() {}
+
+  /**
+   * Returns the shared {@code Gson} for the given naming policy.
+   *
+   * @param fieldNamingPolicy The naming policy of the API being decoded.
+   * @return A {@code Gson} with all of the model type adapters registered.
+   */
+  public static Gson forPolicy(FieldNamingPolicy fieldNamingPolicy) {
+    return CODECS.get(fieldNamingPolicy);
+  }
+
+  private static Map<FieldNamingPolicy, Gson> createCodecs() {
+    Map<FieldNamingPolicy, Gson> codecs = new EnumMap<>(FieldNamingPolicy.class);
+    for (FieldNamingPolicy fieldNamingPolicy : FieldNamingPolicy.values()) {
+      codecs.put(fieldNamingPolicy, create(fieldNamingPolicy));
+    }
+    return Collections.unmodifiableMap(codecs);
+  }
+
+  private static Gson create(FieldNamingPolicy fieldNamingPolicy) {
+    return new GsonBuilder()
+        .registerTypeAdapter(ZonedDateTime.class, new ZonedDateTimeAdapter())
+        .registerTypeAdapter(Distance.class, new DistanceAdapter())
+        .registerTypeAdapter(Duration.class, new DurationAdapter())
+        .registerTypeAdapter(Fare.class, new FareAdapter())
+        .registerTypeAdapter(LatLng.class, new LatLngAdapter())
+        .registerTypeAdapter(
+            AddressComponentType.class, new SafeEnumAdapter<>(AddressComponentType.UNKNOWN))
+        .registerTypeAdapter(AddressType.class, new SafeEnumAdapter<>(AddressType.UNKNOWN))
+        .registerTypeAdapter(TravelMode.class, new SafeEnumAdapter<>(TravelMode.UNKNOWN))
+        .registerTypeAdapter(LocationType.class, new SafeEnumAdapter<>(LocationType.UNKNOWN))
+        .registerTypeAdapter(RatingType.class, new SafeEnumAdapter<>(RatingType.UNKNOWN))
+        .registerTypeAdapter(VehicleType.class, new SafeEnumAdapter<>(VehicleType.OTHER))
+        .registerTypeAdapter(DayOfWeek.class, new DayOfWeekAdapter())
+        .registerTypeAdapter(PriceLevel.class, new PriceLevelAdapter())
+        .registerTypeAdapter(Instant.class, new InstantAdapter())
+        .registerTypeAdapter(LocalTime.class, new LocalTimeAdapter())
+        .registerTypeAdapter(GeolocationApi.Response.class, new GeolocationResponseAdapter())
+        .registerTypeAdapter(EncodedPolyline.class, new EncodedPolylineInstanceCreator(""))
+        .setFieldNamingPolicy(fieldNamingPolicy)
+        .create();
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps.internal;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides when a slow request is worth sending a second time. Each API path keeps a window of its
+ * most recent response latencies, and a request that has not been answered by the configured
+ * percentile of that window is hedged: an identical request is sent alongside it and whichever is
+ * answered first is used.
+ *
+ * <p>With a percentile of 95, about one request in twenty is hedged, so the extra load on the API
+ * stays small while the slowest responses stop dominating tail latency.
+ */
+public final class HedgingPolicy {
+
+  /** How many recent latencies are kept per API path. */
+  static final int WINDOW_SIZE = 128;
+
+  /** How many latencies an API path needs before its requests are hedged. */
+  static final int MIN_SAMPLES = 20;
+
+  private final double percentile;
+  private final Map<String, LatencyWindow> windows = new ConcurrentHashMap<>();
+
+  /**
+   * @param percentile The percentile, between 0 (exclusive) and 100 (exclusive), of recent
+   *     latencies after which an unanswered request is hedged.
+   */
+  public HedgingPolicy(double percentile) {
+    if (!(percentile > 0 && percentile < 100)) {
+      throw new IllegalArgumentException("percentile must be between 0 and 100");
+    }
+    this.percentile = percentile;
+  }
+
+  /**
+   * Records how long a response for {@code path} took to arrive.
+   *
+   * @param path The path of the API that answered.
+   * @param latencyNanos The time from sending the request to receiving the response headers.
+   */
+  public void recordLatency(String path, long latencyNanos) {
+    windows.computeIfAbsent(path, p -> new LatencyWindow()).record(latencyNanos);
+  }
+
+  /**
+   * Returns how long to wait for a response for {@code path} before hedging it.
+   *
+   * @param path The path of the API being called.
+   * @return The delay in nanoseconds, or -1 if too few latencies have been recorded for {@code
+   *     path} yet to decide.
+   */
+  public long hedgeDelayNanos(String path) {
+    LatencyWindow window = windows.get(path);
+    return window == null ? -1 : window.percentileNanos;
+  }
+
+  private final class LatencyWindow {
+    private final long[] samples = new long[WINDOW_SIZE];
+    private int count;
+    private int next;
+
+    /** The configured percentile of {@link #samples}, or -1 until there are enough of them. */
+    private volatile long percentileNanos = -1;
+
+    synchronized void record(long latencyNanos) {
+      samples[next] = latencyNanos;
+      next = (next + 1) % WINDOW_SIZE;
+      count = Math.min(count + 1, WINDOW_SIZE);
+      if (count >= MIN_SAMPLES) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100 * count) - 1;
+        percentileNanos = sorted[Math.max(0, rank)];
+      }
+    }
+  }
+}
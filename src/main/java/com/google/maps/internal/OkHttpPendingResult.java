@@ -15,41 +15,55 @@
 
 package com.google.maps.internal;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 import com.google.gson.FieldNamingPolicy;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonSyntaxException;
-import com.google.maps.GeolocationApi;
+import com.google.gson.stream.MalformedJsonException;
+import com.google.maps.CircuitState;
 import com.google.maps.ImageResult;
 import com.google.maps.PendingResult;
+import com.google.maps.RequestOptions;
+import com.google.maps.RequestPriority;
+import com.google.maps.ResponseMetadata;
 import com.google.maps.errors.ApiException;
+import com.google.maps.errors.CircuitOpenException;
+import com.google.maps.errors.DeadlineExceededException;
+import com.google.maps.errors.OverQueryLimitException;
+import com.google.maps.errors.RequestRejectedException;
 import com.google.maps.metrics.RequestMetrics;
-import com.google.maps.model.AddressComponentType;
-import com.google.maps.model.AddressType;
-import com.google.maps.model.Distance;
-import com.google.maps.model.Duration;
-import com.google.maps.model.Fare;
-import com.google.maps.model.LatLng;
-import com.google.maps.model.LocationType;
-import com.google.maps.model.OpeningHours.Period.OpenClose.DayOfWeek;
-import com.google.maps.model.PlaceDetails.Review.AspectRating.RatingType;
-import com.google.maps.model.PriceLevel;
-import com.google.maps.model.TravelMode;
-import com.google.maps.model.VehicleType;
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
 import java.io.IOException;
-import java.time.Instant;
-import java.time.LocalTime;
-import java.time.ZonedDateTime;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.nio.charset.Charset;
 import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import okhttp3.Call;
 import okhttp3.Callback;
+import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.ForwardingSource;
+import okio.Okio;
+import okio.Sink;
+import okio.Source;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -57,20 +71,36 @@ import org.slf4j.LoggerFactory;
  * A PendingResult backed by a HTTP call executed by OkHttp, a deserialization step using Gson, rate
  * limiting and a retry policy.
  *
+ * <p>Every attempt is submitted to the rate limiter and runs on its dispatcher threads. Backoff
+ * between retries is scheduled on a timer, so no thread is parked while a request waits to be
+ * retried; {@link #await()} simply blocks until the final attempt has completed.
+ *
+ * <p>If the request is idempotent and the handler has a {@link HedgingPolicy}, an attempt that is
+ * slower than its API usually is gets a second, identical call, and takes whichever response
+ * arrives first.
+ *
  * <p>{@code T} is the type of the result of this pending result, and {@code R} is the type of the
  * request.
  */
 public class OkHttpPendingResult<T, R extends ApiResponse<T>>
-    implements PendingResult<T>, Callback {
+    implements PendingResult<T>, ResponseMetadata.Provider, Callback {
   private final Request request;
   private final OkHttpClient client;
   private final Class<R> responseClass;
   private final FieldNamingPolicy fieldNamingPolicy;
   private final Integer maxRetries;
   private final RequestMetrics metrics;
-
-  private Call call;
-  private Callback<T> callback;
+  private final ScheduledExecutorService retryScheduler;
+  private final RateLimitExecutorService rateLimitExecutorService;
+  private final RequestOptions options;
+  private final HedgingPolicy hedgingPolicy;
+  private final CircuitBreaker circuitBreaker;
+  private final CompletableFuture<T> result = new CompletableFuture<>();
+  private final AtomicBoolean started = new AtomicBoolean();
+
+  private volatile Attempt attempt;
+  private volatile ResponseMetadata responseMetadata;
+  private volatile boolean canceled;
   private long errorTimeOut;
   private int retryCounter = 0;
   private long cumulativeSleepTime = 0;
@@ -87,6 +117,13 @@ public class OkHttpPendingResult<T, R extends ApiResponse<T>>
    * @param errorTimeOut Number of milliseconds to re-send erroring requests.
    * @param maxRetries Number of times allowed to re-send erroring requests.
    * @param exceptionsAllowedToRetry The exceptions to retry.
+   * @param metrics The metrics to report this request to.
+   * @param retryScheduler The timer that re-sends erroring requests once their backoff elapses.
+   * @param rateLimitExecutorService The rate limiter that sends each attempt.
+   * @param options How the request is scheduled by the rate limiter.
+   * @param hedgingPolicy When to hedge a slow attempt, or null to never hedge. Only idempotent
+   *     requests may be hedged.
+   * @param circuitBreaker The circuit breaker of the request's API endpoint, or null for none.
    */
   public OkHttpPendingResult(
       Request request,
@@ -96,7 +133,12 @@ public class OkHttpPendingResult<T, R extends ApiResponse<T>>
       long errorTimeOut,
       Integer maxRetries,
       ExceptionsAllowedToRetry exceptionsAllowedToRetry,
-      RequestMetrics metrics) {
+      RequestMetrics metrics,
+      ScheduledExecutorService retryScheduler,
+      RateLimitExecutorService rateLimitExecutorService,
+      RequestOptions options,
+      HedgingPolicy hedgingPolicy,
+      CircuitBreaker circuitBreaker) {
     this.request = request;
     this.client = client;
     this.responseClass = responseClass;
@@ -105,86 +147,71 @@ public class OkHttpPendingResult<T, R extends ApiResponse<T>>
     this.maxRetries = maxRetries;
     this.exceptionsAllowedToRetry = exceptionsAllowedToRetry;
     this.metrics = metrics;
+    this.retryScheduler = retryScheduler;
+    this.rateLimitExecutorService = rateLimitExecutorService;
+    this.options = options;
+    this.hedgingPolicy = hedgingPolicy;
+    this.circuitBreaker = circuitBreaker;
 
     metrics.startNetwork();
-    this.call = client.newCall(request);
+    this.attempt = new Attempt(client.newCall(request));
   }
 
   @Override
-  public void setCallback(Callback<T> callback) {
-    this.callback = callback;
-    call.enqueue(this);
-  }
-
-  /** Preserve a request/response pair through an asynchronous callback. */
-  private class QueuedResponse {
-    private final OkHttpPendingResult<T, R> request;
-    private final Response response;
-    private final IOException e;
-
-    public QueuedResponse(OkHttpPendingResult<T, R> request, Response response) {
-      this.request = request;
-      this.response = response;
-      this.e = null;
-    }
-
-    public QueuedResponse(OkHttpPendingResult<T, R> request, IOException e) {
-      this.request = request;
-      this.response = null;
-      this.e = e;
-    }
+  public void setCallback(final Callback<T> callback) {
+    result.whenComplete(
+        (value, error) -> {
+          if (error != null) {
+            callback.onFailure(error);
+            return;
+          }
+          try {
+            callback.onResult(value);
+          } catch (Exception e) {
+            callback.onFailure(e);
+          }
+        });
+    execute();
   }
 
   @Override
-  public T await() throws ApiException, IOException, InterruptedException {
-    // Handle sleeping for retried requests
-    if (retryCounter > 0) {
-      // 0.5 * (1.5 ^ i) represents an increased sleep time of 1.5x per iteration,
-      // starting at 0.5s when i = 0. The retryCounter will be 1 for the 1st retry,
-      // so subtract 1 here.
-      double delaySecs = 0.5 * Math.pow(1.5, retryCounter - 1);
-
-      // Generate a jitter value between -delaySecs / 2 and +delaySecs / 2
-      long delayMillis = (long) (delaySecs * (Math.random() + 0.5) * 1000);
-
-      LOG.debug(
-          String.format(
-              "Sleeping between errors for %dms (retry #%d, already slept %dms)",
-              delayMillis, retryCounter, cumulativeSleepTime));
-      cumulativeSleepTime += delayMillis;
-      try {
-        Thread.sleep(delayMillis);
-      } catch (InterruptedException e) {
-        // No big deal if we don't sleep as long as intended.
-      }
-    }
-
-    final BlockingQueue<QueuedResponse> waiter = new ArrayBlockingQueue<>(1);
-    final OkHttpPendingResult<T, R> parent = this;
-
-    // This callback will be called on another thread, handled by the RateLimitExecutorService.
-    // Calling call.execute() directly would bypass the rate limiting.
-    call.enqueue(
-        new okhttp3.Callback() {
-          @Override
-          public void onFailure(Call call, IOException e) {
-            metrics.endNetwork();
-            waiter.add(new QueuedResponse(parent, e));
+  public CompletableFuture<T> toCompletableFuture() {
+    final CompletableFuture<T> future = new CompletableFuture<>();
+    future.whenComplete(
+        (value, error) -> {
+          if (future.isCancelled()) {
+            cancel();
           }
-
-          @Override
-          public void onResponse(Call call, Response response) throws IOException {
-            metrics.endNetwork();
-            waiter.add(new QueuedResponse(parent, response));
+        });
+    result.whenComplete(
+        (value, error) -> {
+          if (error != null) {
+            future.completeExceptionally(error);
+          } else {
+            future.complete(value);
           }
         });
+    execute();
+    return future;
+  }
 
-    QueuedResponse r = waiter.take();
-    if (r.response != null) {
-      return parseResponse(r.request, r.response);
-    } else {
-      metrics.endRequest(r.e, 0, retryCounter);
-      throw r.e;
+  @Override
+  public T await() throws ApiException, IOException, InterruptedException {
+    execute();
+    try {
+      return result.get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof ApiException) {
+        throw (ApiException) cause;
+      } else if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IOException(cause);
     }
   }
 
@@ -198,147 +225,462 @@ public class OkHttpPendingResult<T, R extends ApiResponse<T>>
   }
 
   @Override
-  public void cancel() {
-    call.cancel();
+  public ResponseMetadata responseMetadata() {
+    return responseMetadata;
   }
 
   @Override
-  public void onFailure(Call call, IOException ioe) {
-    metrics.endNetwork();
-    if (callback != null) {
-      metrics.endRequest(ioe, 0, retryCounter);
-      callback.onFailure(ioe);
+  public void cancel() {
+    canceled = true;
+    attempt.cancel();
+  }
+
+  /** Sends the first attempt, unless {@code await} or {@code setCallback} already has. */
+  private void execute() {
+    if (started.compareAndSet(false, true)) {
+      attempt.send();
     }
   }
 
-  @Override
-  public void onResponse(Call call, Response response) throws IOException {
-    metrics.endNetwork();
-    if (callback != null) {
+  /**
+   * One attempt at the request: the call sent first and, if the hedging policy decides it is slow,
+   * an identical call sent alongside it. The first call to get a response settles the attempt and
+   * the other is canceled; the attempt only fails once every call it sent has failed.
+   */
+  private final class Attempt {
+    private final List<Call> calls = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean settled = new AtomicBoolean();
+    /** Calls that have been sent and have not failed yet. */
+    private final AtomicInteger outstanding = new AtomicInteger();
+    /** The permit the circuit breaker granted this attempt. */
+    private long circuitPermit;
+
+    Attempt(Call call) {
+      calls.add(call);
+    }
+
+    void send() {
+      if (circuitBreaker != null) {
+        circuitPermit = circuitBreaker.tryAcquire();
+        if (circuitPermit < 0) {
+          metrics.endNetwork();
+          fail(
+              new CircuitOpenException(
+                  "Too many recent requests to " + request.url().encodedPath() + " failed"),
+              0);
+          return;
+        }
+      }
+      outstanding.incrementAndGet();
+      submit(calls.get(0));
+      scheduleHedge();
+    }
+
+    void cancel() {
+      for (Call call : calls) {
+        call.cancel();
+      }
+    }
+
+    private void scheduleHedge() {
+      if (hedgingPolicy == null) {
+        return;
+      }
+      long delayNanos = hedgingPolicy.hedgeDelayNanos(request.url().encodedPath());
+      if (delayNanos < 0 || delayNanos >= options.remainingNanos()) {
+        return;
+      }
       try {
-        callback.onResult(parseResponse(this, response));
-      } catch (Exception e) {
-        callback.onFailure(e);
+        retryScheduler.schedule(this::hedge, delayNanos, TimeUnit.NANOSECONDS);
+      } catch (RejectedExecutionException e) {
+        // The handler is shutting down; the first call carries on alone.
+      }
+    }
+
+    private void hedge() {
+      if (settled.get() || canceled) {
+        return;
+      }
+      // Counted before re-checking, so a first call that fails meanwhile leaves the attempt to us.
+      outstanding.incrementAndGet();
+      if (settled.get()) {
+        outstanding.decrementAndGet();
+        return;
+      }
+      Call hedge = client.newCall(request);
+      calls.add(hedge);
+      if (canceled) {
+        hedge.cancel();
+      }
+      LOG.debug("Hedging slow request to " + request.url().encodedPath());
+      metrics.hedged();
+      submit(hedge);
+    }
+
+    /**
+     * Hands a call to the RateLimitExecutorService, which runs it on one of its threads once the
+     * rate for this request's API allows, so hedges are rate limited like any other call.
+     * Submitting the call ourselves rather than through {@code call.enqueue} is what lets the rate
+     * limiter see which API the request is for.
+     */
+    private void submit(final Call call) {
+      RateLimitedTask task =
+          new RateLimitedTask() {
+            @Override
+            public void run() {
+              long remainingNanos = options.remainingNanos();
+              if (remainingNanos <= 0) {
+                onDeadlineExceeded();
+                return;
+              }
+              if (options.hasDeadline()) {
+                // Whatever is left of the deadline bounds this call as a whole.
+                long timeoutNanos = call.timeout().timeoutNanos();
+                if (timeoutNanos == 0 || remainingNanos < timeoutNanos) {
+                  call.timeout().timeout(remainingNanos, TimeUnit.NANOSECONDS);
+                }
+              }
+              long sentNanos = System.nanoTime();
+              Response response;
+              try {
+                response = call.execute();
+              } catch (IOException e) {
+                if (lastToFail()) {
+                  onFailure(call, e);
+                }
+                return;
+              }
+              if (hedgingPolicy != null) {
+                hedgingPolicy.recordLatency(
+                    request.url().encodedPath(), System.nanoTime() - sentNanos);
+              }
+              if (!settled.compareAndSet(false, true)) {
+                // The other call of this attempt was answered first.
+                response.close();
+                return;
+              }
+              for (Call other : calls) {
+                if (other != call) {
+                  other.cancel();
+                }
+              }
+              onResponse(call, response);
+            }
+
+            @Override
+            public void onRejected(RequestRejectedException e) {
+              if (lastToFail()) {
+                reportHealth(null);
+                metrics.endNetwork();
+                fail(e, 0);
+              }
+            }
+
+            @Override
+            public RequestPriority priority() {
+              return options.priority();
+            }
+
+            @Override
+            public long remainingNanos() {
+              return options.remainingNanos();
+            }
+
+            @Override
+            public void onDeadlineExceeded() {
+              if (lastToFail()) {
+                reportHealth(null);
+                metrics.endNetwork();
+                fail(deadlineExceeded(null), 0);
+              }
+            }
+          };
+      try {
+        rateLimitExecutorService.execute(request.url().host(), request.url().encodedPath(), task);
+      } catch (RequestRejectedException e) {
+        task.onRejected(e);
+      }
+    }
+
+    /**
+     * Returns whether a failed call settles the attempt, which it does only if no other call of the
+     * attempt is still outstanding.
+     */
+    private boolean lastToFail() {
+      return outstanding.decrementAndGet() == 0 && settled.compareAndSet(false, true);
+    }
+
+    /**
+     * Tells the circuit breaker how this attempt went: healthy, failed, or null if it says nothing
+     * about the endpoint, for example because it was canceled.
+     */
+    void reportHealth(Boolean healthy) {
+      if (circuitBreaker == null) {
+        return;
+      }
+      if (healthy == null) {
+        circuitBreaker.onIgnored(circuitPermit);
+      } else if (healthy) {
+        circuitBreaker.onSuccess(circuitPermit);
+      } else {
+        circuitBreaker.onFailure(circuitPermit);
       }
     }
   }
 
-  @SuppressWarnings("unchecked")
-  private T parseResponse(OkHttpPendingResult<T, R> request, Response response)
-      throws ApiException, InterruptedException, IOException {
-    try {
-      T result = parseResponseInternal(request, response);
-      metrics.endRequest(null, response.code(), retryCounter);
-      return result;
-    } catch (Exception e) {
-      metrics.endRequest(e, response.code(), retryCounter);
-      throw e;
+  @Override
+  public void onFailure(Call call, IOException ioe) {
+    metrics.endNetwork();
+    if (ioe instanceof InterruptedIOException && options.remainingNanos() <= 0) {
+      // The call timeout set from the deadline fired.
+      attempt.reportHealth(null);
+      fail(deadlineExceeded(ioe), 0);
+      return;
     }
+    attempt.reportHealth(canceled ? null : false);
+    fail(ioe, 0);
   }
 
-  @SuppressWarnings("unchecked")
-  private T parseResponseInternal(OkHttpPendingResult<T, R> request, Response response)
-      throws ApiException, InterruptedException, IOException {
+  private DeadlineExceededException deadlineExceeded(Throwable cause) {
+    return new DeadlineExceededException(
+        String.format(
+            "Deadline exceeded for %s after %d retries", request.url().encodedPath(), retryCounter),
+        cause);
+  }
+
+  @Override
+  public void onResponse(Call call, Response response) {
+    metrics.endNetwork();
+    attempt.reportHealth(response.code() < 500);
     if (shouldRetry(response)) {
       // since we are retrying the request we must close the response
       response.close();
+      retry();
+      return;
+    }
 
-      // Retry is a blocking method, but that's OK. If we're here, we're either in an await()
-      // call, which is blocking anyway, or we're handling a callback in a separate thread.
-      return request.retry();
+    T value;
+    try {
+      value = parseResponse(response);
+    } catch (ApiException e) {
+      onRateFeedback(response, e);
+      if (shouldRetry(e)) {
+        retry();
+      } else {
+        fail(e, response.code());
+      }
+      return;
+    } catch (Exception e) {
+      onRateFeedback(response, e);
+      fail(e, response.code());
+      return;
     }
+    onRateFeedback(response, null);
+    metrics.endRequest(null, response.code(), retryCounter);
+    result.complete(value);
+  }
 
-    byte[] bytes;
-    try (ResponseBody body = response.body()) {
-      bytes = body.bytes();
+  /**
+   * Tells the rate limiter whether this attempt was turned away for exceeding the quota, so that an
+   * adaptive rate can back off, or was answered cleanly, so that it can grow again.
+   */
+  private void onRateFeedback(Response response, Exception e) {
+    boolean overQueryLimit = response.code() == 429 || e instanceof OverQueryLimitException;
+    if (overQueryLimit || e == null) {
+      rateLimitExecutorService.onResponse(
+          request.url().host(), request.url().encodedPath(), overQueryLimit);
     }
+  }
+
+  private void fail(Exception e, int httpStatusCode) {
+    metrics.endRequest(e, httpStatusCode, retryCounter);
+    result.completeExceptionally(e);
+  }
+
+  @SuppressWarnings("unchecked")
+  private T parseResponse(Response response) throws ApiException, IOException {
     R resp;
+    long size;
+    byte[] keptBody = null;
     String contentType = response.header("Content-Type");
 
-    if (contentType != null
-        && contentType.startsWith("image")
-        && responseClass == ImageResult.Response.class
-        && response.code() == 200) {
-      ImageResult result = new ImageResult(contentType, bytes);
-      return (T) result;
-    }
-
-    Gson gson =
-        new GsonBuilder()
-            .registerTypeAdapter(ZonedDateTime.class, new ZonedDateTimeAdapter())
-            .registerTypeAdapter(Distance.class, new DistanceAdapter())
-            .registerTypeAdapter(Duration.class, new DurationAdapter())
-            .registerTypeAdapter(Fare.class, new FareAdapter())
-            .registerTypeAdapter(LatLng.class, new LatLngAdapter())
-            .registerTypeAdapter(
-                AddressComponentType.class,
-                new SafeEnumAdapter<AddressComponentType>(AddressComponentType.UNKNOWN))
-            .registerTypeAdapter(
-                AddressType.class, new SafeEnumAdapter<AddressType>(AddressType.UNKNOWN))
-            .registerTypeAdapter(
-                TravelMode.class, new SafeEnumAdapter<TravelMode>(TravelMode.UNKNOWN))
-            .registerTypeAdapter(
-                LocationType.class, new SafeEnumAdapter<LocationType>(LocationType.UNKNOWN))
-            .registerTypeAdapter(
-                RatingType.class, new SafeEnumAdapter<RatingType>(RatingType.UNKNOWN))
-            .registerTypeAdapter(
-                VehicleType.class, new SafeEnumAdapter<VehicleType>(VehicleType.OTHER))
-            .registerTypeAdapter(DayOfWeek.class, new DayOfWeekAdapter())
-            .registerTypeAdapter(PriceLevel.class, new PriceLevelAdapter())
-            .registerTypeAdapter(Instant.class, new InstantAdapter())
-            .registerTypeAdapter(LocalTime.class, new LocalTimeAdapter())
-            .registerTypeAdapter(GeolocationApi.Response.class, new GeolocationResponseAdapter())
-            .setFieldNamingPolicy(fieldNamingPolicy)
-            .create();
-
-    // Attempt to de-serialize before checking the HTTP status code, as there may be JSON in the
-    // body that we can use to provide a more descriptive exception.
-    try {
-      resp = gson.fromJson(new String(bytes, "utf8"), responseClass);
-    } catch (JsonSyntaxException e) {
-      // Check HTTP status for a more suitable exception
-      if (!response.isSuccessful()) {
-        // Some of the APIs return 200 even when the API request fails, as long as the transport
-        // mechanism succeeds. In these cases, INVALID_RESPONSE, etc are handled by the Gson
-        // parsing.
-        throw new IOException(
-            String.format("Server Error: %d %s", response.code(), response.message()));
+    try (ResponseBody body = response.body()) {
+      if (contentType != null
+          && contentType.startsWith("image")
+          && responseClass == ImageResult.Response.class
+          && response.code() == 200) {
+        if (options.imageSink() != null) {
+          // Okio hands its segments straight to the stream, so the image is never held whole.
+          Sink sink = Okio.sink(options.imageSink());
+          long written = body.source().readAll(sink);
+          sink.flush();
+          responseMetadata = new ResponseMetadata(written, null, false);
+          return (T) new ImageResult(contentType, null);
+        }
+        byte[] bytes = body.bytes();
+        responseMetadata = new ResponseMetadata(bytes.length, null, false);
+        ImageResult image = new ImageResult(contentType, bytes);
+        return (T) image;
       }
 
-      // Otherwise just cough up the syntax exception.
-      throw e;
+      Gson gson = GsonCodecs.forPolicy(fieldNamingPolicy);
+
+      // Attempt to de-serialize before checking the HTTP status code, as there may be JSON in the
+      // body that we can use to provide a more descriptive exception. The body is decoded as it
+      // streams off the connection, rather than being buffered into a byte[] and String first.
+      try {
+        MediaType mediaType = body.contentType();
+        Charset charset = mediaType != null ? mediaType.charset(UTF_8) : UTF_8;
+        CountingSource counted = null;
+        Reader reader;
+        if (options.keepResponseBody()) {
+          // Kept to be offered to a response body cache once the request has succeeded.
+          keptBody = body.bytes();
+          reader = new InputStreamReader(new ByteArrayInputStream(keptBody), charset);
+        } else {
+          counted = new CountingSource(body.source());
+          reader = new InputStreamReader(Okio.buffer(counted).inputStream(), charset);
+        }
+        resp = gson.fromJson(reader, responseClass);
+        size = counted != null ? counted.count : keptBody.length;
+      } catch (JsonSyntaxException | JsonIOException e) {
+        // Gson wraps failures reading from the connection, so surface those as they would have
+        // been when reading the body up front.
+        IOException readFailure = readFailure(e);
+        if (readFailure != null) {
+          throw readFailure;
+        }
+
+        // Check HTTP status for a more suitable exception
+        if (!response.isSuccessful()) {
+          // Some of the APIs return 200 even when the API request fails, as long as the transport
+          // mechanism succeeds. In these cases, INVALID_RESPONSE, etc are handled by the Gson
+          // parsing.
+          throw new IOException(
+              String.format("Server Error: %d %s", response.code(), response.message()));
+        }
+
+        // Otherwise just cough up the syntax exception.
+        throw e;
+      }
     }
 
     if (resp.successful()) {
       // Return successful responses
+      responseMetadata = new ResponseMetadata(size, keptBody, resp.zeroResults());
       return resp.getResult();
     } else {
-      ApiException e = resp.getError();
-      if (shouldRetry(e)) {
-        return request.retry();
-      } else {
-        throw e;
+      throw resp.getError();
+    }
+  }
+
+  /** Counts the bytes read off a response body, to weigh the result by. */
+  private static final class CountingSource extends ForwardingSource {
+    private long count;
+
+    CountingSource(Source delegate) {
+      super(delegate);
+    }
+
+    @Override
+    public long read(Buffer sink, long byteCount) throws IOException {
+      long n = super.read(sink, byteCount);
+      if (n > 0) {
+        count += n;
       }
+      return n;
+    }
+  }
+
+  /**
+   * Returns the I/O failure behind a Gson exception, or null if the body was simply not valid JSON.
+   */
+  private static IOException readFailure(JsonParseException e) {
+    Throwable cause = e.getCause();
+    if (cause instanceof IOException
+        && !(cause instanceof MalformedJsonException)
+        && !(cause instanceof EOFException)) {
+      return (IOException) cause;
     }
+    return null;
   }
 
-  private T retry() throws ApiException, InterruptedException, IOException {
+  private void retry() {
     retryCounter++;
     LOG.info("Retrying request. Retry #" + retryCounter);
+
+    // 0.5 * (1.5 ^ i) represents an increased sleep time of 1.5x per iteration,
+    // starting at 0.5s when i = 0. The retryCounter will be 1 for the 1st retry,
+    // so subtract 1 here.
+    double delaySecs = 0.5 * Math.pow(1.5, retryCounter - 1);
+
+    // Generate a jitter value between -delaySecs / 2 and +delaySecs / 2
+    long delayMillis = (long) (delaySecs * (Math.random() + 0.5) * 1000);
+    // shouldRetry() made sure the shortest possible delay fits; the jitter must not overrun either.
+    delayMillis = Math.min(delayMillis, TimeUnit.NANOSECONDS.toMillis(options.remainingNanos()));
+
+    LOG.debug(
+        String.format(
+            "Waiting between errors for %dms (retry #%d, already waited %dms)",
+            delayMillis, retryCounter, cumulativeSleepTime));
+    cumulativeSleepTime += delayMillis;
+    try {
+      retryScheduler.schedule(this::resend, delayMillis, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      fail(new IOException("Request handler was shut down before the request was retried", e), 0);
+    }
+  }
+
+  private void resend() {
+    if (canceled) {
+      fail(new IOException("Canceled"), 0);
+      return;
+    }
+    if (options.remainingNanos() <= 0) {
+      fail(deadlineExceeded(null), 0);
+      return;
+    }
     metrics.startNetwork();
-    this.call = client.newCall(request);
-    return this.await();
+    attempt = new Attempt(client.newCall(request));
+    // cancel() may have raced with the new attempt being created.
+    if (canceled) {
+      attempt.cancel();
+    }
+    attempt.send();
   }
 
   private boolean shouldRetry(Response response) {
     return RETRY_ERROR_CODES.contains(response.code())
         && cumulativeSleepTime < errorTimeOut
-        && (maxRetries == null || retryCounter < maxRetries);
+        && (maxRetries == null || retryCounter < maxRetries)
+        && retryFitsDeadline()
+        && circuitAllowsRetry();
   }
 
   private boolean shouldRetry(ApiException exception) {
     return exceptionsAllowedToRetry.contains(exception.getClass())
         && cumulativeSleepTime < errorTimeOut
-        && (maxRetries == null || retryCounter < maxRetries);
+        && (maxRetries == null || retryCounter < maxRetries)
+        && retryFitsDeadline()
+        && circuitAllowsRetry();
+  }
+
+  /**
+   * Returns whether the endpoint is healthy enough to retry. While its circuit is not closed, a
+   * failed request fails now with the error at hand instead of waiting out a backoff only to be
+   * refused.
+   */
+  private boolean circuitAllowsRetry() {
+    return circuitBreaker == null || circuitBreaker.state() == CircuitState.CLOSED;
+  }
+
+  /**
+   * Returns whether the next retry could be sent before the deadline, even with the shortest
+   * backoff. Otherwise the request fails now with the error at hand, rather than later with a
+   * timeout.
+   */
+  private boolean retryFitsDeadline() {
+    double minDelaySecs = 0.5 * Math.pow(1.5, retryCounter) * 0.5;
+    return options.remainingNanos() > (long) (minDelaySecs * TimeUnit.SECONDS.toNanos(1));
   }
 }
@@ -15,20 +15,36 @@
 
 package com.google.maps.internal;
 
-import com.google.maps.internal.ratelimiter.RateLimiter;
+import com.google.maps.QueueOverflowPolicy;
+import com.google.maps.RequestPriority;
+import com.google.maps.errors.RequestRejectedException;
+import com.google.maps.internal.ratelimiter.TokenBucket;
+import com.google.maps.metrics.NoOpRequestMetricsReporter;
+import com.google.maps.metrics.RequestMetricsReporter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.BlockingQueue;
+import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,11 +54,30 @@ public class RateLimitExecutorService implements ExecutorService, Runnable {
   private static final Logger LOG =
       LoggerFactory.getLogger(RateLimitExecutorService.class.getName());
   private static final int DEFAULT_QUERIES_PER_SECOND = 50;
+  private static final String DEFAULT_LANE_NAME = "default";
+
+  // Adaptive rate limiting is additive increase, multiplicative decrease: each clean response
+  // raises the rate by ADDITIVE_INCREASE_QPS / rate, i.e. by about ADDITIVE_INCREASE_QPS every
+  // second, and a quota error cuts it by MULTIPLICATIVE_DECREASE, at most once per
+  // DECREASE_INTERVAL_NANOS so that the responses already in flight do not compound the cut.
+  private static final double ADDITIVE_INCREASE_QPS = 1.0;
+  private static final double MULTIPLICATIVE_DECREASE = 0.5;
+  private static final double MIN_ADAPTIVE_QPS = 1.0;
+  private static final long DECREASE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  private static final RequestPriority[] PRIORITIES = RequestPriority.values();
+
+  /**
+   * Set on the threads of the library itself: the delay thread, the dispatch threads and timers
+   * made by {@link #internalThreadFactory}. They serve every lane, so they never block on a full
+   * one.
+   */
+  private static final ThreadLocal<Boolean> INTERNAL_THREAD = new ThreadLocal<>();
 
   // It's important we set Ok's second arg to threadFactory(.., true) to ensure the threads are
   // killed when the app exits. For synchronous requests this is ideal but it means any async
   // requests still pending after termination will be killed.
-  private final ExecutorService delegate =
+  private volatile ExecutorService delegate =
       new ThreadPoolExecutor(
           Runtime.getRuntime().availableProcessors(),
           Integer.MAX_VALUE,
@@ -51,9 +86,24 @@ public class RateLimitExecutorService implements ExecutorService, Runnable {
           new SynchronousQueue<Runnable>(),
           threadFactory("Rate Limited Dispatcher", true));
 
-  private final BlockingQueue<Runnable> queue = new LinkedBlockingQueue<>();
-  private final RateLimiter rateLimiter =
-      RateLimiter.create(DEFAULT_QUERIES_PER_SECOND, 1, TimeUnit.SECONDS);
+  private volatile RequestMetricsReporter requestMetricsReporter = new NoOpRequestMetricsReporter();
+  private volatile boolean adaptive;
+  private volatile int queueCapacity = Integer.MAX_VALUE;
+  private volatile QueueOverflowPolicy overflowPolicy = QueueOverflowPolicy.FAIL_FAST;
+  private volatile long maxQueueWaitNanos = Long.MAX_VALUE;
+  // Indexed by RequestPriority ordinal, and replaced rather than updated in place.
+  private volatile int[] priorityWeights = {16, 4, 1};
+
+  /** Tasks that are not routed to a more specific lane share this lane's rate. */
+  private final Lane defaultLane = new Lane(DEFAULT_LANE_NAME, DEFAULT_QUERIES_PER_SECOND);
+  /** Lanes keyed by API path (e.g. {@code /maps/api/geocode/json}) or host name. */
+  private final Map<String, Lane> lanesByKey = new ConcurrentHashMap<>();
+  /** Every lane, in the order the delay thread visits them. */
+  private final List<Lane> lanes =
+      new CopyOnWriteArrayList<>(Collections.singletonList(defaultLane));
+
+  private final DispatchCounter dispatchCounter = new DispatchCounter();
+  private final LongAdder rejectedCount = new LongAdder();
 
   final Thread delayThread;
 
@@ -66,25 +116,296 @@ public class RateLimitExecutorService implements ExecutorService, Runnable {
   }
 
   public void setQueriesPerSecond(int maxQps) {
-    this.rateLimiter.setRate(maxQps);
+    defaultLane.setMaxQps(maxQps);
+  }
+
+  /**
+   * Gives the requests for one API their own rate, separate from the default set by {@link
+   * #setQueriesPerSecond(int)} and from every other API.
+   *
+   * @param pathOrHost Either a URL path, such as {@code /maps/api/geocode/json}, or a host name,
+   *     such as {@code roads.googleapis.com}. A request matching both a path and a host limit is
+   *     counted against the path.
+   * @param maxQps The maximum queries per second for requests matching {@code pathOrHost}.
+   */
+  public void setQueriesPerSecond(String pathOrHost, int maxQps) {
+    Lane lane =
+        lanesByKey.computeIfAbsent(
+            pathOrHost,
+            key -> {
+              Lane created = new Lane(key, maxQps);
+              lanes.add(created);
+              return created;
+            });
+    lane.setMaxQps(maxQps);
+  }
+
+  /**
+   * Bounds the number of tasks of the default rate that may run at once. A task that finds its
+   * lane at the limit waits, in its queue, for one of the running tasks to finish, so a slow API
+   * holds at most this many threads. Unless set, the limit follows the lane's queries per second.
+   *
+   * @param maxInFlight The maximum number of running tasks.
+   */
+  public void setMaxInFlight(int maxInFlight) {
+    defaultLane.setMaxInFlight(maxInFlight);
+  }
+
+  /**
+   * Bounds the number of tasks for one API that may run at once, as {@link #setMaxInFlight(int)}
+   * does for the default rate. The API must already have its own rate.
+   *
+   * @param pathOrHost A URL path or host name given to {@link #setQueriesPerSecond(String, int)}.
+   * @param maxInFlight The maximum number of running tasks for requests matching {@code
+   *     pathOrHost}.
+   */
+  public void setMaxInFlight(String pathOrHost, int maxInFlight) {
+    Lane lane = lanesByKey.get(pathOrHost);
+    if (lane == null) {
+      throw new IllegalArgumentException("No queries per second set for " + pathOrHost);
+    }
+    lane.setMaxInFlight(maxInFlight);
+  }
+
+  /**
+   * Bounds the number of tasks that may wait for each rate, so that a slow or throttled API can't
+   * accumulate an unbounded backlog. The capacity applies to every lane separately.
+   *
+   * @param capacity The maximum number of waiting tasks per lane.
+   * @param overflowPolicy What to do with a task submitted to a full lane.
+   */
+  public void setQueueCapacity(int capacity, QueueOverflowPolicy overflowPolicy) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be positive");
+    }
+    this.queueCapacity = capacity;
+    this.overflowPolicy = overflowPolicy;
+  }
+
+  /**
+   * Rejects tasks that would have to wait longer than {@code maxQueueWait} for their turn, judged
+   * by the number of tasks ahead of them and their lane's current rate.
+   *
+   * @param maxQueueWait The longest expected wait to accept.
+   * @param unit The unit of {@code maxQueueWait}.
+   */
+  public void setMaxQueueWait(long maxQueueWait, TimeUnit unit) {
+    this.maxQueueWaitNanos = unit.toNanos(maxQueueWait);
+  }
+
+  /**
+   * Sets the share of dispatches given to waiting tasks of one priority. While tasks of several
+   * priorities wait in the same lane, they are dispatched in proportion to their weights, using a
+   * smooth weighted round robin, so no priority is starved. The lane's rate is unchanged.
+   *
+   * @param priority The priority.
+   * @param weight The relative share of dispatches for tasks of {@code priority}.
+   */
+  public void setPriorityWeight(RequestPriority priority, int weight) {
+    if (weight < 1) {
+      throw new IllegalArgumentException("weight must be positive");
+    }
+    int[] weights = priorityWeights.clone();
+    weights[priority.ordinal()] = weight;
+    priorityWeights = weights;
+  }
+
+  /** Returns the number of tasks currently waiting, across all lanes. */
+  public int getQueueDepth() {
+    int depth = 0;
+    for (Lane lane : lanes) {
+      depth += lane.depth.get();
+    }
+    return depth;
+  }
+
+  /** Returns the number of tasks rejected or dropped since this service was created. */
+  public long getRejectedCount() {
+    return rejectedCount.sum();
+  }
+
+  /**
+   * Turns on adaptive rate limiting. Each configured rate becomes a ceiling: the rate actually
+   * enforced is cut in half when the API reports that the quota was exceeded, and grows back by
+   * about one query per second, every second, while responses are clean. Feedback is given through
+   * {@link #onResponse}.
+   *
+   * @param adaptive Whether rates adapt to quota errors.
+   */
+  public void setAdaptive(boolean adaptive) {
+    this.adaptive = adaptive;
+  }
+
+  /**
+   * Sets the reporter that is told whenever an adaptive rate changes.
+   *
+   * @param requestMetricsReporter The reporter.
+   */
+  public void setRequestMetricsReporter(RequestMetricsReporter requestMetricsReporter) {
+    this.requestMetricsReporter = requestMetricsReporter;
+  }
+
+  /**
+   * Feeds the outcome of a request back into the adaptive rate of its lane. This has no effect
+   * unless adaptive rate limiting is turned on.
+   *
+   * @param host The host name of the request.
+   * @param path The URL path of the request.
+   * @param overQueryLimit Whether the API rejected the request for exceeding its quota.
+   */
+  public void onResponse(String host, String path, boolean overQueryLimit) {
+    if (adaptive) {
+      laneFor(host, path).onResponse(overQueryLimit);
+    }
+  }
+
+  /** Returns the rate currently enforced for requests to the given host and path. */
+  public double getQueriesPerSecond(String host, String path) {
+    return laneFor(host, path).tokenBucket.getRate();
   }
 
-  /** Main loop. */
+  /** Returns the number of tasks handed to the dispatcher pool since this service was created. */
+  public long getDispatchedCount() {
+    return dispatchCounter.total();
+  }
+
+  /**
+   * Returns how many tasks were handed to the dispatcher pool in each of the last 60 seconds.
+   *
+   * @return The counts, most recent first: index 0 is the current (partial) second, index 1 the
+   *     second before it, and so on.
+   */
+  public long[] getDispatchesPerSecond() {
+    return dispatchCounter.perSecond(TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()));
+  }
+
+  /**
+   * Runs dispatched tasks on virtual threads instead of the platform thread pool, if the runtime
+   * supports them (JDK 21+). A burst of slow responses then parks cheap virtual threads rather
+   * than growing the pool by one OS thread per in-flight request.
+   *
+   * <p>This must be called before any task is submitted.
+   *
+   * @return Whether tasks will now run on virtual threads. On older runtimes this returns {@code
+   *     false} and the platform thread pool is kept.
+   */
+  public boolean useVirtualThreads() {
+    ExecutorService virtualThreadExecutor = newVirtualThreadPerTaskExecutor();
+    if (virtualThreadExecutor == null) {
+      LOG.info("Virtual threads are not available on this runtime, using platform threads");
+      return false;
+    }
+    ExecutorService previous = delegate;
+    delegate = virtualThreadExecutor;
+    previous.shutdown();
+    return true;
+  }
+
+  /**
+   * Looks up {@code Executors.newVirtualThreadPerTaskExecutor()} reflectively, so that the library
+   * can keep targeting Java 8.
+   *
+   * @return The executor, or {@code null} if the runtime predates virtual threads.
+   */
+  private static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) factory.invoke(null);
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      return null;
+    } catch (InvocationTargetException e) {
+      // Virtual threads are a preview feature on JDK 19 and 20 and fail here unless enabled.
+      LOG.debug("Unable to create a virtual thread executor", e.getCause());
+      return null;
+    }
+  }
+
+  /**
+   * Main loop. A permit is only taken once there is a task to spend it on; while every lane is
+   * empty the thread parks until {@link #execute} wakes it.
+   */
   @Override
   public void run() {
-    try {
-      while (!delegate.isShutdown()) {
-        this.rateLimiter.acquire();
-        Runnable r = queue.take();
-        if (!delegate.isShutdown()) {
-          delegate.execute(r);
+    INTERNAL_THREAD.set(Boolean.TRUE);
+    while (!delegate.isShutdown()) {
+      if (Thread.interrupted()) {
+        LOG.info("Interrupted");
+        return;
+      }
+      long waitNanos = Long.MAX_VALUE;
+      for (Lane lane : lanes) {
+        if (lane.isEmpty() || !lane.tryStart()) {
+          // A lane at its in-flight limit is woken by the next of its tasks to finish.
+          continue;
         }
+        long laneWaitNanos = lane.tokenBucket.tryAcquire();
+        if (laneWaitNanos > 0) {
+          lane.inFlight.decrementAndGet();
+          waitNanos = Math.min(waitNanos, laneWaitNanos);
+          continue;
+        }
+        // A producer may have dropped the task seen above in the meantime; the permit is then
+        // spent on the next one, if any.
+        Runnable r = lane.poll();
+        while (r != null && isExpired(r)) {
+          // Expired tasks are discarded without spending the permit.
+          ((RateLimitedTask) r).onDeadlineExceeded();
+          r = lane.poll();
+        }
+        if (r != null) {
+          dispatch(lane, r);
+        } else {
+          lane.inFlight.decrementAndGet();
+        }
+        // Other tasks may be queued behind this one, so go round again without parking.
+        waitNanos = 0;
+      }
+      if (waitNanos == Long.MAX_VALUE) {
+        LockSupport.park(this);
+      } else if (waitNanos > 0) {
+        LockSupport.parkNanos(this, waitNanos);
       }
-    } catch (InterruptedException ie) {
-      LOG.info("Interrupted", ie);
     }
   }
 
+  private static RequestPriority priorityOf(Runnable r) {
+    return r instanceof RateLimitedTask ? ((RateLimitedTask) r).priority() : RequestPriority.NORMAL;
+  }
+
+  private static boolean isExpired(Runnable r) {
+    return r instanceof RateLimitedTask && ((RateLimitedTask) r).remainingNanos() <= 0;
+  }
+
+  /** Runs a task that has been counted into its lane's in-flight tasks. */
+  private void dispatch(final Lane lane, final Runnable r) {
+    if (delegate.isShutdown()) {
+      lane.inFlight.decrementAndGet();
+      return;
+    }
+    dispatchCounter.record(TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()));
+    try {
+      delegate.execute(
+          () -> {
+            INTERNAL_THREAD.set(Boolean.TRUE);
+            try {
+              r.run();
+            } finally {
+              INTERNAL_THREAD.remove();
+              finished(lane);
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      finished(lane);
+      throw e;
+    }
+  }
+
+  private void finished(Lane lane) {
+    lane.inFlight.decrementAndGet();
+    // A task may be waiting for the slot this one held.
+    LockSupport.unpark(delayThread);
+  }
+
   private static ThreadFactory threadFactory(final String name, final boolean daemon) {
     return new ThreadFactory() {
       @Override
@@ -96,22 +417,147 @@ public class RateLimitExecutorService implements ExecutorService, Runnable {
     };
   }
 
+  /**
+   * Returns a factory of daemon threads that submit requests on the library's behalf, such as
+   * timers that resend a request once its backoff has elapsed. Submissions from these threads are
+   * never blocked by the {@link QueueOverflowPolicy#BLOCK} policy, as one full lane would otherwise
+   * stall the work of every other.
+   *
+   * @param name The name of the threads.
+   */
+  public static ThreadFactory internalThreadFactory(final String name) {
+    return runnable -> {
+      Thread thread =
+          new Thread(
+              () -> {
+                INTERNAL_THREAD.set(Boolean.TRUE);
+                runnable.run();
+              },
+              name);
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
   @Override
   public void execute(Runnable runnable) {
-    queue.add(runnable);
+    execute(defaultLane, runnable);
+  }
+
+  /**
+   * Executes a request against the rate of the lane configured for its path or host, falling back
+   * to the default rate.
+   *
+   * @param host The host name of the request.
+   * @param path The URL path of the request.
+   * @param task The task that sends the request.
+   * @throws RequestRejectedException If the lane is full, or the task would wait too long.
+   */
+  public void execute(String host, String path, RateLimitedTask task) {
+    execute(laneFor(host, path), task);
+  }
+
+  private Lane laneFor(String host, String path) {
+    Lane lane = lanesByKey.get(path);
+    if (lane == null) {
+      lane = lanesByKey.get(host);
+    }
+    return lane != null ? lane : defaultLane;
+  }
+
+  private void execute(Lane lane, Runnable runnable) {
+    // Fast path: with nothing queued ahead of it, a task that finds a slot and a permit free is
+    // dispatched by the submitting thread without waking the delay thread.
+    if (lane.isEmpty() && lane.tryStart()) {
+      if (lane.tokenBucket.tryAcquire() == 0) {
+        dispatch(lane, runnable);
+        return;
+      }
+      lane.inFlight.decrementAndGet();
+    }
+    if (!reserveSlot(lane, runnable)) {
+      return;
+    }
+    lane.add(runnable);
+    LockSupport.unpark(delayThread);
+  }
+
+  /**
+   * Counts a task into {@code lane}, applying the capacity, overflow policy and wait limit.
+   *
+   * @return Whether to queue the task; {@code false} if its deadline passed while it waited for
+   *     room, in which case it has been told so.
+   */
+  private boolean reserveSlot(Lane lane, Runnable runnable) {
+    while (true) {
+      int depth = lane.depth.get();
+      double expectedWaitNanos = (depth + 1) * (TimeUnit.SECONDS.toNanos(1) / lane.qps());
+      if (expectedWaitNanos > maxQueueWaitNanos) {
+        throw reject(lane, "it would wait longer than the maximum queue wait");
+      }
+      if (depth < queueCapacity) {
+        if (lane.depth.compareAndSet(depth, depth + 1)) {
+          return true;
+        }
+        continue;
+      }
+      switch (overflowPolicy) {
+        case BLOCK:
+          if (delegate.isShutdown() || Thread.currentThread().isInterrupted()) {
+            throw reject(lane, "the queue is full");
+          }
+          if (INTERNAL_THREAD.get() != null) {
+            // Retries, hedges and follow-up requests were already admitted once; they go over
+            // capacity rather than park a thread that other lanes depend on.
+            lane.depth.incrementAndGet();
+            return true;
+          }
+          long remainingNanos =
+              runnable instanceof RateLimitedTask
+                  ? ((RateLimitedTask) runnable).remainingNanos()
+                  : Long.MAX_VALUE;
+          if (remainingNanos <= 0) {
+            ((RateLimitedTask) runnable).onDeadlineExceeded();
+            return false;
+          }
+          // The wait is short and the delay thread frees a slot at the lane's rate, so polling is
+          // simpler than a condition shared between producers and the delay thread.
+          LockSupport.parkNanos(
+              this, Math.min(remainingNanos, (long) (TimeUnit.SECONDS.toNanos(1) / lane.qps())));
+          break;
+        case DROP_OLDEST:
+          Runnable oldest = lane.pollOldestOfLowestPriority(priorityOf(runnable));
+          if (oldest == null) {
+            // Every waiting task is more urgent than this one.
+            throw reject(lane, "the queue is full of more urgent requests");
+          }
+          RequestRejectedException e =
+              reject(lane, "it was the oldest, least urgent request in a full queue");
+          if (oldest instanceof RateLimitedTask) {
+            ((RateLimitedTask) oldest).onRejected(e);
+          }
+          break;
+        default:
+          throw reject(lane, "the queue is full");
+      }
+    }
+  }
+
+  private RequestRejectedException reject(Lane lane, String reason) {
+    rejectedCount.increment();
+    int depth = lane.depth.get();
+    requestMetricsReporter.requestRejected(lane.name, depth);
+    return new RequestRejectedException(
+        String.format(
+            "Request rejected by rate limit '%s' because %s (%d waiting)",
+            lane.name, reason, depth));
   }
 
   @Override
   public void shutdown() {
     delegate.shutdown();
-    // we need this to break out of queue.take()
-    execute(
-        new Runnable() {
-          @Override
-          public void run() {
-            // do nothing
-          }
-        });
+    // we need this to break out of LockSupport.park()
+    LockSupport.unpark(delayThread);
   }
 
   // Everything below here is straight delegation.
@@ -119,14 +565,8 @@ public class RateLimitExecutorService implements ExecutorService, Runnable {
   @Override
   public List<Runnable> shutdownNow() {
     List<Runnable> tasks = delegate.shutdownNow();
-    // we need this to break out of queue.take()
-    execute(
-        new Runnable() {
-          @Override
-          public void run() {
-            // do nothing
-          }
-        });
+    // we need this to break out of LockSupport.park()
+    LockSupport.unpark(delayThread);
     return tasks;
   }
 
@@ -184,4 +624,161 @@ public class RateLimitExecutorService implements ExecutorService, Runnable {
       throws InterruptedException, ExecutionException, TimeoutException {
     return delegate.invokeAny(callables, l, timeUnit);
   }
+
+  /** The tasks waiting on one rate. */
+  private final class Lane {
+    final String name;
+    // One queue per priority. Producers append and drop without locking.
+    final Queue<Runnable>[] queues;
+    // Kept alongside the queues, as ConcurrentLinkedQueue.size() walks the whole queue.
+    final AtomicInteger depth = new AtomicInteger();
+    // Tasks dispatched and not yet finished.
+    final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int maxInFlight;
+    private boolean maxInFlightSet;
+    final TokenBucket tokenBucket;
+    // Smooth weighted round robin credit for each priority, only used by the delay thread.
+    private final int[] credits = new int[PRIORITIES.length];
+
+    // Feedback arrives once per response rather than once per dispatch, so the adaptive state is
+    // simply guarded by the lane's monitor.
+    private double maxQps;
+    private double qps;
+    private long lastDecreaseNanos = System.nanoTime() - DECREASE_INTERVAL_NANOS;
+
+    Lane(String name, int maxQps) {
+      this.name = name;
+      this.maxQps = maxQps;
+      this.qps = maxQps;
+      this.maxInFlight = maxQps;
+      this.tokenBucket = TokenBucket.create(maxQps);
+      @SuppressWarnings("unchecked")
+      Queue<Runnable>[] queues = new Queue[PRIORITIES.length];
+      for (int i = 0; i < queues.length; i++) {
+        queues[i] = new ConcurrentLinkedQueue<>();
+      }
+      this.queues = queues;
+    }
+
+    boolean isEmpty() {
+      for (Queue<Runnable> queue : queues) {
+        if (!queue.isEmpty()) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    void add(Runnable r) {
+      queues[priorityOf(r).ordinal()].add(r);
+    }
+
+    /**
+     * Takes the next task to dispatch. Each waiting priority earns its weight in credit per call,
+     * and the one with the most credit is served and pays back the weights of all the waiting
+     * priorities, which interleaves priorities in proportion to their weights.
+     */
+    Runnable poll() {
+      int[] weights = priorityWeights;
+      int totalWeight = 0;
+      int next = -1;
+      for (int i = 0; i < queues.length; i++) {
+        if (queues[i].isEmpty()) {
+          // Credit is not banked while a priority has nothing waiting.
+          credits[i] = 0;
+          continue;
+        }
+        credits[i] += weights[i];
+        totalWeight += weights[i];
+        if (next < 0 || credits[i] > credits[next]) {
+          next = i;
+        }
+      }
+      if (next < 0) {
+        return null;
+      }
+      credits[next] -= totalWeight;
+      Runnable r = queues[next].poll();
+      for (int i = 0; r == null && i < queues.length; i++) {
+        // Dropped by a producer since the check above, so take the most urgent task left.
+        r = queues[i].poll();
+      }
+      if (r != null) {
+        depth.decrementAndGet();
+      }
+      return r;
+    }
+
+    /** Counts a task into the running tasks, unless as many as allowed are already running. */
+    boolean tryStart() {
+      while (true) {
+        int running = inFlight.get();
+        if (running >= maxInFlight) {
+          return false;
+        }
+        if (inFlight.compareAndSet(running, running + 1)) {
+          return true;
+        }
+      }
+    }
+
+    /**
+     * Takes the oldest task of the lowest priority waiting, provided it is no more urgent than
+     * {@code priority}.
+     */
+    Runnable pollOldestOfLowestPriority(RequestPriority priority) {
+      for (int i = queues.length - 1; i >= priority.ordinal(); i--) {
+        Runnable r = queues[i].poll();
+        if (r != null) {
+          depth.decrementAndGet();
+          return r;
+        }
+      }
+      return null;
+    }
+
+    double qps() {
+      return tokenBucket.getRate();
+    }
+
+    synchronized void setMaxQps(int maxQps) {
+      this.maxQps = maxQps;
+      if (!maxInFlightSet) {
+        maxInFlight = maxQps;
+      }
+      setQps(maxQps);
+    }
+
+    synchronized void setMaxInFlight(int maxInFlight) {
+      if (maxInFlight < 1) {
+        throw new IllegalArgumentException("maxInFlight must be positive");
+      }
+      this.maxInFlight = maxInFlight;
+      maxInFlightSet = true;
+      LockSupport.unpark(delayThread);
+    }
+
+    synchronized void onResponse(boolean overQueryLimit) {
+      if (overQueryLimit) {
+        long now = System.nanoTime();
+        if (now - lastDecreaseNanos < DECREASE_INTERVAL_NANOS) {
+          return;
+        }
+        lastDecreaseNanos = now;
+        setQps(Math.max(MIN_ADAPTIVE_QPS, qps * MULTIPLICATIVE_DECREASE));
+      } else if (qps < maxQps) {
+        setQps(Math.min(maxQps, qps + ADDITIVE_INCREASE_QPS / qps));
+      }
+    }
+
+    private void setQps(double qps) {
+      boolean changed = Math.floor(qps) != Math.floor(this.qps);
+      this.qps = qps;
+      tokenBucket.setRate(qps);
+      // Increases are reported in whole queries per second, rather than on every response.
+      if (changed) {
+        requestMetricsReporter.rateLimitChanged(name, qps);
+      }
+    }
+  }
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps.internal;
+
+import com.google.maps.RequestPriority;
+import com.google.maps.errors.RequestRejectedException;
+
+/**
+ * A task run by the {@link RateLimitExecutorService} that carries its scheduling priority and
+ * deadline, and is told if it is dropped unrun.
+ */
+@FunctionalInterface
+public interface RateLimitedTask extends Runnable {
+
+  /**
+   * Called instead of {@link #run()} when the task is dropped from the queue to make room for
+   * another.
+   *
+   * @param e Describes why the task was dropped.
+   */
+  default void onRejected(RequestRejectedException e) {}
+
+  /** Returns the priority of the task among the others waiting for the same rate. */
+  default RequestPriority priority() {
+    return RequestPriority.NORMAL;
+  }
+
+  /**
+   * Returns how much longer the task is worth running. A task whose time has run out by the time it
+   * reaches the head of the queue is not run, and {@link #onDeadlineExceeded()} is called instead.
+   */
+  default long remainingNanos() {
+    return Long.MAX_VALUE;
+  }
+
+  /** Called instead of {@link #run()} when the task's deadline passes while it is queued. */
+  default void onDeadlineExceeded() {}
+}
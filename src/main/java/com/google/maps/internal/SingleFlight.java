@@ -0,0 +1,236 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps.internal;
+
+import com.google.maps.PendingResult;
+import com.google.maps.errors.ApiException;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical requests that are in flight at the same time, so that they share one network
+ * call.
+ *
+ * <p>A request joins a flight when it is started, not when it is created. If an identical request
+ * is already in flight, the new one waits for its result instead of sending its own; otherwise it
+ * sends the request and becomes the flight that later identical requests join. The flight ends when
+ * its result arrives, so requests started after that go to the network again.
+ *
+ * <p>Every request of a flight receives the same result object. Canceling one of them only detaches
+ * it; the network call is canceled once every request of the flight has been.
+ */
+public final class SingleFlight {
+
+  private final Map<String, Flight<?>> flights = new ConcurrentHashMap<>();
+
+  /**
+   * Returns a pending result that shares its network call with any identical request in flight
+   * when it is started.
+   *
+   * @param key What makes two requests identical, such as their full URL.
+   * @param call Creates the pending result that sends the request, if it is not coalesced.
+   * @param onCoalesced Run when the request joins a flight instead of sending its own call.
+   */
+  public <T> PendingResult<T> join(
+      String key, Supplier<PendingResult<T>> call, Runnable onCoalesced) {
+    return new CoalescedPendingResult<>(key, call, onCoalesced);
+  }
+
+  /** The number of requests in flight, each of which may have several callers. */
+  int inFlight() {
+    return flights.size();
+  }
+
+  private static final class Flight<T> {
+    private final PendingResult<T> call;
+    /** The callers that have not canceled; once it drops to zero, no one can join any more. */
+    private final AtomicInteger callers = new AtomicInteger(1);
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+
+    Flight(PendingResult<T> call) {
+      this.call = call;
+    }
+
+    boolean tryJoin() {
+      while (true) {
+        int count = callers.get();
+        if (count == 0) {
+          return false;
+        }
+        if (callers.compareAndSet(count, count + 1)) {
+          return true;
+        }
+      }
+    }
+
+    /** Returns whether the caller leaving was the last one. */
+    boolean leave() {
+      return callers.decrementAndGet() == 0;
+    }
+  }
+
+  private final class CoalescedPendingResult<T> implements PendingResult<T> {
+    private final String key;
+    private final Supplier<PendingResult<T>> call;
+    private final Runnable onCoalesced;
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+
+    private Flight<T> flight;
+
+    CoalescedPendingResult(String key, Supplier<PendingResult<T>> call, Runnable onCoalesced) {
+      this.key = key;
+      this.call = call;
+      this.onCoalesced = onCoalesced;
+    }
+
+    /** Joins or starts a flight, unless this request already has. */
+    private synchronized void execute() {
+      if (flight != null || result.isDone()) {
+        return;
+      }
+      @SuppressWarnings("unchecked")
+      Flight<T>[] joined = new Flight[1];
+      boolean[] started = new boolean[1];
+      flights.compute(
+          key,
+          (k, existing) -> {
+            if (existing != null && existing.tryJoin()) {
+              @SuppressWarnings("unchecked")
+              Flight<T> identical = (Flight<T>) existing;
+              joined[0] = identical;
+              return existing;
+            }
+            joined[0] = new Flight<>(call.get());
+            started[0] = true;
+            return joined[0];
+          });
+      flight = joined[0];
+      flight.result.whenComplete(
+          (value, error) -> {
+            if (error != null) {
+              result.completeExceptionally(error);
+            } else {
+              result.complete(value);
+            }
+          });
+      if (started[0]) {
+        // Sent outside of compute(), as the rate limiter may block the sending thread.
+        Flight<T> leader = flight;
+        leader
+            .call
+            .toCompletableFuture()
+            .whenComplete(
+                (value, error) -> {
+                  flights.remove(key, leader);
+                  if (error != null) {
+                    leader.result.completeExceptionally(error);
+                  } else {
+                    leader.result.complete(value);
+                  }
+                });
+      } else {
+        onCoalesced.run();
+      }
+    }
+
+    @Override
+    public void setCallback(Callback<T> callback) {
+      result.whenComplete(
+          (value, error) -> {
+            if (error != null) {
+              callback.onFailure(error);
+              return;
+            }
+            try {
+              callback.onResult(value);
+            } catch (Exception e) {
+              callback.onFailure(e);
+            }
+          });
+      execute();
+    }
+
+    @Override
+    public CompletableFuture<T> toCompletableFuture() {
+      final CompletableFuture<T> future = new CompletableFuture<>();
+      future.whenComplete(
+          (value, error) -> {
+            if (future.isCancelled()) {
+              cancel();
+            }
+          });
+      result.whenComplete(
+          (value, error) -> {
+            if (error != null) {
+              future.completeExceptionally(error);
+            } else {
+              future.complete(value);
+            }
+          });
+      execute();
+      return future;
+    }
+
+    @Override
+    public T await() throws ApiException, IOException, InterruptedException {
+      execute();
+      try {
+        return result.get();
+      } catch (ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof ApiException) {
+          throw (ApiException) cause;
+        } else if (cause instanceof IOException) {
+          throw (IOException) cause;
+        } else if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+          throw (Error) cause;
+        }
+        throw new IOException(cause);
+      }
+    }
+
+    @Override
+    public T awaitIgnoreError() {
+      try {
+        return await();
+      } catch (Exception e) {
+        return null;
+      }
+    }
+
+    @Override
+    public void cancel() {
+      Flight<T> joined;
+      synchronized (this) {
+        joined = flight;
+      }
+      if (!result.completeExceptionally(new IOException("Canceled")) || joined == null) {
+        return;
+      }
+      if (joined.leave()) {
+        flights.remove(key, joined);
+        joined.call.cancel();
+      }
+    }
+  }
+}
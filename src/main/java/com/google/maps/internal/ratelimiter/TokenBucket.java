@@ -0,0 +1,99 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps.internal.ratelimiter;
+
+import static com.google.maps.internal.ratelimiter.Preconditions.checkArgument;
+import static com.google.maps.internal.ratelimiter.Preconditions.checkNotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free rate limiter that hands out permits at a fixed rate, with no bursting.
+ *
+ * <p>A {@code TokenBucket} never blocks: {@link #tryAcquire()} either takes the next permit with a
+ * single compare-and-set, or reports how long until one is available. This is the generic cell
+ * rate algorithm; the only state is the time at which the next permit is due, so a limiter that is
+ * not asked for permits does not accumulate any, and idle time is never spent.
+ */
+public final class TokenBucket {
+
+  private final Ticker ticker;
+  /** The ticker time at which the next permit may be handed out. */
+  private final AtomicLong nextPermitNanos;
+
+  private volatile long intervalNanos;
+
+  private TokenBucket(double permitsPerSecond, Ticker ticker) {
+    this.ticker = checkNotNull(ticker);
+    this.nextPermitNanos = new AtomicLong(ticker.read());
+    setRate(permitsPerSecond);
+  }
+
+  /**
+   * Creates a {@code TokenBucket} with the specified stable throughput.
+   *
+   * @param permitsPerSecond The rate of the returned {@code TokenBucket}, measured in how many
+   *     permits become available per second.
+   * @return A new {@code TokenBucket}.
+   */
+  public static TokenBucket create(double permitsPerSecond) {
+    return create(permitsPerSecond, Ticker.systemTicker());
+  }
+
+  static TokenBucket create(double permitsPerSecond, Ticker ticker) {
+    return new TokenBucket(permitsPerSecond, ticker);
+  }
+
+  /**
+   * Updates the stable rate of this {@code TokenBucket}. A permit that has already been handed out
+   * keeps the spacing of the old rate.
+   *
+   * @param permitsPerSecond The new stable rate of this {@code TokenBucket}.
+   */
+  public void setRate(double permitsPerSecond) {
+    checkArgument(
+        permitsPerSecond > 0.0 && !Double.isNaN(permitsPerSecond), "rate must be positive");
+    this.intervalNanos = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+  }
+
+  /** Returns the stable rate, in permits per second, of this {@code TokenBucket}. */
+  public double getRate() {
+    return (double) TimeUnit.SECONDS.toNanos(1) / intervalNanos;
+  }
+
+  /**
+   * Takes a permit if one is available right now.
+   *
+   * @return {@code 0} if a permit was taken, otherwise the number of nanoseconds until the next
+   *     permit is due. Callers that get a positive value did not take a permit and must call again.
+   */
+  public long tryAcquire() {
+    while (true) {
+      long now = ticker.read();
+      long next = nextPermitNanos.get();
+      if (next - now > 0) {
+        return next - now;
+      }
+      // A caller that wakes up late still takes the permit of its slot, so late wake-ups don't
+      // slow the rate. Only a limiter left idle for a whole interval starts its schedule over.
+      long from = now - next < intervalNanos ? next : now;
+      if (nextPermitNanos.compareAndSet(next, from + intervalNanos)) {
+        return 0;
+      }
+    }
+  }
+}
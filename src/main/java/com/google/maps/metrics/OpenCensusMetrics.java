@@ -3,7 +3,9 @@ package com.google.maps.metrics;
 import io.opencensus.stats.Aggregation;
 import io.opencensus.stats.Aggregation.Count;
 import io.opencensus.stats.Aggregation.Distribution;
+import io.opencensus.stats.Aggregation.LastValue;
 import io.opencensus.stats.BucketBoundaries;
+import io.opencensus.stats.Measure.MeasureDouble;
 import io.opencensus.stats.Measure.MeasureLong;
 import io.opencensus.stats.Stats;
 import io.opencensus.stats.View;
@@ -25,6 +27,8 @@ public final class OpenCensusMetrics {
     public static final TagKey REQUEST_NAME = TagKey.create("request_name");
     public static final TagKey HTTP_CODE = TagKey.create("http_code");
     public static final TagKey API_STATUS = TagKey.create("api_status");
+    public static final TagKey CIRCUIT_STATE = TagKey.create("circuit_state");
+    public static final TagKey CACHE_RESULT = TagKey.create("cache_result");
   }
 
   public static final class Measures {
@@ -47,6 +51,42 @@ public final class OpenCensusMetrics {
             "maps.googleapis.com/measure/client/retry_count",
             "How many times any request was retried",
             "1");
+
+    public static final MeasureLong HEDGE_COUNT =
+        MeasureLong.create(
+            "maps.googleapis.com/measure/client/hedge_count",
+            "How many times any request was hedged",
+            "1");
+
+    public static final MeasureDouble RATE_LIMIT =
+        MeasureDouble.create(
+            "maps.googleapis.com/measure/client/rate_limit",
+            "Queries per second currently allowed by adaptive rate limiting",
+            "1/s");
+
+    public static final MeasureLong QUEUE_DEPTH =
+        MeasureLong.create(
+            "maps.googleapis.com/measure/client/rejected_queue_depth",
+            "Requests waiting in the queue that rejected a request",
+            "1");
+
+    public static final MeasureLong CIRCUIT_STATE_CHANGES =
+        MeasureLong.create(
+            "maps.googleapis.com/measure/client/circuit_state_changes",
+            "Circuit breaker state changes of an API endpoint",
+            "1");
+
+    public static final MeasureLong COALESCED_REQUESTS =
+        MeasureLong.create(
+            "maps.googleapis.com/measure/client/coalesced_requests",
+            "Requests that shared the network call of an identical request in flight",
+            "1");
+
+    public static final MeasureLong CACHE_LOOKUPS =
+        MeasureLong.create(
+            "maps.googleapis.com/measure/client/cache_lookups",
+            "Response cache lookups",
+            "1");
   }
 
   private static final class Aggregations {
@@ -54,6 +94,8 @@ public final class OpenCensusMetrics {
 
     private static final Aggregation COUNT = Count.create();
 
+    private static final Aggregation LAST_VALUE = LastValue.create();
+
     private static final Aggregation DISTRIBUTION_INTEGERS_10 =
         Distribution.create(
             BucketBoundaries.create(
@@ -106,6 +148,62 @@ public final class OpenCensusMetrics {
             Measures.RETRY_COUNT,
             Aggregations.DISTRIBUTION_INTEGERS_10,
             fields);
+
+    public static final View HEDGE_COUNT =
+        View.create(
+            View.Name.create("maps.googleapis.com/client/hedge_count"),
+            "Hedges per request",
+            Measures.HEDGE_COUNT,
+            Aggregations.DISTRIBUTION_INTEGERS_10,
+            fields);
+
+    public static final View RATE_LIMIT =
+        View.create(
+            View.Name.create("maps.googleapis.com/client/rate_limit"),
+            "Adaptive rate limit in queries per second",
+            Measures.RATE_LIMIT,
+            Aggregations.LAST_VALUE,
+            tags(Tags.REQUEST_NAME));
+
+    public static final View REJECTED_COUNT =
+        View.create(
+            View.Name.create("maps.googleapis.com/client/rejected_count"),
+            "Requests rejected or dropped by the rate limiter's queue",
+            Measures.QUEUE_DEPTH,
+            Aggregations.COUNT,
+            tags(Tags.REQUEST_NAME));
+
+    public static final View REJECTED_QUEUE_DEPTH =
+        View.create(
+            View.Name.create("maps.googleapis.com/client/rejected_queue_depth"),
+            "Queue depth when the rate limiter last rejected a request",
+            Measures.QUEUE_DEPTH,
+            Aggregations.LAST_VALUE,
+            tags(Tags.REQUEST_NAME));
+
+    public static final View CIRCUIT_STATE_CHANGES =
+        View.create(
+            View.Name.create("maps.googleapis.com/client/circuit_state_changes"),
+            "Circuit breaker state changes per endpoint and new state",
+            Measures.CIRCUIT_STATE_CHANGES,
+            Aggregations.COUNT,
+            tags(Tags.REQUEST_NAME, Tags.CIRCUIT_STATE));
+
+    public static final View COALESCED_COUNT =
+        View.create(
+            View.Name.create("maps.googleapis.com/client/coalesced_count"),
+            "Requests coalesced with an identical request in flight",
+            Measures.COALESCED_REQUESTS,
+            Aggregations.COUNT,
+            tags(Tags.REQUEST_NAME));
+
+    public static final View CACHE_LOOKUPS =
+        View.create(
+            View.Name.create("maps.googleapis.com/client/cache_lookups"),
+            "Response cache hits and misses",
+            Measures.CACHE_LOOKUPS,
+            Aggregations.COUNT,
+            tags(Tags.REQUEST_NAME, Tags.CACHE_RESULT));
   }
 
   public static void registerAllViews() {
@@ -115,7 +213,17 @@ public final class OpenCensusMetrics {
   public static void registerAllViews(ViewManager viewManager) {
     View[] views_to_register =
         new View[] {
-          Views.REQUEST_COUNT, Views.REQUEST_LATENCY, Views.NETWORK_LATENCY, Views.RETRY_COUNT
+          Views.REQUEST_COUNT,
+          Views.REQUEST_LATENCY,
+          Views.NETWORK_LATENCY,
+          Views.RETRY_COUNT,
+          Views.HEDGE_COUNT,
+          Views.RATE_LIMIT,
+          Views.REJECTED_COUNT,
+          Views.REJECTED_QUEUE_DEPTH,
+          Views.CIRCUIT_STATE_CHANGES,
+          Views.COALESCED_COUNT,
+          Views.CACHE_LOOKUPS
         };
     for (View view : views_to_register) {
       viewManager.registerView(view);
@@ -4,12 +4,14 @@ import io.opencensus.stats.StatsRecorder;
 import io.opencensus.tags.TagContext;
 import io.opencensus.tags.TagValue;
 import io.opencensus.tags.Tagger;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /** An OpenCensus logger that generates success and latency metrics. */
 final class OpenCensusRequestMetrics implements RequestMetrics {
   private final String requestName;
   private final Tagger tagger;
   private final StatsRecorder statsRecorder;
+  private final AtomicInteger hedgeCount = new AtomicInteger();
 
   private long requestStart;
   private long networkStart;
@@ -36,6 +38,11 @@ final class OpenCensusRequestMetrics implements RequestMetrics {
     this.networkTime += milliTime() - this.networkStart;
   }
 
+  @Override
+  public void hedged() {
+    hedgeCount.incrementAndGet();
+  }
+
   @Override
   public void endRequest(Exception exception, int httpStatusCode, long retryCount) {
     // multiple endRequest are ignored
@@ -58,6 +65,7 @@ final class OpenCensusRequestMetrics implements RequestMetrics {
         .put(OpenCensusMetrics.Measures.LATENCY, requestTime)
         .put(OpenCensusMetrics.Measures.NETWORK_LATENCY, this.networkTime)
         .put(OpenCensusMetrics.Measures.RETRY_COUNT, retryCount)
+        .put(OpenCensusMetrics.Measures.HEDGE_COUNT, hedgeCount.get())
         .record(tagContext);
   }
 
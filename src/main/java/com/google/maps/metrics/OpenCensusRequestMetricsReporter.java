@@ -1,7 +1,10 @@
 package com.google.maps.metrics;
 
+import com.google.maps.CircuitState;
 import io.opencensus.stats.Stats;
 import io.opencensus.stats.StatsRecorder;
+import io.opencensus.tags.TagContext;
+import io.opencensus.tags.TagValue;
 import io.opencensus.tags.Tagger;
 import io.opencensus.tags.Tags;
 
@@ -16,4 +19,71 @@ public final class OpenCensusRequestMetricsReporter implements RequestMetricsRep
   public RequestMetrics newRequest(String requestName) {
     return new OpenCensusRequestMetrics(requestName, tagger, statsRecorder);
   }
+
+  @Override
+  public void rateLimitChanged(String limitName, double queriesPerSecond) {
+    TagContext tagContext =
+        tagger
+            .currentBuilder()
+            .putLocal(OpenCensusMetrics.Tags.REQUEST_NAME, TagValue.create(limitName))
+            .build();
+    statsRecorder
+        .newMeasureMap()
+        .put(OpenCensusMetrics.Measures.RATE_LIMIT, queriesPerSecond)
+        .record(tagContext);
+  }
+
+  @Override
+  public void requestRejected(String limitName, int queueDepth) {
+    TagContext tagContext =
+        tagger
+            .currentBuilder()
+            .putLocal(OpenCensusMetrics.Tags.REQUEST_NAME, TagValue.create(limitName))
+            .build();
+    statsRecorder
+        .newMeasureMap()
+        .put(OpenCensusMetrics.Measures.QUEUE_DEPTH, queueDepth)
+        .record(tagContext);
+  }
+
+  @Override
+  public void circuitStateChanged(String endpoint, CircuitState state) {
+    TagContext tagContext =
+        tagger
+            .currentBuilder()
+            .putLocal(OpenCensusMetrics.Tags.REQUEST_NAME, TagValue.create(endpoint))
+            .putLocal(OpenCensusMetrics.Tags.CIRCUIT_STATE, TagValue.create(state.name()))
+            .build();
+    statsRecorder
+        .newMeasureMap()
+        .put(OpenCensusMetrics.Measures.CIRCUIT_STATE_CHANGES, 1)
+        .record(tagContext);
+  }
+
+  @Override
+  public void requestCoalesced(String requestName) {
+    TagContext tagContext =
+        tagger
+            .currentBuilder()
+            .putLocal(OpenCensusMetrics.Tags.REQUEST_NAME, TagValue.create(requestName))
+            .build();
+    statsRecorder
+        .newMeasureMap()
+        .put(OpenCensusMetrics.Measures.COALESCED_REQUESTS, 1)
+        .record(tagContext);
+  }
+
+  @Override
+  public void cacheLookup(String requestName, boolean hit) {
+    TagContext tagContext =
+        tagger
+            .currentBuilder()
+            .putLocal(OpenCensusMetrics.Tags.REQUEST_NAME, TagValue.create(requestName))
+            .putLocal(OpenCensusMetrics.Tags.CACHE_RESULT, TagValue.create(hit ? "hit" : "miss"))
+            .build();
+    statsRecorder
+        .newMeasureMap()
+        .put(OpenCensusMetrics.Measures.CACHE_LOOKUPS, 1)
+        .record(tagContext);
+  }
 }
@@ -23,5 +23,8 @@ public interface RequestMetrics {
 
   void endNetwork();
 
+  /** Called when a slow attempt is hedged with a second, identical call. */
+  default void hedged() {}
+
   void endRequest(Exception exception, int httpStatusCode, long retryCount);
 }
@@ -1,7 +1,52 @@
 package com.google.maps.metrics;
 
+import com.google.maps.CircuitState;
+
 /** A type to report common metrics shared among all request types. */
 public interface RequestMetricsReporter {
 
   RequestMetrics newRequest(String requestName);
+
+  /**
+   * Called when adaptive rate limiting changes the rate enforced for a group of requests.
+   *
+   * @param limitName The URL path or host name the rate applies to, or {@code "default"} for
+   *     requests without a rate of their own.
+   * @param queriesPerSecond The new rate.
+   */
+  default void rateLimitChanged(String limitName, double queriesPerSecond) {}
+
+  /**
+   * Called when the rate limiter rejects a request, or drops a queued one, because its queue is
+   * full or the request would wait too long.
+   *
+   * @param limitName The URL path or host name whose queue rejected the request, or {@code
+   *     "default"}.
+   * @param queueDepth The number of requests waiting in that queue at the time.
+   */
+  default void requestRejected(String limitName, int queueDepth) {}
+
+  /**
+   * Called when the circuit breaker of an API endpoint changes state.
+   *
+   * @param endpoint The URL path of the endpoint.
+   * @param state The new state.
+   */
+  default void circuitStateChanged(String endpoint, CircuitState state) {}
+
+  /**
+   * Called when a request is coalesced with an identical one already in flight, instead of being
+   * sent on its own.
+   *
+   * @param requestName The name of the request, as passed to {@link #newRequest}.
+   */
+  default void requestCoalesced(String requestName) {}
+
+  /**
+   * Called when the response cache is asked for the result of a request.
+   *
+   * @param requestName The name of the request, as passed to {@link #newRequest}.
+   * @param hit Whether the cache had a result, so that the request was not sent.
+   */
+  default void cacheLookup(String requestName, boolean hit) {}
 }
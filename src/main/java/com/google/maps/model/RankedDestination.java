@@ -0,0 +1,41 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps.model;
+
+import java.io.Serializable;
+
+/** A candidate destination, with how far it is from an origin as the crow flies and by road. */
+public class RankedDestination implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  /** The index of the destination among the candidates given. */
+  public int index;
+
+  /** The location of the destination. */
+  public LatLng location;
+
+  /** The great-circle distance from the origin, in meters. */
+  public double greatCircleMeters;
+
+  /** The Distance Matrix element from the origin to the destination. */
+  public DistanceMatrixElement element;
+
+  @Override
+  public String toString() {
+    return String.format("[RankedDestination %d: %s, %s]", index, location, element);
+  }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+
+/** Test case for {@link DiskResponseCache}. */
+@Category(SmallTests.class)
+public class DiskResponseCacheTest {
+
+  private static final String GEOCODE = "/maps/api/geocode/json";
+  private static final String DIRECTIONS = "/maps/api/directions/json";
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testResponsesSurviveReopening() throws IOException {
+    Path directory = folder.getRoot().toPath();
+    try (DiskResponseCache cache = DiskResponseCache.open(directory, 1 << 20, 1, TimeUnit.DAYS)) {
+      cache.put(GEOCODE, "a", bytes("first"));
+      cache.put(GEOCODE, "a", bytes("second"));
+      cache.put(DIRECTIONS, "b", bytes("not cached"));
+      assertArrayEquals(bytes("second"), cache.get(GEOCODE, "a"));
+      assertNull(cache.get(DIRECTIONS, "b"));
+    }
+    try (DiskResponseCache cache = DiskResponseCache.open(directory, 1 << 20, 1, TimeUnit.DAYS)) {
+      assertArrayEquals(bytes("second"), cache.get(GEOCODE, "a"));
+      assertNull(cache.get(GEOCODE, "b"));
+      assertEquals(1, cache.size());
+    }
+  }
+
+  @Test
+  public void testLatestResponseWinsWhateverTheSegmentIds() throws IOException {
+    Path directory = folder.getRoot().toPath();
+    byte[] body = new byte[200];
+    try (DiskResponseCache cache = DiskResponseCache.open(directory, 1024, 10, Long.MAX_VALUE)) {
+      cache.put(GEOCODE, "a", bytes("first"));
+      for (int i = 0; i < 8; i++) {
+        cache.put(GEOCODE, "key" + i, body);
+      }
+      cache.put(GEOCODE, "a", bytes("second"));
+    }
+    // Compaction leaves only high ids behind, which a hash set would not list in order.
+    for (int id = 3; id >= 1; id--) {
+      Path segment = directory.resolve("segment-" + id + ".dat");
+      if (Files.exists(segment)) {
+        Files.move(segment, directory.resolve("segment-" + (id + 14) + ".dat"));
+      }
+    }
+
+    try (DiskResponseCache cache = DiskResponseCache.open(directory, 1024, 10, Long.MAX_VALUE)) {
+      assertArrayEquals(bytes("second"), cache.get(GEOCODE, "a"));
+    }
+    try (DiskResponseCache reader = DiskResponseCache.openReadOnly(directory, 1, TimeUnit.DAYS)) {
+      assertArrayEquals(bytes("second"), reader.get(GEOCODE, "a"));
+    }
+  }
+
+  @Test
+  public void testReadersSeeWhatTheWriterStores() throws IOException {
+    Path directory = folder.getRoot().toPath();
+    try (DiskResponseCache writer = DiskResponseCache.open(directory, 1 << 20, 1, TimeUnit.DAYS)) {
+      writer.put(GEOCODE, "a", bytes("first"));
+      try (DiskResponseCache reader =
+          DiskResponseCache.openReadOnly(directory, 1, TimeUnit.DAYS)) {
+        assertArrayEquals(bytes("first"), reader.get(GEOCODE, "a"));
+        reader.put(GEOCODE, "b", bytes("ignored"));
+
+        writer.put(GEOCODE, "c", bytes("later"));
+        assertNull(reader.get(GEOCODE, "c"));
+        reader.refresh();
+        assertArrayEquals(bytes("later"), reader.get(GEOCODE, "c"));
+        assertNull(writer.get(GEOCODE, "b"));
+      }
+    }
+  }
+
+  @Test
+  public void testReadersLetGoOfCompactedSegments() throws IOException {
+    Path fds = Paths.get("/proc/self/fd");
+    assumeTrue(Files.isDirectory(fds));
+    Path directory = folder.getRoot().toPath();
+    byte[] body = new byte[200];
+    try (DiskResponseCache writer = DiskResponseCache.open(directory, 1024, 3, Long.MAX_VALUE);
+        DiskResponseCache reader = DiskResponseCache.openReadOnly(directory, 1, TimeUnit.DAYS)) {
+      for (int round = 0; round < 5; round++) {
+        for (int i = 0; i < 20; i++) {
+          writer.put(GEOCODE, "key" + i, body);
+        }
+        reader.refresh();
+      }
+      assertArrayEquals(body, reader.get(GEOCODE, "key19"));
+
+      try (DirectoryStream<Path> open = Files.newDirectoryStream(fds)) {
+        for (Path fd : open) {
+          Path target;
+          try {
+            target = Files.readSymbolicLink(fd);
+          } catch (IOException e) {
+            // Closed since it was listed.
+            continue;
+          }
+          if (target.startsWith(directory)) {
+            assertTrue("Still open: " + target, Files.exists(target));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testOnlyOneWriter() throws IOException {
+    Path directory = folder.getRoot().toPath();
+    try (DiskResponseCache cache = DiskResponseCache.open(directory, 1 << 20, 1, TimeUnit.DAYS)) {
+      try {
+        DiskResponseCache.open(directory, 1 << 20, 1, TimeUnit.DAYS);
+        fail("Expected the second writer to be refused");
+      } catch (IOException expected) {
+      }
+    }
+    DiskResponseCache.open(directory, 1 << 20, 1, TimeUnit.DAYS).close();
+  }
+
+  @Test
+  public void testCompactionKeepsLiveResponsesAndEvictsOldest() throws IOException {
+    Path directory = folder.getRoot().toPath();
+    byte[] body = new byte[200];
+    try (DiskResponseCache cache = DiskResponseCache.open(directory, 1024, 3, Long.MAX_VALUE)) {
+      cache.put(GEOCODE, "live", bytes("kept"));
+      // Overwriting one key over and over leaves segments that are mostly dead.
+      for (int i = 0; i < 50; i++) {
+        cache.put(GEOCODE, "churn", body);
+      }
+      assertArrayEquals(bytes("kept"), cache.get(GEOCODE, "live"));
+      assertEquals(2, cache.size());
+
+      // More live responses than fit push out the oldest ones.
+      for (int i = 0; i < 50; i++) {
+        cache.put(GEOCODE, "key" + i, body);
+      }
+      assertNull(cache.get(GEOCODE, "live"));
+      assertNull(cache.get(GEOCODE, "key0"));
+      assertArrayEquals(body, cache.get(GEOCODE, "key49"));
+    }
+    try (DiskResponseCache cache = DiskResponseCache.open(directory, 1024, 3, Long.MAX_VALUE)) {
+      assertArrayEquals(body, cache.get(GEOCODE, "key49"));
+      assertEquals(3, directory.toFile().list((dir, name) -> name.endsWith(".dat")).length);
+    }
+  }
+
+  @Test
+  public void testExpiredResponsesAreNotReturned() throws Exception {
+    Path directory = folder.getRoot().toPath();
+    try (DiskResponseCache cache = DiskResponseCache.open(directory, 4096, 2, 0)) {
+      cache.put(GEOCODE, "a", bytes("stale"));
+      Thread.sleep(5);
+      assertNull(cache.get(GEOCODE, "a"));
+    }
+  }
+
+  private static byte[] bytes(String s) {
+    return s.getBytes(UTF_8);
+  }
+}
@@ -16,10 +16,12 @@
 package com.google.maps;
 
 import static com.google.maps.TestUtils.findLastThreadByName;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
@@ -29,26 +31,44 @@ import static org.mockito.Mockito.when;
 import com.google.maps.android.Context;
 import com.google.maps.android.PackageInfo;
 import com.google.maps.android.PackageManager;
+import com.google.maps.errors.CircuitOpenException;
+import com.google.maps.errors.DeadlineExceededException;
 import com.google.maps.errors.OverQueryLimitException;
 import com.google.maps.internal.ApiConfig;
 import com.google.maps.internal.ApiResponse;
 import com.google.maps.internal.HttpHeaders;
 import com.google.maps.internal.StringJoin;
+import com.google.maps.internal.ratelimiter.Ticker;
+import com.google.maps.metrics.NoOpRequestMetricsReporter;
+import com.google.maps.metrics.RequestMetrics;
+import com.google.maps.metrics.RequestMetricsReporter;
+import com.google.maps.model.GeocodingResponse;
 import com.google.maps.model.GeocodingResult;
+import com.google.maps.model.LatLng;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import okhttp3.Headers;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import okhttp3.mockwebserver.RecordedRequest;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.MockedStatic;
 
 @Category(MediumTests.class)
@@ -57,6 +77,8 @@ public class GeoApiContextTest {
   private MockWebServer server;
   private GeoApiContext.Builder builder;
 
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
   @Before
   public void Setup() {
     server = new MockWebServer();
@@ -205,6 +227,71 @@ public class GeoApiContextTest {
     server.shutdown();
   }
 
+  @Test
+  public void testErrorResponseRetriesWithCallback() throws Exception {
+    server.enqueue(createMockBadResponse());
+    server.enqueue(createMockBadResponse());
+    server.enqueue(createMockGoodResponse());
+    server.start();
+    setMockBaseUrl();
+
+    final BlockingQueue<Object> results = new ArrayBlockingQueue<>(1);
+    builder
+        .build()
+        .get(new ApiConfig("/"), GeocodingApi.Response.class, "k", "v")
+        .setCallback(
+            new PendingResult.Callback<GeocodingResponse>() {
+              @Override
+              public void onResult(GeocodingResponse result) {
+                results.add(result);
+              }
+
+              @Override
+              public void onFailure(Throwable e) {
+                results.add(e);
+              }
+            });
+
+    Object result = results.poll(10, TimeUnit.SECONDS);
+    assertTrue("Expected a result, got " + result, result instanceof GeocodingResponse);
+    assertEquals(1, ((GeocodingResponse) result).results.length);
+    assertEquals(3, server.getRequestCount());
+  }
+
+  @Test
+  public void testToCompletableFuture() throws Exception {
+    server.enqueue(createMockBadResponse());
+    server.enqueue(createMockGoodResponse());
+    server.start();
+    setMockBaseUrl();
+
+    String formattedAddress =
+        builder
+            .build()
+            .get(new ApiConfig("/"), GeocodingApi.Response.class, "k", "v")
+            .toCompletableFuture()
+            .thenApply(response -> response.results[0].formattedAddress)
+            .get(10, TimeUnit.SECONDS);
+
+    assertEquals("1600 Amphitheatre Parkway, Mountain View, CA 94043, USA", formattedAddress);
+    assertEquals(2, server.getRequestCount());
+  }
+
+  @Test(expected = IOException.class)
+  public void testCancellingCompletableFutureCancelsRequest() throws Exception {
+    server.enqueue(createMockGoodResponse().setHeadersDelay(10, TimeUnit.SECONDS));
+    server.start();
+    setMockBaseUrl();
+
+    PendingResult<GeocodingResponse> pendingResult =
+        builder.build().get(new ApiConfig("/"), GeocodingApi.Response.class, "k", "v");
+    CompletableFuture<GeocodingResponse> future = pendingResult.toCompletableFuture();
+    assertTrue(future.cancel(true));
+
+    // The underlying call is cancelled too, rather than left to complete in the background.
+    pendingResult.await();
+  }
+
   @Test(expected = IOException.class)
   public void testSettingMaxRetries() throws Exception {
     MockResponse errorResponse = createMockBadResponse();
@@ -224,6 +311,256 @@ public class GeoApiContextTest {
     builder.build().get(new ApiConfig("/"), GeocodingApi.Response.class, "k", "v").await();
   }
 
+  @Test
+  public void testDeadlineBoundsSlowResponse() throws Exception {
+    server.enqueue(createMockGoodResponse().setHeadersDelay(5, TimeUnit.SECONDS));
+    server.start();
+    setMockBaseUrl();
+
+    long start = System.nanoTime();
+    try {
+      GeocodingApi.geocode(builder.build(), "Sydney").deadline(Duration.ofMillis(300)).await();
+      fail("Expected the request to miss its deadline");
+    } catch (DeadlineExceededException expected) {
+      assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+    }
+  }
+
+  @Test
+  public void testDeadlineStopsRetries() throws Exception {
+    for (int i = 0; i < 5; i++) {
+      server.enqueue(createMockBadResponse());
+    }
+    server.start();
+    setMockBaseUrl();
+
+    long start = System.nanoTime();
+    try {
+      GeocodingApi.geocode(builder.build(), "Sydney").deadline(Duration.ofMillis(600)).await();
+      fail("Expected the request to fail");
+    } catch (IOException expected) {
+      // Without the deadline, this would retry for up to the 60s retry timeout.
+      assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+    }
+    assertTrue(server.getRequestCount() < 5);
+  }
+
+  @Test
+  public void testHedgingAnswersSlowRequestFromSecondCall() throws Exception {
+    // Hedging starts once 20 latencies of the API have been recorded.
+    int warmUpRequests = 20;
+    for (int i = 0; i < warmUpRequests; i++) {
+      server.enqueue(createMockGoodResponse());
+    }
+    server.enqueue(createMockGoodResponse().setHeadersDelay(5, TimeUnit.SECONDS));
+    server.enqueue(createMockGoodResponse());
+    server.start();
+    setMockBaseUrl();
+    GeoApiContext context = builder.hedgeRequests(95).build();
+
+    for (int i = 0; i < warmUpRequests; i++) {
+      GeocodingApi.geocode(context, "Sydney").await();
+    }
+    long start = System.nanoTime();
+    GeocodingResponse response = GeocodingApi.geocode(context, "Sydney").await();
+
+    assertEquals(1, response.results.length);
+    assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+    assertEquals(warmUpRequests + 2, server.getRequestCount());
+  }
+
+  @Test
+  public void testOpenCircuitStopsRetriesAndFailsFast() throws Exception {
+    for (int i = 0; i < 5; i++) {
+      server.enqueue(createMockBadResponse());
+    }
+    server.start();
+    setMockBaseUrl();
+    GeoApiContext context = builder.circuitBreaker(0.5, 2, 1, TimeUnit.MINUTES).build();
+
+    try {
+      GeocodingApi.geocode(context, "Sydney").await();
+      fail("Expected the request to fail");
+    } catch (IOException expected) {
+      // The retry of the first failure opened the circuit, so it was not retried again.
+      assertFalse(expected instanceof CircuitOpenException);
+    }
+    assertEquals(2, server.getRequestCount());
+
+    try {
+      GeocodingApi.geocode(context, "Sydney").await();
+      fail("Expected the request to fail fast");
+    } catch (CircuitOpenException expected) {
+      assertEquals(2, server.getRequestCount());
+    }
+  }
+
+  @Test
+  public void testIdenticalRequestsInFlightAreCoalesced() throws Exception {
+    server.enqueue(createMockGoodResponse().setHeadersDelay(500, TimeUnit.MILLISECONDS));
+    server.enqueue(createMockGoodResponse());
+    server.start();
+    setMockBaseUrl();
+    final AtomicInteger coalesced = new AtomicInteger();
+    GeoApiContext context =
+        builder
+            .coalesceRequests()
+            .requestMetricsReporter(
+                new RequestMetricsReporter() {
+                  @Override
+                  public RequestMetrics newRequest(String requestName) {
+                    return new NoOpRequestMetricsReporter().newRequest(requestName);
+                  }
+
+                  @Override
+                  public void requestCoalesced(String requestName) {
+                    coalesced.incrementAndGet();
+                  }
+                })
+            .build();
+
+    CompletableFuture<GeocodingResponse> first =
+        GeocodingApi.geocode(context, "Sydney").toCompletableFuture();
+    CompletableFuture<GeocodingResponse> second =
+        GeocodingApi.geocode(context, "Sydney").toCompletableFuture();
+
+    assertSame(first.get(), second.get());
+    assertEquals(1, server.getRequestCount());
+    assertEquals(1, coalesced.get());
+
+    // Once the first request has been answered, an identical one goes to the server again.
+    GeocodingApi.geocode(context, "Sydney").await();
+    assertEquals(2, server.getRequestCount());
+  }
+
+  @Test
+  public void testCachedResultsSkipTheNetwork() throws Exception {
+    server.enqueue(createMockGoodResponse());
+    server.enqueue(createMockGoodResponse());
+    server.start();
+    setMockBaseUrl();
+    InMemoryResponseCache cache =
+        new InMemoryResponseCache(1024 * 1024)
+            .timeToLive("/maps/api/geocode/json", 1, TimeUnit.HOURS);
+    GeoApiContext context = builder.responseCache(cache).build();
+
+    GeocodingResponse first =
+        GeocodingApi.newRequest(context).address("Sydney").region("au").await();
+    // The same parameters in another order are the same request.
+    GeocodingResponse second =
+        GeocodingApi.newRequest(context).region("au").address("Sydney").await();
+
+    assertSame(first, second);
+    assertEquals(1, server.getRequestCount());
+    assertEquals(1, cache.getHitCount());
+    assertTrue(cache.getSize() > 0);
+  }
+
+  @Test
+  public void testCachedResultsAreWeighedInBytes() throws Exception {
+    String body =
+        "{\"results\" : [{\"formatted_address\" : \"Z\u00fcrich, \u65e5\u672c\"}],"
+            + " \"status\" : \"OK\"}";
+    server.enqueue(new MockResponse().setBody(body));
+    server.start();
+    setMockBaseUrl();
+    InMemoryResponseCache cache =
+        new InMemoryResponseCache(1024 * 1024)
+            .timeToLive("/maps/api/geocode/json", 1, TimeUnit.HOURS);
+    GeoApiContext context = builder.responseCache(cache).build();
+
+    GeocodingApi.newRequest(context).address("Z\u00fcrich").await();
+
+    assertEquals(body.getBytes(UTF_8).length, cache.getSize());
+  }
+
+  @Test
+  public void testZeroResultsAreCachedForTheNegativeTimeToLive() throws Exception {
+    MockResponse zeroResults = new MockResponse();
+    zeroResults.setResponseCode(200);
+    zeroResults.setBody("{\n   \"results\" : [],\n   \"status\" : \"ZERO_RESULTS\"\n}");
+    server.enqueue(zeroResults);
+    server.enqueue(createMockGoodResponse());
+    server.start();
+    setMockBaseUrl();
+    final AtomicLong nanos = new AtomicLong();
+    InMemoryResponseCache cache =
+        new InMemoryResponseCache(
+                1024 * 1024,
+                new Ticker() {
+                  @Override
+                  public long read() {
+                    return nanos.get();
+                  }
+                })
+            .timeToLive("/maps/api/geocode/json", 1, TimeUnit.HOURS)
+            .negativeTimeToLive(1, TimeUnit.MINUTES);
+    GeoApiContext context = builder.responseCache(cache).build();
+
+    assertEquals(0, GeocodingApi.newRequest(context).address("Nowhere").await().results.length);
+    assertEquals(0, GeocodingApi.newRequest(context).address("Nowhere").await().results.length);
+    assertEquals(1, server.getRequestCount());
+
+    nanos.addAndGet(TimeUnit.MINUTES.toNanos(1));
+    assertEquals(1, GeocodingApi.newRequest(context).address("Nowhere").await().results.length);
+    assertEquals(2, server.getRequestCount());
+  }
+
+  @Test
+  public void testNearbyLocationsAreAnsweredFromTheirCell() throws Exception {
+    server.enqueue(createMockGoodResponse());
+    server.enqueue(createMockGoodResponse());
+    server.start();
+    setMockBaseUrl();
+    InMemoryResponseCache cache =
+        new InMemoryResponseCache(1024 * 1024)
+            .timeToLive("/maps/api/geocode/json", 1, TimeUnit.HOURS);
+    GeoApiContext context =
+        builder.responseCache(cache).cacheByCell("/maps/api/geocode/json", 8).build();
+
+    GeocodingApi.reverseGeocode(context, new LatLng(37.4220031, -122.0839771)).await();
+    GeocodingApi.reverseGeocode(context, new LatLng(37.4220039, -122.0839779)).await();
+    assertEquals(1, server.getRequestCount());
+
+    GeocodingApi.reverseGeocode(context, new LatLng(37.43, -122.08)).await();
+    assertEquals(2, server.getRequestCount());
+  }
+
+  @Test
+  public void testSchedulerIsSharedAndShutDownWithTheContext() {
+    GeoApiContext context = builder.build();
+    ScheduledExecutorService scheduler = context.scheduler();
+    assertSame(scheduler, context.scheduler());
+
+    context.shutdown();
+    assertTrue(scheduler.isShutdown());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCacheByCellRejectsApisWithoutALocation() {
+    builder.cacheByCell("/maps/api/directions/json", 8);
+  }
+
+  @Test
+  public void testStoredResponseBodiesOutliveTheContext() throws Exception {
+    server.enqueue(createMockGoodResponse());
+    server.start();
+    setMockBaseUrl();
+    Path directory = folder.getRoot().toPath();
+
+    try (DiskResponseCache cache = DiskResponseCache.open(directory, 1 << 20, 1, TimeUnit.DAYS)) {
+      GeoApiContext context = builder.responseBodyCache(cache).build();
+      GeocodingApi.newRequest(context).address("Sydney").await();
+      context.shutdown();
+    }
+    try (DiskResponseCache cache = DiskResponseCache.open(directory, 1 << 20, 1, TimeUnit.DAYS)) {
+      GeoApiContext context = builder.responseBodyCache(cache).build();
+      GeocodingResponse response = GeocodingApi.newRequest(context).address("Sydney").await();
+      assertEquals(1, response.results.length);
+      assertEquals(1, server.getRequestCount());
+    }
+  }
+
   private MockResponse createMockGoodResponse() {
     MockResponse response = new MockResponse();
     response.setResponseCode(200);
@@ -323,6 +660,35 @@ public class GeoApiContextTest {
     fail("Internal server error was expected but not observed.");
   }
 
+  @Test
+  public void testResponseBodyIsDecodedAsUtf8() throws Exception {
+    MockResponse response = new MockResponse();
+    response.setResponseCode(200);
+    response.setHeader("Content-Type", "application/json");
+    response.setBody(
+        "{\n"
+            + "   \"results\" : [\n"
+            + "      {\n"
+            + "         \"formatted_address\" : \"Bahnhofstrasse, 8001 Zürich, Switzerland\"\n"
+            + "      }\n"
+            + "   ],\n"
+            + "   \"status\" : \"OK\"\n"
+            + "}");
+    server.enqueue(response);
+    server.start();
+    setMockBaseUrl();
+
+    GeocodingResult[] result =
+        builder
+            .build()
+            .get(new ApiConfig("/"), GeocodingApi.Response.class, "k", "v")
+            .await()
+            .results;
+
+    assertEquals(1, result.length);
+    assertEquals("Bahnhofstrasse, 8001 Zürich, Switzerland", result[0].formattedAddress);
+  }
+
   @Test
   public void testQueryParamsHaveOrderPreserved() throws Exception {
     // This test is important for APIs (such as the speed limits API) where multiple parameters
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.maps.errors.ZeroResultsException;
+import com.google.maps.internal.ratelimiter.Ticker;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/** Test case for {@link InMemoryResponseCache}. */
+@Category(SmallTests.class)
+public class InMemoryResponseCacheTest {
+
+  private static final String GEOCODE = "/maps/api/geocode/json";
+  private static final String DIRECTIONS = "/maps/api/directions/json";
+
+  private final AtomicLong nanos = new AtomicLong();
+  private final Ticker ticker =
+      new Ticker() {
+        @Override
+        public long read() {
+          return nanos.get();
+        }
+      };
+
+  @Test
+  public void testCachesOnlyApisWithTimeToLive() {
+    InMemoryResponseCache cache =
+        new InMemoryResponseCache(1024).timeToLive(GEOCODE, 1, TimeUnit.HOURS);
+    Object geocode = new Object();
+    cache.put(GEOCODE, "a", geocode, 10);
+    cache.put(DIRECTIONS, "b", new Object(), 10);
+
+    assertSame(geocode, cache.get(GEOCODE, "a"));
+    assertNull(cache.get(DIRECTIONS, "b"));
+    assertEquals(1, cache.getHitCount());
+    assertEquals(0, cache.getMissCount());
+
+    cache.defaultTimeToLive(1, TimeUnit.HOURS);
+    assertNull(cache.get(DIRECTIONS, "b"));
+    assertEquals(1, cache.getMissCount());
+  }
+
+  @Test
+  public void testExpiredResultsAreNotReturned() {
+    InMemoryResponseCache cache =
+        new InMemoryResponseCache(1024, ticker).timeToLive(GEOCODE, 1, TimeUnit.MINUTES);
+    cache.put(GEOCODE, "a", new Object(), 10);
+    advance(1, TimeUnit.MINUTES);
+
+    assertNull(cache.get(GEOCODE, "a"));
+    assertEquals(0, cache.getSize());
+  }
+
+  @Test
+  public void testNegativeOutcomesHaveTheirOwnTimeToLive() {
+    InMemoryResponseCache cache =
+        new InMemoryResponseCache(1024, ticker).timeToLive(GEOCODE, 1, TimeUnit.HOURS);
+    ZeroResultsException zeroResults = new ZeroResultsException("none");
+    cache.putNegative(GEOCODE, "a", zeroResults, 10);
+    assertNull(cache.get(GEOCODE, "a"));
+
+    cache.negativeTimeToLive(1, TimeUnit.MINUTES);
+    cache.putNegative(GEOCODE, "a", zeroResults, 10);
+    cache.putNegative(DIRECTIONS, "b", zeroResults, 10);
+    assertSame(zeroResults, cache.get(GEOCODE, "a"));
+    assertNull(cache.get(DIRECTIONS, "b"));
+    advance(1, TimeUnit.MINUTES);
+    assertNull(cache.get(GEOCODE, "a"));
+  }
+
+  @Test
+  public void testStaleResultsAreServedWhileOneCallerRevalidates() {
+    InMemoryResponseCache cache =
+        new InMemoryResponseCache(1024, ticker)
+            .timeToLive(GEOCODE, 1, TimeUnit.MINUTES)
+            .staleWhileRevalidate(1, TimeUnit.HOURS);
+    Object stale = new Object();
+    cache.put(GEOCODE, "a", stale, 10);
+    assertFalse(cache.revalidate(GEOCODE, "a"));
+    advance(1, TimeUnit.MINUTES);
+
+    assertSame(stale, cache.get(GEOCODE, "a"));
+    assertTrue(cache.revalidate(GEOCODE, "a"));
+    assertSame(stale, cache.get(GEOCODE, "a"));
+    assertFalse(cache.revalidate(GEOCODE, "a"));
+
+    Object fresh = new Object();
+    cache.put(GEOCODE, "a", fresh, 10);
+    assertSame(fresh, cache.get(GEOCODE, "a"));
+    assertFalse(cache.revalidate(GEOCODE, "a"));
+  }
+
+  @Test
+  public void testLeastRecentlyUsedResultsAreEvictedBySize() {
+    InMemoryResponseCache cache =
+        new InMemoryResponseCache(100).timeToLive(GEOCODE, 1, TimeUnit.HOURS);
+    cache.put(GEOCODE, "a", new Object(), 40);
+    cache.put(GEOCODE, "b", new Object(), 40);
+    cache.get(GEOCODE, "a");
+    cache.put(GEOCODE, "c", new Object(), 40);
+
+    assertNull(cache.get(GEOCODE, "b"));
+    assertEquals(80, cache.getSize());
+
+    // Results of unknown size count as the default size, and those too big are not kept at all.
+    cache.put(GEOCODE, "d", new Object(), -1);
+    assertNull(cache.get(GEOCODE, "d"));
+    assertEquals(80, cache.getSize());
+  }
+
+  private void advance(long duration, TimeUnit unit) {
+    nanos.addAndGet(unit.toNanos(duration));
+  }
+}
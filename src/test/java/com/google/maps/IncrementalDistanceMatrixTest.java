@@ -0,0 +1,146 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps;
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.maps.internal.ratelimiter.Ticker;
+import com.google.maps.model.DistanceMatrix;
+import com.google.maps.model.TravelMode;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(MediumTests.class)
+public class IncrementalDistanceMatrixTest {
+
+  private MockWebServer server;
+  private GeoApiContext context;
+  private final AtomicInteger elementsRequested = new AtomicInteger();
+  private final AtomicLong nanos = new AtomicLong();
+  private final Ticker ticker =
+      new Ticker() {
+        @Override
+        public long read() {
+          return nanos.get();
+        }
+      };
+
+  @Before
+  public void setUp() throws Exception {
+    server = new MockWebServer();
+    server.setDispatcher(
+        new Dispatcher() {
+          @Override
+          public MockResponse dispatch(RecordedRequest request) {
+            HttpUrl url = request.getRequestUrl();
+            assertEquals("driving", url.queryParameter("mode"));
+            String[] origins = url.queryParameter("origins").split("\\|");
+            String[] destinations = url.queryParameter("destinations").split("\\|");
+            elementsRequested.addAndGet(origins.length * destinations.length);
+            return new MockResponse().setBody(matrix(origins, destinations));
+          }
+        });
+    server.start();
+    context =
+        new GeoApiContext.Builder()
+            .apiKey("AIzaFakeKey")
+            .baseUrlOverride("http://127.0.0.1:" + server.getPort())
+            .build();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    context.shutdown();
+    server.shutdown();
+  }
+
+  @Test
+  public void testOnlyNewOriginsAndDestinationsAreFetched() throws Exception {
+    IncrementalDistanceMatrix matrix =
+        new IncrementalDistanceMatrix(context, TravelMode.DRIVING, 15, TimeUnit.MINUTES, ticker);
+
+    assertMatrix(matrix.update(of("o1", "o2", "o3"), of("d1", "d2")));
+    assertEquals(6, elementsRequested.get());
+
+    // o3 and d1 leave, o4 and d3 arrive: o4 by every destination, then o1 and o2 by d3.
+    assertMatrix(matrix.update(of("o4", "o1", "o2"), of("d3", "d2")));
+    assertEquals(6 + 2 + 2, elementsRequested.get());
+
+    assertMatrix(matrix.update(of("o4", "o1", "o2"), of("d3", "d2")));
+    assertEquals(10, elementsRequested.get());
+    assertEquals(10, matrix.getFetchedCount());
+    assertEquals(2 + 6, matrix.getReusedCount());
+  }
+
+  @Test
+  public void testEverythingIsFetchedAgainInTheNextBucket() throws Exception {
+    IncrementalDistanceMatrix matrix =
+        new IncrementalDistanceMatrix(context, TravelMode.DRIVING, 15, TimeUnit.MINUTES, ticker);
+    matrix.update(of("o1", "o2"), of("d1", "d2"));
+    matrix.update(of("o1", "o2"), of("d1", "d2"));
+    assertEquals(4, elementsRequested.get());
+
+    nanos.addAndGet(TimeUnit.MINUTES.toNanos(15));
+    assertMatrix(matrix.update(of("o1", "o2"), of("d1", "d2")));
+    assertEquals(8, elementsRequested.get());
+  }
+
+  private static String[] of(String... places) {
+    return places;
+  }
+
+  private static void assertMatrix(DistanceMatrix matrix) {
+    for (int o = 0; o < matrix.rows.length; o++) {
+      for (int d = 0; d < matrix.rows[o].elements.length; d++) {
+        assertEquals(
+            meters(matrix.originAddresses[o], matrix.destinationAddresses[d]),
+            matrix.rows[o].elements[d].distance.inMeters);
+      }
+    }
+  }
+
+  private static long meters(String origin, String destination) {
+    return 1000L * Integer.parseInt(origin.substring(1))
+        + Integer.parseInt(destination.substring(1));
+  }
+
+  private static String matrix(String[] origins, String[] destinations) {
+    StringBuilder body = new StringBuilder("{\"status\" : \"OK\", \"originAddresses\" : [\"");
+    body.append(String.join("\", \"", origins)).append("\"], \"destinationAddresses\" : [\"");
+    body.append(String.join("\", \"", destinations)).append("\"], \"rows\" : [");
+    for (int o = 0; o < origins.length; o++) {
+      body.append(o == 0 ? "" : ",").append("{\"elements\" : [");
+      for (int d = 0; d < destinations.length; d++) {
+        body.append(d == 0 ? "" : ",")
+            .append("{\"status\" : \"OK\", \"distance\" : {\"value\" : ")
+            .append(meters(origins[o], destinations[d]))
+            .append(", \"text\" : \"\"}}");
+      }
+      body.append("]}");
+    }
+    return body.append("]}").toString();
+  }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.maps.errors.RequestDeniedException;
+import com.google.maps.model.DistanceMatrix;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(MediumTests.class)
+public class LargeDistanceMatrixRequestTest {
+
+  private MockWebServer server;
+  private GeoApiContext context;
+  private final AtomicInteger largestTile = new AtomicInteger();
+
+  @Before
+  public void setUp() throws Exception {
+    server = new MockWebServer();
+    server.start();
+    context =
+        new GeoApiContext.Builder()
+            .apiKey("AIzaFakeKey")
+            .baseUrlOverride("http://127.0.0.1:" + server.getPort())
+            .maxRetries(0)
+            .build();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    context.shutdown();
+    server.shutdown();
+  }
+
+  @Test
+  public void testTilesAreStitchedInOriginalOrder() throws Exception {
+    server.setDispatcher(matrixDispatcher(Integer.MAX_VALUE, null));
+
+    DistanceMatrix matrix =
+        DistanceMatrixApi.newLargeRequest(context)
+            .origins(places("o", 30))
+            .destinations(places("d", 7))
+            .await();
+
+    assertMatrix(matrix, 30, 7);
+    // Three tiles of 10 origins by 7 destinations; fewer would need more than 100 elements each.
+    assertEquals(70, largestTile.get());
+    assertEquals(3, server.getRequestCount());
+  }
+
+  @Test
+  public void testTilesWithTooManyElementsAreSplit() throws Exception {
+    server.setDispatcher(matrixDispatcher(20, null));
+
+    DistanceMatrix matrix =
+        DistanceMatrixApi.newLargeRequest(context)
+            .origins(places("o", 12))
+            .destinations(places("d", 9))
+            .await();
+
+    assertMatrix(matrix, 12, 9);
+  }
+
+  @Test
+  public void testFailedTilesAreSentAgainByThemselves() throws Exception {
+    Set<String> failedOnce = ConcurrentHashMap.newKeySet();
+    server.setDispatcher(matrixDispatcher(Integer.MAX_VALUE, failedOnce));
+
+    DistanceMatrix matrix =
+        DistanceMatrixApi.newLargeRequest(context)
+            .origins(places("o", 4))
+            .destinations(places("d", 50))
+            .await();
+
+    assertMatrix(matrix, 4, 50);
+    assertEquals(2, failedOnce.size());
+    assertEquals(4, server.getRequestCount());
+  }
+
+  @Test
+  public void testThrottledTilesWaitBeforeBeingSentAgain() throws Exception {
+    final List<Long> sentNanos = new CopyOnWriteArrayList<>();
+    final Dispatcher matrix = matrixDispatcher(Integer.MAX_VALUE, null);
+    server.setDispatcher(
+        new Dispatcher() {
+          @Override
+          public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+            sentNanos.add(System.nanoTime());
+            if (sentNanos.size() == 1) {
+              return new MockResponse().setBody("{\"status\" : \"OVER_QUERY_LIMIT\"}");
+            }
+            return matrix.dispatch(request);
+          }
+        });
+
+    DistanceMatrix result =
+        DistanceMatrixApi.newLargeRequest(context)
+            .origins(places("o", 2))
+            .destinations(places("d", 3))
+            .await();
+
+    assertMatrix(result, 2, 3);
+    assertEquals(2, sentNanos.size());
+    // The first backoff is half a second, less at most half of it for jitter.
+    long waitedMillis = TimeUnit.NANOSECONDS.toMillis(sentNanos.get(1) - sentNanos.get(0));
+    assertTrue("resent after " + waitedMillis + "ms", waitedMillis >= 250);
+  }
+
+  @Test(expected = RequestDeniedException.class)
+  public void testOtherFailuresFailTheRequest() throws Exception {
+    server.setDispatcher(
+        new Dispatcher() {
+          @Override
+          public MockResponse dispatch(RecordedRequest request) {
+            return new MockResponse()
+                .setBody("{\"status\" : \"REQUEST_DENIED\", \"errorMessage\" : \"denied\"}");
+          }
+        });
+
+    DistanceMatrixApi.newLargeRequest(context)
+        .origins(places("o", 30))
+        .destinations(places("d", 30))
+        .await();
+  }
+
+  private static String[] places(String prefix, int count) {
+    String[] places = new String[count];
+    for (int i = 0; i < count; i++) {
+      places[i] = prefix + i;
+    }
+    return places;
+  }
+
+  private static void assertMatrix(DistanceMatrix matrix, int origins, int destinations) {
+    assertEquals(origins, matrix.rows.length);
+    for (int o = 0; o < origins; o++) {
+      assertEquals("o" + o, matrix.originAddresses[o]);
+      assertEquals(destinations, matrix.rows[o].elements.length);
+      for (int d = 0; d < destinations; d++) {
+        assertEquals(o * 1000 + d, matrix.rows[o].elements[d].distance.inMeters);
+      }
+    }
+    for (int d = 0; d < destinations; d++) {
+      assertEquals("d" + d, matrix.destinationAddresses[d]);
+    }
+  }
+
+  /**
+   * Answers each tile with distances of {@code 1000 * origin + destination}, rejecting tiles with
+   * more than {@code maxElements} elements and, if {@code failedOnce} is given, failing the first
+   * attempt at each tile.
+   */
+  private Dispatcher matrixDispatcher(final int maxElements, final Set<String> failedOnce) {
+    return new Dispatcher() {
+      @Override
+      public MockResponse dispatch(RecordedRequest request) {
+        HttpUrl url = request.getRequestUrl();
+        String[] origins = url.queryParameter("origins").split("\\|");
+        String[] destinations = url.queryParameter("destinations").split("\\|");
+        int elements = origins.length * destinations.length;
+        if (elements > maxElements) {
+          return new MockResponse().setBody("{\"status\" : \"MAX_ELEMENTS_EXCEEDED\"}");
+        }
+        if (failedOnce != null && failedOnce.add(origins[0] + destinations[0])) {
+          return new MockResponse().setResponseCode(500).setBody("Server Error");
+        }
+        largestTile.accumulateAndGet(elements, Math::max);
+
+        StringBuilder body = new StringBuilder("{\"status\" : \"OK\", \"originAddresses\" : [");
+        body.append(quoted(origins)).append("], \"destinationAddresses\" : [");
+        body.append(quoted(destinations)).append("], \"rows\" : [");
+        for (int o = 0; o < origins.length; o++) {
+          body.append(o == 0 ? "" : ",").append("{\"elements\" : [");
+          for (int d = 0; d < destinations.length; d++) {
+            long meters =
+                1000L * Integer.parseInt(origins[o].substring(1))
+                    + Integer.parseInt(destinations[d].substring(1));
+            body.append(d == 0 ? "" : ",")
+                .append("{\"status\" : \"OK\", \"distance\" : {\"value\" : ")
+                .append(meters)
+                .append(", \"text\" : \"\"}}");
+          }
+          body.append("]}");
+        }
+        return new MockResponse().setBody(body.append("]}").toString());
+      }
+    };
+  }
+
+  private static String quoted(String[] values) {
+    StringBuilder quoted = new StringBuilder();
+    for (String value : values) {
+      quoted.append(quoted.length() == 0 ? "\"" : ", \"").append(value).append('"');
+    }
+    return quoted.toString();
+  }
+}
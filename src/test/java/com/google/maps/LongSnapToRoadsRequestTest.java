@@ -0,0 +1,164 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps;
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.maps.errors.RequestDeniedException;
+import com.google.maps.model.LatLng;
+import com.google.maps.model.SnappedPoint;
+import java.util.Locale;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(MediumTests.class)
+public class LongSnapToRoadsRequestTest {
+
+  private MockWebServer server;
+  private GeoApiContext context;
+
+  @Before
+  public void setUp() throws Exception {
+    server = new MockWebServer();
+    server.start();
+    context =
+        new GeoApiContext.Builder()
+            .apiKey("AIzaFakeKey")
+            .baseUrlOverride("http://127.0.0.1:" + server.getPort())
+            .maxRetries(0)
+            .build();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    context.shutdown();
+    server.shutdown();
+  }
+
+  @Test
+  public void testWindowsAreStitchedWithoutDuplicates() throws Exception {
+    server.setDispatcher(snapDispatcher());
+
+    SnappedPoint[] snapped = RoadsApi.snapToRoadsLong(context, false, trace(250)).await();
+
+    // Windows of points 0-99, 90-189 and 180-249.
+    assertEquals(3, server.getRequestCount());
+    assertEquals(250, snapped.length);
+    for (int i = 0; i < snapped.length; i++) {
+      assertEquals(i, snapped[i].originalIndex);
+      assertEquals("road" + i, snapped[i].placeId);
+    }
+  }
+
+  @Test
+  public void testInterpolatedPointsAreKeptOnce() throws Exception {
+    server.setDispatcher(snapDispatcher());
+
+    SnappedPoint[] snapped =
+        RoadsApi.snapToRoadsLong(context, true, trace(50))
+            .windowLimits(20, 6)
+            .maxConcurrentWindows(2)
+            .await();
+
+    // Windows of points 0-19, 14-33, 28-47 and 42-49, with a point interpolated after each but the
+    // last of a window.
+    assertEquals(4, server.getRequestCount());
+    assertEquals(99, snapped.length);
+    for (int i = 0; i < 50; i++) {
+      assertEquals(i, snapped[2 * i].originalIndex);
+      assertEquals("road" + i, snapped[2 * i].placeId);
+      if (i < 49) {
+        assertEquals(-1, snapped[2 * i + 1].originalIndex);
+        assertEquals("between" + i, snapped[2 * i + 1].placeId);
+      }
+    }
+  }
+
+  @Test
+  public void testShortPathsAreSentWhole() throws Exception {
+    server.setDispatcher(snapDispatcher());
+
+    SnappedPoint[] snapped = RoadsApi.snapToRoadsLong(context, false, trace(100)).await();
+
+    assertEquals(1, server.getRequestCount());
+    assertEquals(100, snapped.length);
+  }
+
+  @Test(expected = RequestDeniedException.class)
+  public void testFailedWindowsFailTheRequest() throws Exception {
+    server.setDispatcher(
+        new Dispatcher() {
+          @Override
+          public MockResponse dispatch(RecordedRequest request) {
+            return new MockResponse()
+                .setBody(
+                    "{\"error\" : {\"code\" : 403, \"message\" : \"denied\","
+                        + " \"status\" : \"PERMISSION_DENIED\"}}");
+          }
+        });
+
+    RoadsApi.snapToRoadsLong(context, false, trace(250)).await();
+  }
+
+  /** A path heading north, with point {@code i} at {@code i / 10000} degrees of latitude. */
+  private static LatLng[] trace(int count) {
+    LatLng[] trace = new LatLng[count];
+    for (int i = 0; i < count; i++) {
+      trace[i] = new LatLng(i / 10000.0, 151.2);
+    }
+    return trace;
+  }
+
+  /**
+   * Snaps each point of a window to the road named for its index in the whole trace and, if asked
+   * to interpolate, adds a point between each pair of neighbours.
+   */
+  private static Dispatcher snapDispatcher() {
+    return new Dispatcher() {
+      @Override
+      public MockResponse dispatch(RecordedRequest request) {
+        String[] path = request.getRequestUrl().queryParameter("path").split("\\|");
+        boolean interpolate =
+            Boolean.parseBoolean(request.getRequestUrl().queryParameter("interpolate"));
+        StringBuilder body = new StringBuilder("{\"snappedPoints\" : [");
+        for (int i = 0; i < path.length; i++) {
+          double lat = Double.parseDouble(path[i].split(",")[0]);
+          long index = Math.round(lat * 10000);
+          body.append(i == 0 ? "" : ",").append(point(lat, i, "road" + index));
+          if (interpolate && i + 1 < path.length) {
+            body.append(",").append(point(lat + 0.00005, -1, "between" + index));
+          }
+        }
+        return new MockResponse().setBody(body.append("]}").toString());
+      }
+    };
+  }
+
+  private static String point(double lat, int originalIndex, String placeId) {
+    return String.format(
+        Locale.ENGLISH,
+        "{\"location\" : {\"latitude\" : %.8f, \"longitude\" : 151.2},%s \"placeId\" : \"%s\"}",
+        lat,
+        originalIndex < 0 ? "" : " \"originalIndex\" : " + originalIndex + ",",
+        placeId);
+  }
+}
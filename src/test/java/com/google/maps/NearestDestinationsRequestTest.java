@@ -0,0 +1,129 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps;
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.maps.model.LatLng;
+import com.google.maps.model.RankedDestination;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(MediumTests.class)
+public class NearestDestinationsRequestTest {
+
+  private static final LatLng ORIGIN = new LatLng(0, 0);
+
+  private MockWebServer server;
+  private GeoApiContext context;
+  private final Set<String> sent = ConcurrentHashMap.newKeySet();
+
+  @Before
+  public void setUp() throws Exception {
+    server = new MockWebServer();
+    server.start();
+    server.setDispatcher(roadDispatcher());
+    context =
+        new GeoApiContext.Builder()
+            .apiKey("AIzaFakeKey")
+            .baseUrlOverride("http://127.0.0.1:" + server.getPort())
+            .maxRetries(0)
+            .build();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    context.shutdown();
+    server.shutdown();
+  }
+
+  @Test
+  public void testOnlyTheNearestCandidatesAreSent() throws Exception {
+    RankedDestination[] nearest =
+        DistanceMatrixApi.newNearestRequest(context, ORIGIN, candidates(20))
+            .limit(3)
+            .safetyMargin(2)
+            .await();
+
+    // The six candidates nearest as the crow flies are the last six, 0.01 to 0.06 degrees east.
+    assertEquals(6, sent.size());
+    for (int i = 1; i <= 6; i++) {
+      assertEquals(true, sent.contains(new LatLng(0, 0.01 * i).toUrlValue()));
+    }
+    assertEquals(3, nearest.length);
+  }
+
+  @Test
+  public void testAnswerIsRankedByRoadDistance() throws Exception {
+    RankedDestination[] nearest =
+        DistanceMatrixApi.newNearestRequest(context, ORIGIN, candidates(20)).limit(3).await();
+
+    // The nearest candidate is across a river and the next can't be reached by road.
+    assertEquals(17, nearest[0].index);
+    assertEquals(16, nearest[1].index);
+    assertEquals(15, nearest[2].index);
+    assertEquals(0.03, nearest[0].location.lng, 1e-9);
+    assertEquals(3_340, nearest[0].greatCircleMeters, 10);
+    assertEquals(3_000, nearest[0].element.distance.inMeters);
+  }
+
+  /** Candidates due east of the origin, the farthest first, 0.01 degrees apart. */
+  private static LatLng[] candidates(int count) {
+    LatLng[] candidates = new LatLng[count];
+    for (int i = 0; i < count; i++) {
+      candidates[i] = new LatLng(0, 0.01 * (count - i));
+    }
+    return candidates;
+  }
+
+  /**
+   * Answers with road distances of 1000 meters per 0.01 degrees east, except that the nearest
+   * candidate is 50 kilometers away by road and the next has no route.
+   */
+  private Dispatcher roadDispatcher() {
+    return new Dispatcher() {
+      @Override
+      public MockResponse dispatch(RecordedRequest request) {
+        String[] destinations =
+            request.getRequestUrl().queryParameter("destinations").split("\\|");
+        StringBuilder body =
+            new StringBuilder("{\"status\" : \"OK\", \"rows\" : [{\"elements\" : [");
+        for (int d = 0; d < destinations.length; d++) {
+          sent.add(destinations[d]);
+          long hundredths = Math.round(Double.parseDouble(destinations[d].split(",")[1]) * 100);
+          body.append(d == 0 ? "" : ",");
+          if (hundredths == 2) {
+            body.append("{\"status\" : \"ZERO_RESULTS\"}");
+          } else {
+            long meters = hundredths == 1 ? 50_000 : hundredths * 1000;
+            body.append("{\"status\" : \"OK\", \"distance\" : {\"value\" : ")
+                .append(meters)
+                .append(", \"text\" : \"\"}}");
+          }
+        }
+        return new MockResponse().setBody(body.append("]}]}").toString());
+      }
+    };
+  }
+}
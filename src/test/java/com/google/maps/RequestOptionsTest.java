@@ -0,0 +1,67 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/** Test case for {@link RequestOptions}. */
+@Category(SmallTests.class)
+public class RequestOptionsTest {
+
+  @Test
+  public void testDeadlineCountsDownFromNow() {
+    RequestOptions options = new RequestOptions.Builder().deadline(Duration.ofSeconds(10)).build();
+
+    assertTrue(options.hasDeadline());
+    assertTrue(options.remainingNanos() > 0);
+    assertTrue(options.remainingNanos() <= Duration.ofSeconds(10).toNanos());
+  }
+
+  @Test
+  public void testDeadlinesTooFarAwayToCountAreNoDeadline() {
+    assertFalse(
+        new RequestOptions.Builder().deadline(Duration.ofDays(365L * 100)).build().hasDeadline());
+    assertFalse(
+        new RequestOptions.Builder()
+            .deadline(Duration.ofSeconds(Long.MAX_VALUE))
+            .build()
+            .hasDeadline());
+    assertFalse(new RequestOptions.Builder().deadline(Instant.MAX).build().hasDeadline());
+  }
+
+  @Test
+  public void testDeadlinesLongPassedHaveNoTimeLeft() {
+    RequestOptions options =
+        new RequestOptions.Builder().deadline(Duration.ofSeconds(Long.MIN_VALUE)).build();
+    assertTrue(options.hasDeadline());
+    assertTrue(options.remainingNanos() <= 0);
+
+    options = new RequestOptions.Builder().deadline(Instant.MIN).build();
+    assertTrue(options.hasDeadline());
+    assertTrue(options.remainingNanos() <= 0);
+
+    options =
+        new RequestOptions.Builder().deadline(Instant.now().minus(1, ChronoUnit.DAYS)).build();
+    assertTrue(options.remainingNanos() <= 0);
+  }
+}
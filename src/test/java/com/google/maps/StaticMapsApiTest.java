@@ -29,6 +29,8 @@ import com.google.maps.model.LatLng;
 import com.google.maps.model.Size;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
 import javax.imageio.ImageIO;
@@ -65,6 +67,44 @@ public class StaticMapsApiTest {
     }
   }
 
+  @Test
+  public void testStreamSydneyStaticMap() throws Exception {
+    try (LocalTestServerContext sc = new LocalTestServerContext(IMAGE)) {
+
+      StaticMapsRequest req = StaticMapsApi.newRequest(sc.context, new Size(WIDTH, HEIGHT));
+      req.center("Google Sydney");
+      req.zoom(16);
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      String contentType = req.awaitTo(out);
+      BufferedImage img = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+
+      assertEquals("image/png", contentType);
+      assertNotNull(img);
+      assertEquals(WIDTH, img.getWidth());
+      assertEquals(HEIGHT, img.getHeight());
+    }
+  }
+
+  @Test
+  public void testStreamSydneyStaticMapToFile() throws Exception {
+    try (LocalTestServerContext sc = new LocalTestServerContext(IMAGE)) {
+
+      StaticMapsRequest req = StaticMapsApi.newRequest(sc.context, new Size(WIDTH, HEIGHT));
+      req.center(SYDNEY);
+      req.zoom(16);
+      java.nio.file.Path file = Files.createTempFile("staticmap", ".png");
+      try {
+        req.awaitTo(file);
+        BufferedImage img = ImageIO.read(file.toFile());
+
+        assertNotNull(img);
+        assertEquals(WIDTH, img.getWidth());
+      } finally {
+        Files.deleteIfExists(file);
+      }
+    }
+  }
+
   @Test
   public void testGetSydneyLatLngStaticMap() throws Exception {
     try (LocalTestServerContext sc = new LocalTestServerContext(IMAGE)) {
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.google.maps.model.LatLng;
+import com.google.maps.model.SnappedPoint;
+import java.util.Locale;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(MediumTests.class)
+public class StreamingRoadSnapperTest {
+
+  private MockWebServer server;
+  private GeoApiContext context;
+  private final BlockingQueue<SnappedPoint> snapped = new LinkedBlockingQueue<>();
+  private final BlockingQueue<Throwable> failures = new LinkedBlockingQueue<>();
+  private StreamingRoadSnapper snapper;
+
+  @Before
+  public void setUp() throws Exception {
+    server = new MockWebServer();
+    server.setDispatcher(snapDispatcher());
+    server.start();
+    context =
+        new GeoApiContext.Builder()
+            .apiKey("AIzaFakeKey")
+            .baseUrlOverride("http://127.0.0.1:" + server.getPort())
+            .maxRetries(0)
+            .build();
+    snapper =
+        RoadsApi.newStreamingSnapper(
+                context,
+                new PendingResult.Callback<SnappedPoint[]>() {
+                  @Override
+                  public void onResult(SnappedPoint[] result) {
+                    for (SnappedPoint point : result) {
+                      snapped.add(point);
+                    }
+                  }
+
+                  @Override
+                  public void onFailure(Throwable e) {
+                    failures.add(e);
+                  }
+                })
+            .maxAge(1, TimeUnit.HOURS);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    context.shutdown();
+    server.shutdown();
+  }
+
+  @Test
+  public void testFullWindowsAreSentWithTheTailOfTheLast() throws Exception {
+    snapper.windowLimits(10, 3);
+    for (int i = 0; i < 24; i++) {
+      snapper.add(position(i));
+    }
+
+    for (int i = 0; i < 24; i++) {
+      SnappedPoint point = snapped.poll(5, TimeUnit.SECONDS);
+      assertEquals(i, point.originalIndex);
+      assertEquals("road" + i, point.placeId);
+    }
+    // Positions 0-9, then 7-16 and 14-23, each starting with three already snapped.
+    assertEquals(3, server.getRequestCount());
+    assertEquals(10, pathOf(server.takeRequest()).length);
+    String[] second = pathOf(server.takeRequest());
+    assertEquals(10, second.length);
+    assertEquals(position(7).toUrlValue(), second[0]);
+    assertNull(snapped.poll(100, TimeUnit.MILLISECONDS));
+    assertNull(failures.poll());
+  }
+
+  @Test
+  public void testPositionsAreSentOnceOldEnough() throws Exception {
+    snapper.maxAge(50, TimeUnit.MILLISECONDS);
+    for (int i = 0; i < 3; i++) {
+      snapper.add(position(i));
+    }
+
+    for (int i = 0; i < 3; i++) {
+      assertEquals(i, snapped.poll(5, TimeUnit.SECONDS).originalIndex);
+    }
+    assertEquals(1, server.getRequestCount());
+  }
+
+  @Test
+  public void testPointsInterpolatedAcrossWindowsAreHandedOnOnce() throws Exception {
+    snapper.interpolate(true).windowLimits(5, 2);
+    for (int i = 0; i < 8; i++) {
+      snapper.add(position(i));
+    }
+    snapper.close();
+
+    for (int i = 0; i < 8; i++) {
+      SnappedPoint point = snapped.poll(5, TimeUnit.SECONDS);
+      assertEquals(i, point.originalIndex);
+      if (i < 7) {
+        SnappedPoint between = snapped.poll(5, TimeUnit.SECONDS);
+        assertEquals(-1, between.originalIndex);
+        assertEquals("between" + i, between.placeId);
+      }
+    }
+    assertEquals(2, server.getRequestCount());
+    assertNull(snapped.poll(100, TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  public void testOldestUnsentPositionsAreDroppedWhenTheBufferIsFull() throws Exception {
+    snapper.maxBufferedPoints(2);
+    for (int i = 0; i < 5; i++) {
+      snapper.add(position(i));
+    }
+    assertEquals(3, snapper.getDroppedCount());
+    snapper.close();
+
+    assertEquals(3, snapped.poll(5, TimeUnit.SECONDS).originalIndex);
+    assertEquals(4, snapped.poll(5, TimeUnit.SECONDS).originalIndex);
+    assertEquals(5, snapper.getAddedCount());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testClosedSnapperRejectsPositions() {
+    snapper.close();
+    snapper.add(position(0));
+  }
+
+  /** Position {@code i} of a vehicle heading north, at {@code i / 10000} degrees of latitude. */
+  private static LatLng position(int i) {
+    return new LatLng(i / 10000.0, 151.2);
+  }
+
+  private static String[] pathOf(RecordedRequest request) {
+    return request.getRequestUrl().queryParameter("path").split("\\|");
+  }
+
+  /**
+   * Snaps each position to the road named for its index among all positions and, if asked to
+   * interpolate, adds a point between each pair of neighbours.
+   */
+  private static Dispatcher snapDispatcher() {
+    return new Dispatcher() {
+      @Override
+      public MockResponse dispatch(RecordedRequest request) {
+        String[] path = pathOf(request);
+        boolean interpolate =
+            Boolean.parseBoolean(request.getRequestUrl().queryParameter("interpolate"));
+        StringBuilder body = new StringBuilder("{\"snappedPoints\" : [");
+        for (int i = 0; i < path.length; i++) {
+          double lat = Double.parseDouble(path[i].split(",")[0]);
+          long index = Math.round(lat * 10000);
+          body.append(i == 0 ? "" : ",").append(point(lat, i, "road" + index));
+          if (interpolate && i + 1 < path.length) {
+            body.append(",").append(point(lat + 0.00005, -1, "between" + index));
+          }
+        }
+        return new MockResponse().setBody(body.append("]}").toString());
+      }
+    };
+  }
+
+  private static String point(double lat, int originalIndex, String placeId) {
+    return String.format(
+        Locale.ENGLISH,
+        "{\"location\" : {\"latitude\" : %.8f, \"longitude\" : 151.2},%s \"placeId\" : \"%s\"}",
+        lat,
+        originalIndex < 0 ? "" : " \"originalIndex\" : " + originalIndex + ",",
+        placeId);
+  }
+}
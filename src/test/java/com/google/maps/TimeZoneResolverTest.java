@@ -0,0 +1,98 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.google.maps.model.LatLng;
+import java.nio.file.Path;
+import java.util.TimeZone;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+
+@Category(MediumTests.class)
+public class TimeZoneResolverTest {
+
+  private static final LatLng SYDNEY = new LatLng(-33.8688, 151.2093);
+  private static final LatLng SYDNEY_OPERA_HOUSE = new LatLng(-33.8568, 151.2153);
+  private static final LatLng BONDI = new LatLng(-33.8915, 151.2767);
+  private static final LatLng MANLY = new LatLng(-33.7969, 151.2840);
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testAnswersFromTheApiAreLearned() throws Exception {
+    try (LocalTestServerContext sc =
+        new LocalTestServerContext(
+            "{\n"
+                + "   \"status\" : \"OK\",\n"
+                + "   \"timeZoneId\" : \"Australia/Sydney\"\n"
+                + "}\n")) {
+      TimeZoneResolver resolver = new TimeZoneResolver(sc.context, 4, 7, 1);
+
+      assertEquals(TimeZone.getTimeZone("Australia/Sydney"), resolver.getTimeZone(SYDNEY).await());
+      sc.assertParamValue(SYDNEY.toUrlValue(), "location");
+      assertEquals(
+          TimeZone.getTimeZone("Australia/Sydney"),
+          resolver.getTimeZone(SYDNEY_OPERA_HOUSE).await());
+
+      assertEquals(1, resolver.getRequestCount());
+      assertEquals(1, resolver.getLocalCount());
+    }
+  }
+
+  @Test
+  public void testCellsNeedEnoughAgreeingAnswers() {
+    TimeZoneResolver resolver = new TimeZoneResolver(null, 4, 7, 2);
+    resolver.learn(SYDNEY, "Australia/Sydney");
+    assertNull(resolver.lookUp(SYDNEY_OPERA_HOUSE));
+
+    resolver.learn(BONDI, "Australia/Sydney");
+    assertEquals("Australia/Sydney", resolver.lookUp(SYDNEY_OPERA_HOUSE));
+  }
+
+  @Test
+  public void testMixedCellsDeferToFinerCells() {
+    TimeZoneResolver resolver = new TimeZoneResolver(null, 4, 7, 1);
+    resolver.learn(SYDNEY, "Australia/Sydney");
+    // Made up, so that the coarse cell around Sydney holds two zones.
+    resolver.learn(BONDI, "Australia/Lord_Howe");
+
+    assertEquals("Australia/Sydney", resolver.lookUp(SYDNEY));
+    assertEquals("Australia/Sydney", resolver.lookUp(SYDNEY_OPERA_HOUSE));
+    assertEquals("Australia/Lord_Howe", resolver.lookUp(BONDI));
+    // In the mixed coarse cell, but in a finer cell that has no answers yet.
+    assertNull(resolver.lookUp(MANLY));
+  }
+
+  @Test
+  public void testIndexSurvivesSaveAndLoad() throws Exception {
+    Path file = folder.getRoot().toPath().resolve("timezones.idx");
+    TimeZoneResolver resolver = new TimeZoneResolver(null, 4, 7, 1);
+    resolver.learn(SYDNEY, "Australia/Sydney");
+    resolver.learn(BONDI, "Australia/Lord_Howe");
+    resolver.save(file);
+
+    TimeZoneResolver loaded = new TimeZoneResolver(null, 4, 7, 1);
+    loaded.load(file);
+    assertEquals("Australia/Sydney", loaded.lookUp(SYDNEY));
+    assertEquals("Australia/Lord_Howe", loaded.lookUp(BONDI));
+    assertNull(loaded.lookUp(MANLY));
+  }
+}
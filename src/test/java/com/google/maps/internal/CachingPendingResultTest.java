@@ -0,0 +1,85 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import com.google.maps.ResponseMetadata;
+import com.google.maps.SmallTests;
+import com.google.maps.errors.ApiException;
+import com.google.maps.errors.NotFoundException;
+import java.util.concurrent.ExecutionException;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/** Test case for {@link CachingPendingResult}. */
+@Category(SmallTests.class)
+public class CachingPendingResultTest {
+
+  @Test
+  public void testResultIsReturnedWhenTheCacheFails() throws Exception {
+    Object result = new Object();
+    CachingPendingResult<Object> caching =
+        new CachingPendingResult<>(
+            new CompletedPendingResult<>(result),
+            cached -> {
+              throw new IllegalStateException("cache is full");
+            });
+
+    assertSame(result, caching.await());
+  }
+
+  @Test
+  public void testErrorIsNotReplacedWhenTheCacheFails() throws Exception {
+    ApiException error = new NotFoundException("not found");
+    CachingPendingResult<Object> caching =
+        new CachingPendingResult<>(
+            CompletedPendingResult.failed(error),
+            (cached, response) -> {},
+            e -> {
+              throw new IllegalStateException("cache is full");
+            });
+
+    try {
+      caching.toCompletableFuture().get();
+      fail("expected the request's error");
+    } catch (ExecutionException e) {
+      assertSame(error, e.getCause());
+    }
+    try {
+      caching.await();
+      fail("expected the request's error");
+    } catch (ApiException e) {
+      assertSame(error, e);
+    }
+  }
+
+  @Test
+  public void testResultsOfHandlersWithoutMetadataAreCachedWithUnknownMetadata()
+      throws Exception {
+    final Object[] metadata = new Object[1];
+    new CachingPendingResult<>(
+            new CompletedPendingResult<>("result"),
+            (cached, response) -> metadata[0] = response,
+            e -> {})
+        .await();
+
+    assertSame(ResponseMetadata.UNKNOWN, metadata[0]);
+    assertEquals(-1, ResponseMetadata.UNKNOWN.size());
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.maps.CircuitState;
+import com.google.maps.SmallTests;
+import com.google.maps.internal.ratelimiter.Ticker;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/** Test case for {@link CircuitBreaker}. */
+@Category(SmallTests.class)
+public class CircuitBreakerTest {
+
+  private long nowNanos;
+
+  private final Ticker ticker =
+      new Ticker() {
+        @Override
+        public long read() {
+          return nowNanos;
+        }
+      };
+
+  private final CircuitBreaker breaker =
+      new CircuitBreakerRegistry(0.5, 4, 10, TimeUnit.SECONDS, ticker)
+          .forEndpoint("/maps/api/geocode/json");
+
+  @Test
+  public void testOpensOnceWindowReachesFailureRate() {
+    breaker.onFailure(breaker.tryAcquire());
+    breaker.onFailure(breaker.tryAcquire());
+    breaker.onSuccess(breaker.tryAcquire());
+    // Two failures out of three is over the threshold, but the window is not full yet.
+    assertEquals(CircuitState.CLOSED, breaker.state());
+
+    breaker.onSuccess(breaker.tryAcquire());
+    assertEquals(CircuitState.OPEN, breaker.state());
+    assertEquals(-1, breaker.tryAcquire());
+  }
+
+  @Test
+  public void testStaysClosedBelowFailureRate() {
+    for (int i = 0; i < 20; i++) {
+      breaker.onSuccess(breaker.tryAcquire());
+      breaker.onSuccess(breaker.tryAcquire());
+      breaker.onSuccess(breaker.tryAcquire());
+      breaker.onFailure(breaker.tryAcquire());
+    }
+    assertEquals(CircuitState.CLOSED, breaker.state());
+  }
+
+  @Test
+  public void testProbesCloseCircuitAfterOpenDuration() {
+    open();
+    nowNanos += TimeUnit.SECONDS.toNanos(10);
+
+    long[] probes = new long[CircuitBreaker.PROBES];
+    for (int i = 0; i < probes.length; i++) {
+      probes[i] = breaker.tryAcquire();
+      assertTrue(probes[i] >= 0);
+    }
+    assertEquals(CircuitState.HALF_OPEN, breaker.state());
+    // Only a trickle of requests is let through while probing.
+    assertEquals(-1, breaker.tryAcquire());
+
+    for (long probe : probes) {
+      breaker.onSuccess(probe);
+    }
+    assertEquals(CircuitState.CLOSED, breaker.state());
+  }
+
+  @Test
+  public void testFailedProbeReopensCircuit() {
+    open();
+    nowNanos += TimeUnit.SECONDS.toNanos(10);
+
+    breaker.onFailure(breaker.tryAcquire());
+    assertEquals(CircuitState.OPEN, breaker.state());
+    assertEquals(-1, breaker.tryAcquire());
+  }
+
+  @Test
+  public void testOutcomesFromBeforeStateChangeAreIgnored() {
+    long stale = breaker.tryAcquire();
+    open();
+    nowNanos += TimeUnit.SECONDS.toNanos(10);
+    long probe = breaker.tryAcquire();
+
+    breaker.onFailure(stale);
+    assertEquals(CircuitState.HALF_OPEN, breaker.state());
+
+    // An ignored probe frees its place for another.
+    breaker.onIgnored(probe);
+    for (int i = 0; i < CircuitBreaker.PROBES; i++) {
+      assertTrue(breaker.tryAcquire() >= 0);
+    }
+  }
+
+  private void open() {
+    for (int i = 0; i < 4; i++) {
+      breaker.onFailure(breaker.tryAcquire());
+    }
+    assertEquals(CircuitState.OPEN, breaker.state());
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.maps.SmallTests;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/** Test case for {@link Geohash}. */
+@Category(SmallTests.class)
+public class GeohashTest {
+
+  @Test
+  public void testEncode() {
+    assertEquals("u4pruydqqvj", Geohash.encode(57.64911, 10.40744, 11));
+    assertEquals("r3gx2f7", Geohash.encode(-33.8688, 151.2093, 7));
+    assertEquals("s", Geohash.encode(0, 0, 1));
+  }
+
+  @Test
+  public void testNearbyLocationsShareACell() {
+    assertEquals(
+        Geohash.encode(37.4220031, -122.0839771, 8), Geohash.encode(37.4220039, -122.0839779, 8));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRejectsPrecisionOutOfRange() {
+    Geohash.encode(0, 0, 13);
+  }
+}
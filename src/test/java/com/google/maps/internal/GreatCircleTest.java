@@ -0,0 +1,58 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps.internal;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import com.google.maps.SmallTests;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/** Test case for {@link GreatCircle}. */
+@Category(SmallTests.class)
+public class GreatCircleTest {
+
+  @Test
+  public void testDistances() {
+    // Sydney Opera House to Melbourne's Flinders Street Station, Sydney to London, and to itself.
+    double[] distances =
+        GreatCircle.distances(
+            -33.8568,
+            151.2153,
+            new double[] {-37.8183, 51.5074, -33.8568},
+            new double[] {144.9671, -0.1278, 151.2153});
+
+    assertEquals(713_800, distances[0], 1_000);
+    assertEquals(16_990_000, distances[1], 10_000);
+    assertEquals(0, distances[2], 0);
+  }
+
+  @Test
+  public void testNearest() {
+    double[] distances = {5, 3, 9, 1, 7, 2, 8};
+
+    assertArrayEquals(new int[] {3, 5, 1}, GreatCircle.nearest(distances, 3));
+    assertArrayEquals(new int[] {3}, GreatCircle.nearest(distances, 1));
+    assertArrayEquals(new int[] {3, 5, 1, 0, 4, 6, 2}, GreatCircle.nearest(distances, 100));
+    assertEquals(0, GreatCircle.nearest(distances, 0).length);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRejectsMismatchedArrays() {
+    GreatCircle.distances(0, 0, new double[2], new double[3]);
+  }
+}
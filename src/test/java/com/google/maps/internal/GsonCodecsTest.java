@@ -0,0 +1,60 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import com.google.gson.FieldNamingPolicy;
+import com.google.maps.SmallTests;
+import com.google.maps.model.AddressType;
+import com.google.maps.model.GeocodingResult;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/** Test case for {@link GsonCodecs}. */
+@Category(SmallTests.class)
+public class GsonCodecsTest {
+
+  @Test
+  public void testCodecsAreSharedPerPolicy() {
+    for (FieldNamingPolicy policy : FieldNamingPolicy.values()) {
+      assertNotNull(GsonCodecs.forPolicy(policy));
+      assertSame(GsonCodecs.forPolicy(policy), GsonCodecs.forPolicy(policy));
+    }
+    assertNotSame(
+        GsonCodecs.forPolicy(FieldNamingPolicy.IDENTITY),
+        GsonCodecs.forPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES));
+  }
+
+  @Test
+  public void testSharedCodecUsesModelAdapters() {
+    GeocodingResult result =
+        GsonCodecs.forPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES)
+            .fromJson(
+                "{\"formatted_address\": \"Sydney NSW, Australia\","
+                    + " \"geometry\": {\"location\": {\"lat\": -33.86, \"lng\": 151.2}},"
+                    + " \"types\": [\"locality\", \"not_a_real_type\"]}",
+                GeocodingResult.class);
+
+    assertEquals("Sydney NSW, Australia", result.formattedAddress);
+    assertEquals(-33.86, result.geometry.location.lat, 0.0001);
+    assertEquals(AddressType.LOCALITY, result.types[0]);
+    assertEquals(AddressType.UNKNOWN, result.types[1]);
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.maps.SmallTests;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/** Test case for {@link HedgingPolicy}. */
+@Category(SmallTests.class)
+public class HedgingPolicyTest {
+
+  @Test
+  public void testNoDelayUntilEnoughSamples() {
+    HedgingPolicy policy = new HedgingPolicy(95);
+    for (int i = 1; i < HedgingPolicy.MIN_SAMPLES; i++) {
+      policy.recordLatency("/maps/api/geocode/json", i);
+    }
+    assertEquals(-1, policy.hedgeDelayNanos("/maps/api/geocode/json"));
+    assertEquals(-1, policy.hedgeDelayNanos("/maps/api/timezone/json"));
+
+    policy.recordLatency("/maps/api/geocode/json", HedgingPolicy.MIN_SAMPLES);
+    assertEquals(19, policy.hedgeDelayNanos("/maps/api/geocode/json"));
+    assertEquals(-1, policy.hedgeDelayNanos("/maps/api/timezone/json"));
+  }
+
+  @Test
+  public void testDelayIsPercentileOfRecentLatencies() {
+    HedgingPolicy policy = new HedgingPolicy(90);
+    for (int i = 1; i <= 100; i++) {
+      policy.recordLatency("/maps/api/geocode/json", i);
+    }
+    assertEquals(90, policy.hedgeDelayNanos("/maps/api/geocode/json"));
+
+    // Older latencies fall out of the window.
+    for (int i = 0; i < HedgingPolicy.WINDOW_SIZE; i++) {
+      policy.recordLatency("/maps/api/geocode/json", 1000);
+    }
+    assertEquals(1000, policy.hedgeDelayNanos("/maps/api/geocode/json"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRejectsPercentileOutOfRange() {
+    new HedgingPolicy(100);
+  }
+}
@@ -19,12 +19,26 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import com.google.maps.MediumTests;
+import com.google.maps.QueueOverflowPolicy;
+import com.google.maps.RequestPriority;
+import com.google.maps.errors.RequestRejectedException;
+import com.google.maps.metrics.NoOpRequestMetricsReporter;
+import com.google.maps.metrics.RequestMetrics;
+import com.google.maps.metrics.RequestMetricsReporter;
 import java.util.AbstractMap;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.slf4j.Logger;
@@ -84,6 +98,421 @@ public class RateLimitExecutorServiceTest {
     service.shutdown();
   }
 
+  @Test
+  public void testConcurrentProducersAreAllDispatchedAndCounted() throws Exception {
+    RateLimitExecutorService service = new RateLimitExecutorService();
+    service.setQueriesPerSecond(200);
+    final int producers = 8;
+    final int tasksPerProducer = 25;
+    final CountDownLatch done = new CountDownLatch(producers * tasksPerProducer);
+
+    Thread[] threads = new Thread[producers];
+    for (int i = 0; i < producers; i++) {
+      threads[i] =
+          new Thread(
+              () -> {
+                for (int j = 0; j < tasksPerProducer; j++) {
+                  service.execute(done::countDown);
+                }
+              });
+      threads[i].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+    assertEquals(producers * tasksPerProducer, service.getDispatchedCount());
+    long counted = 0;
+    for (long perSecond : service.getDispatchesPerSecond()) {
+      assertTrue(perSecond <= 200);
+      counted += perSecond;
+    }
+    assertEquals(producers * tasksPerProducer, counted);
+
+    service.shutdown();
+  }
+
+  @Test
+  public void testPerApiLimitsAreIndependent() throws Exception {
+    RateLimitExecutorService service = new RateLimitExecutorService();
+    service.setQueriesPerSecond(1);
+    service.setQueriesPerSecond("/maps/api/geocode/json", 100);
+    service.setQueriesPerSecond("roads.googleapis.com", 100);
+
+    final CountDownLatch geocodes = new CountDownLatch(20);
+    final CountDownLatch roads = new CountDownLatch(20);
+    final CountDownLatch others = new CountDownLatch(3);
+    for (int i = 0; i < 20; i++) {
+      service.execute("maps.googleapis.com", "/maps/api/geocode/json", geocodes::countDown);
+      service.execute("roads.googleapis.com", "/v1/snapToRoads", roads::countDown);
+    }
+    for (int i = 0; i < 3; i++) {
+      service.execute("maps.googleapis.com", "/maps/api/elevation/json", others::countDown);
+    }
+
+    // The 1 qps default must not hold back the APIs with their own, higher limits.
+    assertTrue(geocodes.await(1, TimeUnit.SECONDS));
+    assertTrue(roads.await(1, TimeUnit.SECONDS));
+    assertFalse(others.await(500, TimeUnit.MILLISECONDS));
+    assertTrue(others.await(5, TimeUnit.SECONDS));
+
+    service.shutdown();
+  }
+
+  @Test
+  public void testAdaptiveRateBacksOffAndRecovers() {
+    final List<Double> reportedRates = new CopyOnWriteArrayList<>();
+    RateLimitExecutorService service = new RateLimitExecutorService();
+    service.setQueriesPerSecond(40);
+    service.setRequestMetricsReporter(
+        new RequestMetricsReporter() {
+          @Override
+          public RequestMetrics newRequest(String requestName) {
+            return new NoOpRequestMetricsReporter().newRequest(requestName);
+          }
+
+          @Override
+          public void rateLimitChanged(String limitName, double queriesPerSecond) {
+            assertEquals("default", limitName);
+            reportedRates.add(queriesPerSecond);
+          }
+        });
+
+    // Feedback is ignored until adaptive mode is turned on.
+    service.onResponse("maps.googleapis.com", "/maps/api/geocode/json", true);
+    assertEquals(40.0, service.getQueriesPerSecond("maps.googleapis.com", "/"), 0.01);
+
+    service.setAdaptive(true);
+    service.onResponse("maps.googleapis.com", "/maps/api/geocode/json", true);
+    assertEquals(20.0, service.getQueriesPerSecond("maps.googleapis.com", "/"), 0.01);
+    // Errors from requests that were already in flight do not compound the back off.
+    service.onResponse("maps.googleapis.com", "/maps/api/geocode/json", true);
+    assertEquals(20.0, service.getQueriesPerSecond("maps.googleapis.com", "/"), 0.01);
+
+    // About a second's worth of clean responses adds about one query per second.
+    for (int i = 0; i < 21; i++) {
+      service.onResponse("maps.googleapis.com", "/maps/api/geocode/json", false);
+    }
+    double qps = service.getQueriesPerSecond("maps.googleapis.com", "/");
+    assertTrue(qps > 21.0 && qps < 22.0);
+    assertEquals(2, reportedRates.size());
+    assertEquals(20.0, reportedRates.get(0), 0.01);
+
+    // The configured rate is a ceiling.
+    for (int i = 0; i < 10000; i++) {
+      service.onResponse("maps.googleapis.com", "/maps/api/geocode/json", false);
+    }
+    assertEquals(40.0, service.getQueriesPerSecond("maps.googleapis.com", "/"), 0.01);
+
+    service.shutdown();
+  }
+
+  @Test
+  public void testFullQueueFailsFast() {
+    RateLimitExecutorService service = new RateLimitExecutorService();
+    service.setQueriesPerSecond(1);
+    service.setQueueCapacity(2, QueueOverflowPolicy.FAIL_FAST);
+
+    // The first task is dispatched straight away, the next two wait for permits.
+    for (int i = 0; i < 3; i++) {
+      service.execute("maps.googleapis.com", "/", () -> {});
+    }
+    assertEquals(2, service.getQueueDepth());
+    try {
+      service.execute("maps.googleapis.com", "/", () -> {});
+      fail("Expected the full queue to reject the task");
+    } catch (RequestRejectedException expected) {
+      assertEquals(1, service.getRejectedCount());
+    }
+
+    service.shutdown();
+  }
+
+  @Test
+  public void testFullQueueDropsOldest() {
+    RateLimitExecutorService service = new RateLimitExecutorService();
+    service.setQueriesPerSecond(1);
+    service.setQueueCapacity(2, QueueOverflowPolicy.DROP_OLDEST);
+    final List<Integer> dropped = new CopyOnWriteArrayList<>();
+
+    for (int i = 0; i < 5; i++) {
+      final int id = i;
+      service.execute(
+          "maps.googleapis.com",
+          "/",
+          new RateLimitedTask() {
+            @Override
+            public void run() {}
+
+            @Override
+            public void onRejected(RequestRejectedException e) {
+              dropped.add(id);
+            }
+          });
+    }
+
+    assertEquals(2, service.getQueueDepth());
+    assertEquals(Arrays.asList(1, 2), dropped);
+    assertEquals(2, service.getRejectedCount());
+
+    service.shutdown();
+  }
+
+  @Test
+  public void testFullQueueOnlyDropsLessUrgentRequests() {
+    RateLimitExecutorService service = new RateLimitExecutorService();
+    service.setQueriesPerSecond(1);
+    service.setQueueCapacity(2, QueueOverflowPolicy.DROP_OLDEST);
+    final List<RequestPriority> dropped = new CopyOnWriteArrayList<>();
+
+    service.execute(() -> {});
+    service.execute("maps.googleapis.com", "/", droppableTask(RequestPriority.LOW, dropped));
+    service.execute("maps.googleapis.com", "/", droppableTask(RequestPriority.HIGH, dropped));
+
+    // A high priority request makes room by dropping the low priority one...
+    service.execute("maps.googleapis.com", "/", droppableTask(RequestPriority.HIGH, dropped));
+    assertEquals(Arrays.asList(RequestPriority.LOW), dropped);
+    // ...but a low priority request can't displace either of the high priority ones.
+    try {
+      service.execute("maps.googleapis.com", "/", droppableTask(RequestPriority.LOW, dropped));
+      fail("Expected the low priority request to be rejected");
+    } catch (RequestRejectedException expected) {
+      assertEquals(Arrays.asList(RequestPriority.LOW), dropped);
+    }
+    assertEquals(2, service.getQueueDepth());
+    assertEquals(2, service.getRejectedCount());
+
+    service.shutdown();
+  }
+
+  private static RateLimitedTask droppableTask(
+      final RequestPriority priority, final List<RequestPriority> dropped) {
+    return new RateLimitedTask() {
+      @Override
+      public void run() {}
+
+      @Override
+      public RequestPriority priority() {
+        return priority;
+      }
+
+      @Override
+      public void onRejected(RequestRejectedException e) {
+        dropped.add(priority);
+      }
+    };
+  }
+
+  @Test
+  public void testBlockedSubmitterGivesUpAtTheDeadline() {
+    RateLimitExecutorService service = new RateLimitExecutorService();
+    service.setQueriesPerSecond(1);
+    service.setQueueCapacity(1, QueueOverflowPolicy.BLOCK);
+    service.execute(() -> {});
+    service.execute(() -> {});
+    final long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(200);
+    final AtomicInteger expired = new AtomicInteger();
+
+    long startNanos = System.nanoTime();
+    service.execute(
+        "maps.googleapis.com",
+        "/",
+        new RateLimitedTask() {
+          @Override
+          public void run() {}
+
+          @Override
+          public long remainingNanos() {
+            return deadlineNanos - System.nanoTime();
+          }
+
+          @Override
+          public void onDeadlineExceeded() {
+            expired.incrementAndGet();
+          }
+        });
+
+    // The queue only frees up after a second, well past the deadline.
+    assertEquals(1, expired.get());
+    assertTrue(System.nanoTime() - startNanos < TimeUnit.MILLISECONDS.toNanos(900));
+    assertEquals(1, service.getQueueDepth());
+
+    service.shutdown();
+  }
+
+  @Test
+  public void testInternalThreadsAreNeverBlocked() throws Exception {
+    RateLimitExecutorService service = new RateLimitExecutorService();
+    service.setQueriesPerSecond(1);
+    service.setQueueCapacity(1, QueueOverflowPolicy.BLOCK);
+    service.execute(() -> {});
+    service.execute(() -> {});
+    final CountDownLatch submitted = new CountDownLatch(3);
+
+    Thread timer =
+        RateLimitExecutorService.internalThreadFactory("Timer")
+            .newThread(
+                () -> {
+                  for (int i = 0; i < 3; i++) {
+                    service.execute(() -> {});
+                    submitted.countDown();
+                  }
+                });
+    timer.start();
+
+    assertTrue(submitted.await(200, TimeUnit.MILLISECONDS));
+    assertEquals(4, service.getQueueDepth());
+
+    service.shutdown();
+  }
+
+  @Test
+  public void testRequestsExpectedToWaitTooLongAreShed() {
+    RateLimitExecutorService service = new RateLimitExecutorService();
+    service.setQueriesPerSecond(10);
+    service.setMaxQueueWait(350, TimeUnit.MILLISECONDS);
+
+    int rejected = 0;
+    for (int i = 0; i < 10; i++) {
+      try {
+        service.execute("maps.googleapis.com", "/", () -> {});
+      } catch (RequestRejectedException e) {
+        rejected++;
+      }
+    }
+
+    // One task is dispatched at once and three fit in the 350ms at 10 qps.
+    assertEquals(6, rejected);
+    assertEquals(3, service.getQueueDepth());
+
+    service.shutdown();
+  }
+
+  @Test
+  public void testInFlightTasksAreBounded() throws Exception {
+    RateLimitExecutorService service = new RateLimitExecutorService();
+    service.setQueriesPerSecond(100);
+    service.setMaxInFlight(2);
+    final CountDownLatch release = new CountDownLatch(1);
+    final CountDownLatch done = new CountDownLatch(6);
+    final AtomicInteger started = new AtomicInteger();
+
+    for (int i = 0; i < 6; i++) {
+      service.execute(
+          () -> {
+            started.incrementAndGet();
+            try {
+              release.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+            done.countDown();
+          });
+    }
+
+    // Permits are plentiful, but two slow tasks hold every slot until they finish.
+    Thread.sleep(300);
+    assertEquals(2, started.get());
+    assertEquals(4, service.getQueueDepth());
+    release.countDown();
+    assertTrue(done.await(5, TimeUnit.SECONDS));
+    assertEquals(6, started.get());
+
+    service.shutdown();
+  }
+
+  @Test
+  public void testHigherPrioritiesAreServedByWeight() throws Exception {
+    RateLimitExecutorService service = new RateLimitExecutorService();
+    service.setQueriesPerSecond(20);
+    service.setPriorityWeight(RequestPriority.HIGH, 4);
+    service.setPriorityWeight(RequestPriority.LOW, 1);
+    final List<RequestPriority> order = new CopyOnWriteArrayList<>();
+    final CountDownLatch done = new CountDownLatch(21);
+
+    // The first task takes the free permit, the rest queue up behind it.
+    service.execute(done::countDown);
+    for (RequestPriority priority : Arrays.asList(RequestPriority.LOW, RequestPriority.HIGH)) {
+      for (int i = 0; i < 10; i++) {
+        service.execute("maps.googleapis.com", "/", prioritizedTask(priority, order, done));
+      }
+    }
+
+    assertTrue(done.await(5, TimeUnit.SECONDS));
+    // With weights of 4 to 1, the bulk work queued first still gets one dispatch in five.
+    assertEquals(
+        Arrays.asList(
+            RequestPriority.HIGH,
+            RequestPriority.HIGH,
+            RequestPriority.LOW,
+            RequestPriority.HIGH,
+            RequestPriority.HIGH,
+            RequestPriority.HIGH,
+            RequestPriority.HIGH,
+            RequestPriority.LOW,
+            RequestPriority.HIGH,
+            RequestPriority.HIGH),
+        order.subList(0, 10));
+
+    service.shutdown();
+  }
+
+  private static RateLimitedTask prioritizedTask(
+      final RequestPriority priority,
+      final List<RequestPriority> order,
+      final CountDownLatch done) {
+    return new RateLimitedTask() {
+      @Override
+      public void run() {
+        order.add(priority);
+        done.countDown();
+      }
+
+      @Override
+      public RequestPriority priority() {
+        return priority;
+      }
+    };
+  }
+
+  @Test
+  public void testExpiredTasksAreSkippedWithoutSpendingPermits() throws Exception {
+    RateLimitExecutorService service = new RateLimitExecutorService();
+    service.setQueriesPerSecond(2);
+    final CountDownLatch expired = new CountDownLatch(1);
+    final CountDownLatch ran = new CountDownLatch(2);
+
+    service.execute(ran::countDown);
+    service.execute(
+        "maps.googleapis.com",
+        "/",
+        new RateLimitedTask() {
+          @Override
+          public void run() {
+            fail("An expired task must not run");
+          }
+
+          @Override
+          public long remainingNanos() {
+            return 0;
+          }
+
+          @Override
+          public void onDeadlineExceeded() {
+            expired.countDown();
+          }
+        });
+    service.execute(ran::countDown);
+
+    // At 2 qps, the third task gets the second permit rather than waiting for a third.
+    assertTrue(expired.await(1, TimeUnit.SECONDS));
+    assertTrue(ran.await(800, TimeUnit.MILLISECONDS));
+    assertEquals(2, service.getDispatchedCount());
+
+    service.shutdown();
+  }
+
   private static int countTotalRequests(AbstractMap<?, Integer> hashMap) {
     int counter = 0;
     for (Integer value : hashMap.values()) {
@@ -92,6 +521,51 @@ public class RateLimitExecutorServiceTest {
     return counter;
   }
 
+  @Test
+  public void testVirtualThreadModeRunsTasksWhenAvailable() throws Exception {
+    boolean virtualThreadsAvailable = virtualThreadsAvailable();
+    RateLimitExecutorService service = new RateLimitExecutorService();
+    assertEquals(virtualThreadsAvailable, service.useVirtualThreads());
+
+    final CountDownLatch latch = new CountDownLatch(10);
+    final AtomicInteger virtualThreadTasks = new AtomicInteger();
+    for (int i = 0; i < 10; i++) {
+      service.execute(
+          () -> {
+            if (isVirtual(Thread.currentThread())) {
+              virtualThreadTasks.incrementAndGet();
+            }
+            latch.countDown();
+          });
+    }
+
+    assertTrue(latch.await(5, TimeUnit.SECONDS));
+    assertEquals(virtualThreadsAvailable ? 10 : 0, virtualThreadTasks.get());
+    service.shutdown();
+  }
+
+  /**
+   * Returns whether a virtual thread executor can be created, as the service decides it: on JDK 19
+   * and 20 the API is there but fails unless preview features are enabled.
+   */
+  private static boolean virtualThreadsAvailable() {
+    try {
+      ((ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null))
+          .shutdown();
+      return true;
+    } catch (ReflectiveOperationException e) {
+      return false;
+    }
+  }
+
+  private static boolean isVirtual(Thread thread) {
+    try {
+      return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+    } catch (ReflectiveOperationException e) {
+      return false;
+    }
+  }
+
   @Test
   public void testDelayThreadIsStoppedAfterShutdownIsCalled() throws InterruptedException {
     RateLimitExecutorService service = new RateLimitExecutorService();
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.maps.PendingResult;
+import com.google.maps.SmallTests;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/** Test case for {@link SingleFlight}. */
+@Category(SmallTests.class)
+public class SingleFlightTest {
+
+  private final SingleFlight singleFlight = new SingleFlight();
+  private final List<FakeCall> calls = new ArrayList<>();
+  private final AtomicInteger coalesced = new AtomicInteger();
+
+  @Test
+  public void testIdenticalRequestsInFlightShareOneCall() throws Exception {
+    CompletableFuture<Object> first = join("a").toCompletableFuture();
+    CompletableFuture<Object> second = join("a").toCompletableFuture();
+    CompletableFuture<Object> other = join("b").toCompletableFuture();
+
+    assertEquals(2, calls.size());
+    assertEquals(1, coalesced.get());
+
+    Object result = new Object();
+    calls.get(0).future.complete(result);
+    assertSame(result, first.get());
+    assertSame(result, second.get());
+    assertFalse(other.isDone());
+  }
+
+  @Test
+  public void testRequestsAfterFlightEndsAreSentAgain() throws Exception {
+    join("a").toCompletableFuture();
+    calls.get(0).future.complete(new Object());
+    assertEquals(0, singleFlight.inFlight());
+
+    join("a").toCompletableFuture();
+    assertEquals(2, calls.size());
+    assertEquals(0, coalesced.get());
+  }
+
+  @Test
+  public void testRequestsJoinWhenStartedNotWhenCreated() {
+    PendingResult<Object> created = join("a");
+    join("a").toCompletableFuture();
+    calls.get(0).future.complete(new Object());
+
+    created.toCompletableFuture();
+    assertEquals(2, calls.size());
+  }
+
+  @Test
+  public void testCallIsCanceledOnlyOnceEveryCallerHasCanceled() {
+    PendingResult<Object> first = join("a");
+    PendingResult<Object> second = join("a");
+    first.toCompletableFuture();
+    CompletableFuture<Object> secondResult = second.toCompletableFuture();
+
+    first.cancel();
+    assertFalse(calls.get(0).canceled);
+    assertFalse(secondResult.isDone());
+
+    second.cancel();
+    assertTrue(calls.get(0).canceled);
+    assertTrue(secondResult.isCompletedExceptionally());
+
+    // A canceled flight is not joined.
+    join("a").toCompletableFuture();
+    assertEquals(2, calls.size());
+  }
+
+  private PendingResult<Object> join(String key) {
+    return singleFlight.join(
+        key,
+        () -> {
+          FakeCall call = new FakeCall();
+          calls.add(call);
+          return call;
+        },
+        coalesced::incrementAndGet);
+  }
+
+  private static class FakeCall implements PendingResult<Object> {
+    final CompletableFuture<Object> future = new CompletableFuture<>();
+    boolean canceled;
+
+    @Override
+    public void setCallback(Callback<Object> callback) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Object await() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Object awaitIgnoreError() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void cancel() {
+      canceled = true;
+      future.completeExceptionally(new IOException("Canceled"));
+    }
+
+    @Override
+    public CompletableFuture<Object> toCompletableFuture() {
+      return future;
+    }
+  }
+}
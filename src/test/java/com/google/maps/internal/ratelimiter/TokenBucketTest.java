@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 Google Inc. All rights reserved.
+ *
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF
+ * ANY KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.google.maps.internal.ratelimiter;
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.maps.SmallTests;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/** Test case for {@link TokenBucket}. */
+@Category(SmallTests.class)
+public class TokenBucketTest {
+
+  private static class FakeTicker extends Ticker {
+    private long nanos;
+
+    @Override
+    public long read() {
+      return nanos;
+    }
+
+    void advance(long millis) {
+      nanos += TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+  }
+
+  @Test
+  public void testPermitsAreSpacedByRate() {
+    FakeTicker ticker = new FakeTicker();
+    TokenBucket bucket = TokenBucket.create(10, ticker);
+
+    assertEquals(0, bucket.tryAcquire());
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(100), bucket.tryAcquire());
+    ticker.advance(60);
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(40), bucket.tryAcquire());
+    ticker.advance(40);
+    assertEquals(0, bucket.tryAcquire());
+  }
+
+  @Test
+  public void testLateCallersKeepTheRate() {
+    FakeTicker ticker = new FakeTicker();
+    TokenBucket bucket = TokenBucket.create(10, ticker);
+
+    assertEquals(0, bucket.tryAcquire());
+    // Woken up 30ms after the next permit was due, the caller takes it from its slot.
+    ticker.advance(130);
+    assertEquals(0, bucket.tryAcquire());
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(70), bucket.tryAcquire());
+    ticker.advance(70);
+    assertEquals(0, bucket.tryAcquire());
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(100), bucket.tryAcquire());
+  }
+
+  @Test
+  public void testIdleTimeDoesNotAccumulatePermits() {
+    FakeTicker ticker = new FakeTicker();
+    TokenBucket bucket = TokenBucket.create(10, ticker);
+
+    ticker.advance(5000);
+    assertEquals(0, bucket.tryAcquire());
+    // Five idle seconds must not turn into a burst of fifty permits.
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(100), bucket.tryAcquire());
+  }
+
+  @Test
+  public void testSetRate() {
+    FakeTicker ticker = new FakeTicker();
+    TokenBucket bucket = TokenBucket.create(10, ticker);
+    bucket.setRate(4);
+
+    assertEquals(4.0, bucket.getRate(), 0.0001);
+    assertEquals(0, bucket.tryAcquire());
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(250), bucket.tryAcquire());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRateMustBePositive() {
+    TokenBucket.create(0);
+  }
+}